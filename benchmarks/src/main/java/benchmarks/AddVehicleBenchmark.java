@@ -0,0 +1,53 @@
+package benchmarks;
+
+import bench.FleetGenerator;
+
+import vehicles.Vehicle;
+
+import fleet.FleetManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// One op is building a whole fleet of the given size. A vehicle belongs to one manager at a
+// time, so every invocation gets freshly generated vehicles, outside the timing.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AddVehicleBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private List<Vehicle> vehicles;
+    private FleetManager manager;
+
+    @Setup(Level.Invocation)
+    public void freshFleet() {
+        vehicles = new FleetGenerator(FleetState.SEED).generate(size);
+        manager = new FleetManager();
+    }
+
+    @Benchmark
+    public FleetManager addVehicle() throws Exception {
+        for (Vehicle v : vehicles) {
+            manager.addVehicle(v);
+        }
+        return manager;
+    }
+}
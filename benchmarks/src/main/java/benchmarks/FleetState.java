@@ -0,0 +1,32 @@
+package benchmarks;
+
+import bench.FleetGenerator;
+
+import fleet.FleetManager;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// A generated fleet of the requested size, built once per trial. Every benchmark sees the
+// same vehicles for a given size, so two builds compared against each other get identical input.
+@State(Scope.Benchmark)
+public class FleetState {
+    static final long SEED = 42;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    public FleetManager manager;
+
+    @Setup
+    public void buildFleet() throws Exception {
+        manager = newManager();
+        new FleetGenerator(SEED).populate(manager, size);
+    }
+
+    FleetManager newManager() {
+        return new FleetManager();
+    }
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import vehicles.Vehicle;
+import vehicles.WaterVehicle;
+
+import fleet.FleetManager;
+
+import interfaces.FuelConsumable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The fuel-burning passes over the whole fleet, 1 km per op. The first invocation and every
+// TOP_UP_EVERY-th after it give the burners TOP_UP_FUEL outside the timing, far more than they
+// burn in between, so no op measures the generator's nearly empty tanks failing.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class JourneyBenchmark extends FleetState {
+    private static final int TOP_UP_EVERY = 128;
+    private static final double TOP_UP_FUEL = 500;
+
+    private List<Vehicle> burners;
+    private int invocations;
+
+    @Setup
+    public void findBurners() {
+        // sail-driven ships count as FuelConsumable but refuse fuel
+        burners = new ArrayList<>();
+        for (Vehicle v : manager.searchByType(FuelConsumable.class)) {
+            if (!(v instanceof WaterVehicle w && w.hasSail())) burners.add(v);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void topUp() throws Exception {
+        if (invocations++ % TOP_UP_EVERY == 0) {
+            for (Vehicle v : burners) manager.refuel(v.getId(), TOP_UP_FUEL);
+        }
+    }
+
+    @Benchmark
+    public double getTotalFuelConsumption() {
+        return manager.getTotalFuelConsumption(1.0);
+    }
+
+    @Benchmark
+    public FleetManager startAllJourneys() {
+        manager.startAllJourneys(1.0);
+        return manager;
+    }
+}
@@ -0,0 +1,52 @@
+package benchmarks;
+
+import vehicles.Car;
+import vehicles.Vehicle;
+
+import fleet.FleetManager;
+
+import interfaces.FuelConsumable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Read-only queries over a loaded fleet: type searches and the report
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class QueryBenchmark extends FleetState {
+    // columnar: the manager also keeps FleetColumns, which only the report reads
+    @Param({"false", "true"})
+    public boolean columnar;
+
+    @Override
+    FleetManager newManager() {
+        return new FleetManager(false, columnar);
+    }
+
+    @Benchmark
+    public List<Vehicle> searchByCapability() {
+        return manager.searchByType(FuelConsumable.class);
+    }
+
+    @Benchmark
+    public List<Vehicle> searchByClass() {
+        return manager.searchByType(Car.class);
+    }
+
+    @Benchmark
+    public String generateReport() {
+        return manager.generateReport();
+    }
+}
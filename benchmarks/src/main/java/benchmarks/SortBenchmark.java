@@ -0,0 +1,57 @@
+package benchmarks;
+
+import bench.FleetGenerator;
+
+import vehicles.Vehicle;
+
+import fleet.FleetManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// sortFleetByEfficiency on a registry in shuffled order. A sorted registry would make every
+// later sort trivial, so each invocation registers a fresh, reshuffled fleet first.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SortBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private final Random shuffle = new Random(FleetState.SEED);
+    private FleetManager manager;
+
+    @Setup(Level.Invocation)
+    public void shuffledFleet() throws Exception {
+        List<Vehicle> vehicles = new FleetGenerator(FleetState.SEED).generate(size);
+        Collections.shuffle(vehicles, shuffle);
+        manager = new FleetManager();
+        for (Vehicle v : vehicles) {
+            manager.addVehicle(v);
+        }
+    }
+
+    @Benchmark
+    public FleetManager sortFleetByEfficiency() {
+        manager.sortFleetByEfficiency();
+        return manager;
+    }
+}
@@ -0,0 +1,49 @@
+package benchmarks;
+
+import vehicles.Truck;
+
+import fleet.FleetManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Single-vehicle mutations through the manager: lookup, stripe lock, the vehicle's own logic
+// and the refresh of the indexes and running stats. Each op leaves the truck as it found it,
+// so the state never drifts however many ops run.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class VehicleBenchmark extends FleetState {
+    private static final String TRUCK_ID = "BENCH-TRUCK";
+
+    @Setup
+    public void addTruck() throws Exception {
+        Truck truck = new Truck(TRUCK_ID, "Volvo", 120, 6);
+        manager.addVehicle(truck);
+        manager.refuel(TRUCK_ID, 100);
+    }
+
+    @Benchmark
+    public FleetManager moveAndRefuel() throws Exception {
+        manager.moveVehicle(TRUCK_ID, 8);
+        manager.refuel(TRUCK_ID, 1);
+        return manager;
+    }
+
+    @Benchmark
+    public FleetManager loadAndUnloadCargo() throws Exception {
+        manager.loadCargo(TRUCK_ID, 1000);
+        manager.unloadCargo(TRUCK_ID, 1000);
+        return manager;
+    }
+}
@@ -0,0 +1,248 @@
+package bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// A small benchmark harness after JMH's model, with no dependency beyond the JDK: each case
+// runs in its own forked JVM (so one case's JIT profile cannot skew the next), goes through
+// warmup iterations that are thrown away, then measurement iterations. An iteration calls
+// the case repeatedly for a fixed wall-clock time; only invoke() is timed, prepare() is not.
+// Results go through a volatile sink so the JIT cannot drop the work as dead code.
+//
+// Timing every invocation separately adds ~50 ns of clock overhead per call, which is noise
+// for the fleet-sized operations measured here but would not be for nanosecond-scale ones.
+public class BenchmarkRunner {
+
+    public abstract static class Case {
+        private final String name;
+
+        protected Case(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // Once per fleet size, untimed
+        public abstract void setup(int size) throws Exception;
+
+        // Before every invocation, untimed; for cases whose invocation consumes its input
+        public void prepare() throws Exception {
+        }
+
+        public abstract Object invoke() throws Exception;
+
+        public void tearDown() throws Exception {
+        }
+    }
+
+    // Score is the mean time per invocation over all measurement iterations of all forks
+    public record Result(String name, int size, int iterations, double meanNanos, double stdDevNanos,
+                         double minNanos, double maxNanos) {
+    }
+
+    private static final String RESULT_PREFIX = "#result ";
+
+    static volatile Object sink;
+
+    private int warmupIterations = 3;
+    private int measurementIterations = 5;
+    private long iterationNanos = 500_000_000L;
+    private int forks = 1;
+
+    public BenchmarkRunner warmupIterations(int n) {
+        this.warmupIterations = n;
+        return this;
+    }
+
+    public BenchmarkRunner measurementIterations(int n) {
+        this.measurementIterations = n;
+        return this;
+    }
+
+    public BenchmarkRunner iterationMillis(long millis) {
+        this.iterationNanos = millis * 1_000_000L;
+        return this;
+    }
+
+    // 0 runs every case inside this JVM
+    public BenchmarkRunner forks(int n) {
+        this.forks = n;
+        return this;
+    }
+
+    public String describe() {
+        return String.format(Locale.ROOT, "%d warmup + %d measurement iterations of %d ms, %d fork(s)",
+                warmupIterations, measurementIterations, iterationNanos / 1_000_000L, forks);
+    }
+
+    // In forked mode mainClass must accept the arguments built by childArguments and call runChild
+    public List<Result> run(Case c, int[] sizes, Class<?> mainClass) throws Exception {
+        if (forks == 0) {
+            List<Result> results = new ArrayList<>();
+            for (int size : sizes) {
+                results.add(summarize(c.getName(), size, measure(c, size)));
+            }
+            return results;
+        }
+        List<List<Double>> samples = new ArrayList<>();
+        for (int i = 0; i < sizes.length; i++) samples.add(new ArrayList<>());
+        for (int f = 0; f < forks; f++) {
+            runFork(c, sizes, mainClass, samples);
+        }
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < sizes.length; i++) {
+            results.add(summarize(c.getName(), sizes[i], samples.get(i)));
+        }
+        return results;
+    }
+
+    // Child side of a fork: measures and reports raw iteration scores on stdout
+    public void runChild(Case c, int[] sizes) throws Exception {
+        PrintStream out = System.out;
+        for (int size : sizes) {
+            List<Double> scores = measure(c, size);
+            StringBuilder sb = new StringBuilder(RESULT_PREFIX).append(size);
+            for (double s : scores) sb.append(' ').append(s);
+            out.println(sb);
+        }
+        out.flush();
+    }
+
+    public List<String> childArguments(Case c, int[] sizes) {
+        List<String> args = new ArrayList<>();
+        args.add("--child");
+        args.add(c.getName());
+        args.add("--sizes");
+        args.add(joinSizes(sizes));
+        args.add("--warmup");
+        args.add(Integer.toString(warmupIterations));
+        args.add("--iterations");
+        args.add(Integer.toString(measurementIterations));
+        args.add("--time");
+        args.add(Long.toString(iterationNanos / 1_000_000L));
+        return args;
+    }
+
+    // Vehicles and FleetManager print to System.out; that output is discarded while
+    // measuring, as printing would dominate most of the timings
+    private List<Double> measure(Case c, int size) throws Exception {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            c.setup(size);
+            try {
+                for (int i = 0; i < warmupIterations; i++) {
+                    iteration(c);
+                }
+                List<Double> scores = new ArrayList<>();
+                for (int i = 0; i < measurementIterations; i++) {
+                    scores.add(iteration(c));
+                }
+                return scores;
+            } finally {
+                c.tearDown();
+            }
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    // Mean nanoseconds per invocation; at least one invocation even when it outlasts the iteration
+    private double iteration(Case c) throws Exception {
+        long timed = 0;
+        long ops = 0;
+        long deadline = System.nanoTime() + iterationNanos;
+        do {
+            c.prepare();
+            long start = System.nanoTime();
+            Object r = c.invoke();
+            timed += System.nanoTime() - start;
+            sink = r;
+            ops++;
+        } while (System.nanoTime() < deadline);
+        return (double) timed / ops;
+    }
+
+    private void runFork(Case c, int[] sizes, Class<?> mainClass, List<List<Double>> samples) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command()
+                .orElse(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java"));
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(mainClass.getName());
+        command.addAll(childArguments(c, sizes));
+
+        Process p = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        int reported = 0;
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                if (!line.startsWith(RESULT_PREFIX)) continue;
+                String[] parts = line.substring(RESULT_PREFIX.length()).split(" ");
+                int size = Integer.parseInt(parts[0]);
+                for (int i = 0; i < sizes.length; i++) {
+                    if (sizes[i] != size) continue;
+                    for (int j = 1; j < parts.length; j++) samples.get(i).add(Double.parseDouble(parts[j]));
+                    reported++;
+                }
+            }
+        }
+        int exit = p.waitFor();
+        if (exit != 0 || reported != sizes.length) {
+            throw new IOException("Fork for " + c.getName() + " failed (exit code " + exit + ")");
+        }
+    }
+
+    private static Result summarize(String name, int size, List<Double> scores) {
+        double sum = 0, min = Double.MAX_VALUE, max = 0;
+        for (double s : scores) {
+            sum += s;
+            min = Math.min(min, s);
+            max = Math.max(max, s);
+        }
+        double mean = sum / scores.size();
+        double squares = 0;
+        for (double s : scores) squares += (s - mean) * (s - mean);
+        double stdDev = scores.size() > 1 ? Math.sqrt(squares / (scores.size() - 1)) : 0.0;
+        return new Result(name, size, scores.size(), mean, stdDev, min, max);
+    }
+
+    public static String header() {
+        return String.format(Locale.ROOT, "%-28s %8s %4s %14s   %12s  %s", "Benchmark", "Size", "Cnt", "Score", "StdDev", "Units");
+    }
+
+    // Microseconds per operation, like JMH's avgt mode in us
+    public static String format(Result r) {
+        return String.format(Locale.ROOT, "%-28s %8d %4d %14.3f ± %12.3f  us/op",
+                r.name(), r.size(), r.iterations(), r.meanNanos() / 1000.0, r.stdDevNanos() / 1000.0);
+    }
+
+    static String joinSizes(int[] sizes) {
+        StringBuilder sb = new StringBuilder();
+        for (int s : sizes) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(s);
+        }
+        return sb.toString();
+    }
+
+    static int[] parseSizes(String list) {
+        String[] parts = list.split(",");
+        int[] sizes = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            sizes[i] = Integer.parseInt(parts[i].trim().replace("_", ""));
+        }
+        return sizes;
+    }
+}
@@ -0,0 +1,379 @@
+package bench;
+
+import vehicles.Vehicle;
+import vehicles.Car;
+import vehicles.WaterVehicle;
+
+import fleet.FleetManager;
+import fleet.MutationBatch;
+import fleet.RouteQuery;
+import fleet.Trip;
+
+import sim.FleetSimulation;
+
+import interfaces.FuelConsumable;
+
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+// Benchmarks of FleetManager's hot paths over synthetic fleets of increasing size, run on the
+// JDK alone. The JMH benchmarks in the benchmarks module (gradle :benchmarks:jmh) are the
+// reference; this is a quick check from a plain javac build.
+//
+//   java -cp out bench.FleetBenchmark [options] [name filter]
+//     --sizes 1000,10000,100000   fleet sizes
+//     --warmup 3 --iterations 5   iterations per fork
+//     --time 500                  milliseconds per iteration
+//     --forks 1                   JVMs per case, 0 to run in this JVM
+//     --out results.txt           also write the result table to a file
+//
+// Run both builds with the same options on the same machine before comparing numbers;
+// benchmarks/runner-baseline.txt records the options it was produced with.
+public class FleetBenchmark {
+    private static final long SEED = 42;
+    // Fuel each vehicle gets back every TOP_UP_EVERY invocations of a fuel-burning case,
+    // far more than 1 km journeys burn in between
+    private static final int TOP_UP_EVERY = 128;
+    private static final double TOP_UP_FUEL = 500;
+
+    static List<BenchmarkRunner.Case> cases() {
+        List<BenchmarkRunner.Case> cases = new ArrayList<>();
+
+        cases.add(new BenchmarkRunner.Case("addVehicle") {
+            int size;
+            List<Vehicle> vehicles;
+            FleetManager manager;
+
+            @Override public void setup(int size) {
+                this.size = size;
+            }
+
+            // A vehicle belongs to one manager at a time, so every invocation gets fresh ones
+            @Override public void prepare() {
+                vehicles = new FleetGenerator(SEED).generate(size);
+                manager = new FleetManager();
+            }
+
+            // One op is building the whole fleet
+            @Override public Object invoke() throws Exception {
+                for (Vehicle v : vehicles) manager.addVehicle(v);
+                return manager;
+            }
+        });
+
+        cases.add(new FleetCase("searchByType.capability") {
+            @Override public Object invoke() {
+                return manager.searchByType(FuelConsumable.class);
+            }
+        });
+
+        cases.add(new FleetCase("searchByType.class") {
+            @Override public Object invoke() {
+                return manager.searchByType(Car.class);
+            }
+        });
+
+        cases.add(new FleetCase("generateReport") {
+            @Override public Object invoke() {
+                return manager.generateReport();
+            }
+        });
+
+        cases.add(new FleetCase("generateReport.columnar", true) {
+            @Override public Object invoke() {
+                return manager.generateReport();
+            }
+        });
+
+        cases.add(new FuelCase("getTotalFuelConsumption") {
+            @Override public Object invoke() {
+                return manager.getTotalFuelConsumption(1.0);
+            }
+        });
+
+        // Snapshot plus one per-vehicle projection; read-only counterpart of getTotalFuelConsumption
+        cases.add(new FleetCase("projectFuel") {
+            @Override public Object invoke() {
+                return manager.projectFuel().fuelNeeded(1.0);
+            }
+        });
+
+        cases.add(new FuelCase("startAllJourneys") {
+            @Override public Object invoke() {
+                manager.startAllJourneys(1.0);
+                return manager;
+            }
+        });
+
+        cases.add(new FleetCase("csvRoundTrip") {
+            Path file;
+
+            @Override public void setup(int size) throws Exception {
+                super.setup(size);
+                file = Files.createTempFile("fleet-bench", ".csv");
+            }
+
+            @Override public Object invoke() {
+                manager.saveToFile(file.toString());
+                manager.loadFromFile(file.toString());
+                return manager;
+            }
+
+            @Override public void tearDown() throws IOException {
+                Files.deleteIfExists(file);
+            }
+        });
+
+        cases.add(new BenchmarkRunner.Case("sortFleetByEfficiency") {
+            int size;
+            Random shuffle;
+            FleetManager manager;
+
+            @Override public void setup(int size) {
+                this.size = size;
+                shuffle = new Random(SEED);
+            }
+
+            // A sorted registry would make every later sort a single presorted run, and a vehicle
+            // belongs to one manager at a time, so every invocation gets a fresh shuffled fleet
+            @Override public void prepare() throws Exception {
+                List<Vehicle> vehicles = new FleetGenerator(SEED).generate(size);
+                Collections.shuffle(vehicles, shuffle);
+                manager = new FleetManager();
+                for (Vehicle v : vehicles) manager.addVehicle(v);
+            }
+
+            @Override public Object invoke() {
+                manager.sortFleetByEfficiency();
+                return manager;
+            }
+        });
+
+        cases.add(new FleetCase("mostEfficient.top10") {
+            @Override public Object invoke() {
+                return manager.getMostEfficient(10);
+            }
+        });
+
+        cases.add(new FleetCase("planRoute.time") {
+            @Override public Object invoke() {
+                return manager.planRoute(new RouteQuery(500).fuelMargin(5).cargo(1000));
+            }
+        });
+
+        cases.add(new FleetCase("planRoute.fuel") {
+            @Override public Object invoke() {
+                return manager.planRoute(new RouteQuery(500).fuelMargin(5).rankBy(RouteQuery.Ranking.FUEL));
+            }
+        });
+
+        // one trip per ten vehicles, a third of them with cargo and a third with passengers
+        cases.add(new FleetCase("dispatch") {
+            List<Trip> trips;
+
+            @Override public void setup(int size) throws Exception {
+                super.setup(size);
+                Random random = new Random(SEED);
+                trips = new ArrayList<>();
+                for (int i = 0; i < Math.max(1, size / 10); i++) {
+                    trips.add(new Trip(10 + random.nextDouble() * 3000,
+                            random.nextInt(3) == 0 ? random.nextDouble() * 20000 : 0.0,
+                            random.nextInt(3) == 0 ? random.nextInt(120) : 0));
+                }
+            }
+
+            @Override public Object invoke() {
+                return manager.dispatch(trips, RouteQuery.Ranking.FUEL);
+            }
+        });
+
+        // one simulated day, one maintenance bay per 200 vehicles
+        cases.add(new BenchmarkRunner.Case("simulate.day") {
+            int size;
+            List<Vehicle> vehicles;
+            FleetSimulation simulation;
+
+            @Override public void setup(int size) {
+                this.size = size;
+                simulation = new FleetSimulation()
+                        .journeyDistance(50, 800)
+                        .maintenanceBays(Math.max(1, size / 200), 6)
+                        .seed(SEED);
+            }
+
+            // The run moves the vehicles, so every invocation starts from a fresh fleet
+            @Override public void prepare() {
+                vehicles = new FleetGenerator(SEED).generate(size);
+            }
+
+            @Override public Object invoke() {
+                return simulation.run(vehicles, 24);
+            }
+        });
+
+        // the same mixed operations one call at a time and as a single MutationBatch
+        cases.add(new MutationCase("mutations.single") {
+            @Override public Object invoke() {
+                int failed = 0;
+                for (int i = 0; i < ids.length; i++) {
+                    try {
+                        switch (ops[i]) {
+                            case MutationBatch.MOVE -> manager.moveVehicle(ids[i], amounts[i]);
+                            case MutationBatch.REFUEL -> manager.refuel(ids[i], amounts[i]);
+                            case MutationBatch.LOAD_CARGO -> manager.loadCargo(ids[i], amounts[i]);
+                            case MutationBatch.UNLOAD_CARGO -> manager.unloadCargo(ids[i], amounts[i]);
+                            case MutationBatch.BOARD_PASSENGERS -> manager.boardPassengers(ids[i], (int) amounts[i]);
+                            default -> manager.disembarkPassengers(ids[i], (int) amounts[i]);
+                        }
+                    } catch (InvalidOperationException | OverloadException e) {
+                        failed++;
+                    }
+                }
+                return failed;
+            }
+        });
+
+        cases.add(new MutationCase("mutations.batch") {
+            @Override public Object invoke() {
+                return manager.apply(MutationBatch.of(ids, ops, amounts));
+            }
+        });
+
+        return cases;
+    }
+
+    // A generated fleet of the requested size, loaded once per size
+    private abstract static class FleetCase extends BenchmarkRunner.Case {
+        private final boolean columnar;
+        FleetManager manager;
+
+        FleetCase(String name) {
+            this(name, false);
+        }
+
+        FleetCase(String name, boolean columnar) {
+            super(name);
+            this.columnar = columnar;
+        }
+
+        @Override public void setup(int size) throws Exception {
+            manager = new FleetManager(false, columnar);
+            new FleetGenerator(SEED).populate(manager, size);
+        }
+    }
+
+    // Cases that burn fuel refill the fleet now and then, outside the timed section
+    private abstract static class FuelCase extends FleetCase {
+        private List<Vehicle> burners;
+        private int invocations;
+
+        FuelCase(String name) {
+            super(name);
+        }
+
+        @Override public void setup(int size) throws Exception {
+            super.setup(size);
+            // sail-driven ships count as FuelConsumable but refuse fuel
+            burners = new ArrayList<>();
+            for (Vehicle v : manager.searchByType(FuelConsumable.class)) {
+                if (!(v instanceof WaterVehicle w && w.hasSail())) burners.add(v);
+            }
+            invocations = 0;
+        }
+
+        @Override public void prepare() throws Exception {
+            if (++invocations % TOP_UP_EVERY == 0) {
+                for (Vehicle v : burners) manager.refuel(v.getId(), TOP_UP_FUEL);
+            }
+        }
+    }
+
+    // One operation per vehicle in random order, a third of them moves and refuels and the
+    // rest cargo and passengers, so a share fail the way a live feed's would
+    private abstract static class MutationCase extends FuelCase {
+        String[] ids;
+        byte[] ops;
+        double[] amounts;
+
+        MutationCase(String name) {
+            super(name);
+        }
+
+        @Override public void setup(int size) throws Exception {
+            super.setup(size);
+            List<Vehicle> vehicles = manager.searchByType(Vehicle.class);
+            Random random = new Random(SEED);
+            int n = vehicles.size();
+            ids = new String[n];
+            ops = new byte[n];
+            amounts = new double[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = vehicles.get(random.nextInt(n)).getId();
+                ops[i] = (byte) random.nextInt(MutationBatch.DISEMBARK_PASSENGERS + 1);
+                amounts[i] = ops[i] >= MutationBatch.BOARD_PASSENGERS ? 1 + random.nextInt(3) : 1 + random.nextDouble() * 99;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner runner = new BenchmarkRunner();
+        int[] sizes = {1_000, 10_000, 100_000};
+        String filter = null;
+        String child = null;
+        String out = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--sizes" -> sizes = BenchmarkRunner.parseSizes(args[++i]);
+                case "--warmup" -> runner.warmupIterations(Integer.parseInt(args[++i]));
+                case "--iterations" -> runner.measurementIterations(Integer.parseInt(args[++i]));
+                case "--time" -> runner.iterationMillis(Long.parseLong(args[++i]));
+                case "--forks" -> runner.forks(Integer.parseInt(args[++i]));
+                case "--out" -> out = args[++i];
+                case "--child" -> child = args[++i];
+                default -> filter = args[i];
+            }
+        }
+
+        List<BenchmarkRunner.Case> cases = cases();
+        if (child != null) {
+            for (BenchmarkRunner.Case c : cases) {
+                if (c.getName().equals(child)) {
+                    runner.runChild(c, sizes);
+                    return;
+                }
+            }
+            throw new IllegalArgumentException("Unknown benchmark: " + child);
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "# %s %s, %s, %d CPU(s)", System.getProperty("java.vm.name"),
+                System.getProperty("java.version"), System.getProperty("os.arch"), Runtime.getRuntime().availableProcessors()));
+        lines.add("# " + runner.describe() + ", sizes " + BenchmarkRunner.joinSizes(sizes) + ", seed " + SEED);
+        lines.add(BenchmarkRunner.header());
+        lines.forEach(System.out::println);
+        for (BenchmarkRunner.Case c : cases) {
+            if (filter != null && !c.getName().contains(filter)) continue;
+            for (BenchmarkRunner.Result r : runner.run(c, sizes, FleetBenchmark.class)) {
+                String line = BenchmarkRunner.format(r);
+                System.out.println(line);
+                lines.add(line);
+            }
+        }
+        if (out != null) {
+            try (PrintWriter w = new PrintWriter(new FileWriter(out))) {
+                lines.forEach(w::println);
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package bench;
+
+import vehicles.Vehicle;
+import vehicles.Car;
+import vehicles.Truck;
+import vehicles.Bus;
+import vehicles.Airplane;
+import vehicles.CargoShip;
+import vehicles.VehicleType;
+
+import fleet.FleetManager;
+import fleet.FleetCsvWriter;
+
+import exceptions.InvalidOperationException;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Deterministic synthetic fleets: the same seed and mix always yield the same vehicles, so
+// two builds benchmarked against each other see identical input. State follows rough
+// real-world shapes rather than uniform ranges:
+//   - lifetime mileage is log-normal around a per-type median (a few very old vehicles);
+//   - mileage since the last service is uniform over 1.3 intervals, so ~23% are due;
+//   - tanks skew full, with ~3% of fuel-driven vehicles nearly empty;
+//   - trucks run empty about a quarter of the time and well loaded otherwise, ships sail
+//     mostly full, buses carry little luggage; cars mostly carry one or two people.
+//
+//   java -cp out bench.FleetGenerator <count> <file.csv> [--seed N] [--mix car=50,truck=25,...]
+// writes a fleet in the CSV format FleetManager.loadFromFile reads, without holding it in memory.
+public class FleetGenerator {
+    private static final String[] CAR_MODELS = {"Toyota", "Honda", "Ford", "Skoda", "Kia"};
+    private static final String[] TRUCK_MODELS = {"Volvo", "Scania", "MAN", "Tata"};
+    private static final String[] BUS_MODELS = {"Mercedes", "Volvo", "Ashok Leyland"};
+    private static final String[] AIRPLANE_MODELS = {"Boeing", "Airbus", "Embraer"};
+    private static final String[] SHIP_MODELS = {"Maersk", "Evergreen", "Titanic"};
+
+    private static final VehicleType[] TYPES = VehicleType.values();
+
+    // Percent of the fleet per type, in VehicleType order
+    public static final Map<VehicleType, Double> DEFAULT_MIX = mix(50, 25, 12, 3, 10);
+
+    private final SplittableRandom random;
+    private final double[] cumulative = new double[TYPES.length];
+    private long sequence;
+
+    public FleetGenerator(long seed) {
+        this(seed, DEFAULT_MIX);
+    }
+
+    // Weights need not sum to 100; types left out of the map are never generated
+    public FleetGenerator(long seed, Map<VehicleType, Double> mix) {
+        this.random = new SplittableRandom(seed);
+        double total = 0;
+        for (int i = 0; i < TYPES.length; i++) {
+            double w = mix.getOrDefault(TYPES[i], 0.0);
+            if (w < 0) {
+                throw new IllegalArgumentException("Negative weight for " + TYPES[i].getDisplayName());
+            }
+            total += w;
+            cumulative[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Vehicle mix has no positive weight.");
+        }
+        for (int i = 0; i < TYPES.length; i++) {
+            cumulative[i] /= total;
+        }
+    }
+
+    public static Map<VehicleType, Double> mix(double cars, double trucks, double buses, double airplanes, double ships) {
+        Map<VehicleType, Double> mix = new EnumMap<>(VehicleType.class);
+        mix.put(VehicleType.CAR, cars);
+        mix.put(VehicleType.TRUCK, trucks);
+        mix.put(VehicleType.BUS, buses);
+        mix.put(VehicleType.AIRPLANE, airplanes);
+        mix.put(VehicleType.CARGO_SHIP, ships);
+        return mix;
+    }
+
+    // "car=50,truck=25,cargoship=10": type display names, case-insensitive
+    public static Map<VehicleType, Double> parseMix(String spec) {
+        Map<VehicleType, Double> mix = new EnumMap<>(VehicleType.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.split("=");
+            VehicleType t = kv.length == 2 ? VehicleType.fromName(kv[0].trim()) : null;
+            if (t == null) {
+                throw new IllegalArgumentException("Bad mix entry: " + part);
+            }
+            mix.put(t, Double.parseDouble(kv[1].trim()));
+        }
+        return mix;
+    }
+
+    public List<Vehicle> generate(int count) {
+        List<Vehicle> vehicles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            vehicles.add(next());
+        }
+        return vehicles;
+    }
+
+    public void populate(FleetManager manager, int count) throws InvalidOperationException {
+        for (int i = 0; i < count; i++) {
+            manager.addVehicle(next());
+        }
+    }
+
+    // Streams count vehicles to file; memory use does not grow with count
+    public void writeCsv(Path file, long count) throws IOException {
+        try (FleetCsvWriter writer = new FleetCsvWriter(FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+            for (long i = 0; i < count; i++) {
+                writer.write(next());
+            }
+        }
+    }
+
+    // IDs are a type letter plus a fleet-wide sequence number, unique per generator
+    public Vehicle next() {
+        long n = ++sequence;
+        try {
+            Vehicle v;
+            double medianMileage;
+            switch (pickType()) {
+                case CAR -> {
+                    Car car = new Car("C" + n, pick(CAR_MODELS), between(100, 200), 4);
+                    car.restoreState(tank(50), occupants(5));
+                    v = car;
+                    medianMileage = 60_000;
+                }
+                case TRUCK -> {
+                    Truck truck = new Truck("T" + n, pick(TRUCK_MODELS), between(80, 130), 6 + 2 * random.nextInt(3));
+                    truck.restoreState(tank(400), random.nextInt(4) == 0 ? 0.0 : 5000 * between(0.4, 1.0));
+                    v = truck;
+                    medianMileage = 250_000;
+                }
+                case BUS -> {
+                    Bus bus = new Bus("B" + n, pick(BUS_MODELS), between(70, 110), 6);
+                    bus.restoreState(tank(250), (int) Math.round(50 * between(0.1, 1.0)), 500 * between(0, 0.3));
+                    v = bus;
+                    medianMileage = 300_000;
+                }
+                case AIRPLANE -> {
+                    Airplane plane = new Airplane("A" + n, pick(AIRPLANE_MODELS), between(700, 950), between(8000, 13000));
+                    // the CSV format has no airplane cargo column, so generated planes carry none
+                    plane.restoreState(tank(20000), (int) Math.round(200 * between(0.7, 0.95)), 0.0);
+                    v = plane;
+                    medianMileage = 2_000_000;
+                }
+                default -> {
+                    boolean sail = random.nextInt(5) == 0;
+                    CargoShip ship = new CargoShip("S" + n, pick(SHIP_MODELS), between(30, 60), sail);
+                    ship.restoreState(sail ? 0.0 : tank(5000), 50000 * between(0.6, 1.0));
+                    v = ship;
+                    medianMileage = 400_000;
+                }
+            }
+            v.setCurrentMileage(medianMileage * Math.exp(0.6 * random.nextGaussian()));
+            v.setmaintance(between(0, 1.3 * Vehicle.MAINTENANCE_INTERVAL));
+            return v;
+        } catch (InvalidOperationException e) {
+            // every value above is drawn inside the range its setter accepts
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private VehicleType pickType() {
+        double u = random.nextDouble();
+        for (int i = 0; i < TYPES.length - 1; i++) {
+            if (u < cumulative[i]) return TYPES[i];
+        }
+        return TYPES[TYPES.length - 1];
+    }
+
+    // Larger of two uniforms skews towards a full tank
+    private double tank(double capacity) {
+        if (random.nextInt(100) < 3) {
+            return capacity * between(0, 0.02);
+        }
+        return capacity * Math.max(random.nextDouble(), random.nextDouble());
+    }
+
+    // Geometric: one occupant half the time, rarely a full car
+    private int occupants(int capacity) {
+        int n = 1;
+        while (n < capacity && random.nextBoolean()) n++;
+        return n;
+    }
+
+    private double between(double low, double high) {
+        return low + random.nextDouble() * (high - low);
+    }
+
+    private String pick(String[] options) {
+        return options[random.nextInt(options.length)];
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: FleetGenerator <count> <file.csv> [--seed N] [--mix car=50,truck=25,bus=12,airplane=3,cargoship=10]");
+            return;
+        }
+        long count = Long.parseLong(args[0].replace("_", ""));
+        Path file = Path.of(args[1]);
+        long seed = 42;
+        Map<VehicleType, Double> mix = DEFAULT_MIX;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--mix" -> mix = parseMix(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        long start = System.nanoTime();
+        new FleetGenerator(seed, mix).writeCsv(file, count);
+        System.out.println(String.format(Locale.ROOT, "Wrote %d vehicles to %s in %.1f s", count, file,
+                (System.nanoTime() - start) / 1e9));
+    }
+}
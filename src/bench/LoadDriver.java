@@ -0,0 +1,327 @@
+package bench;
+
+import vehicles.Vehicle;
+import vehicles.WaterVehicle;
+
+import fleet.FleetManager;
+
+import metrics.FleetMetrics;
+import metrics.MetricsEndpoint;
+
+import interfaces.FuelConsumable;
+import interfaces.CargoCarrier;
+import interfaces.PassengerCarrier;
+import interfaces.Maintainable;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Replays a mixed workload of single-vehicle operations against a FleetManager from one or
+// more threads and reports throughput and latency percentiles per operation.
+//
+//   java -cp out bench.LoadDriver [options]
+//     --fleet 100000           generated fleet size, or --csv file.csv to load one
+//     --threads 4              worker threads; more than one uses a concurrent FleetManager
+//     --duration 10            measured seconds, after --warmup 3 seconds
+//     --rate 0                 total target ops/s; 0 runs closed-loop, as fast as possible
+//     --mix journey=40,refuel=20,cargo=15,passengers=15,maintenance=10
+//     --columnar               keep the FleetColumns copy up to date as well
+//     --journal dir [--sync]   journal every mutation, optionally waiting for each commit
+//     --metrics port           record FleetMetrics, served on 127.0.0.1:port while running
+//     --metrics-file file      record FleetMetrics and write them to file at the end (.json or text)
+//
+// With --rate each thread issues operations on a fixed schedule and latency is measured
+// from the scheduled start, so a stall also counts against the operations queued behind
+// it (the coordinated omission correction). Closed-loop latencies leave that out.
+// Failed operations (no fuel, overload, ...) are counted as errors; their latency counts too.
+public class LoadDriver {
+    enum Op {
+        JOURNEY, REFUEL, CARGO, PASSENGERS, MAINTENANCE;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final Op[] OPS = Op.values();
+
+    // Latencies of one operation kind on one thread; merged and sorted once at the end
+    private static final class Samples {
+        long[] nanos = new long[1 << 12];
+        int count;
+        long errors;
+
+        void add(long latency) {
+            if (count == nanos.length) nanos = Arrays.copyOf(nanos, count * 2);
+            nanos[count++] = latency;
+        }
+    }
+
+    private final FleetManager manager;
+    private final String[] all;
+    private final String[] burners;
+    private final String[] cargo;
+    private final String[] passengers;
+    private final String[] maintainable;
+    private final double[] cumulative = new double[OPS.length];
+
+    public LoadDriver(FleetManager manager, int[] mixPercent) {
+        this.manager = manager;
+        List<String> all = new ArrayList<>(), burners = new ArrayList<>(), cargo = new ArrayList<>(),
+                passengers = new ArrayList<>(), maintainable = new ArrayList<>();
+        for (Vehicle v : manager.searchByType(Vehicle.class)) {
+            String id = v.getId();
+            all.add(id);
+            if (v instanceof FuelConsumable && !(v instanceof WaterVehicle w && w.hasSail())) burners.add(id);
+            if (v instanceof CargoCarrier) cargo.add(id);
+            if (v instanceof PassengerCarrier) passengers.add(id);
+            if (v instanceof Maintainable) maintainable.add(id);
+        }
+        this.all = all.toArray(new String[0]);
+        this.burners = burners.toArray(new String[0]);
+        this.cargo = cargo.toArray(new String[0]);
+        this.passengers = passengers.toArray(new String[0]);
+        this.maintainable = maintainable.toArray(new String[0]);
+        if (this.all.length == 0) {
+            throw new IllegalArgumentException("The fleet is empty.");
+        }
+
+        double total = 0;
+        for (int i = 0; i < OPS.length; i++) {
+            total += mixPercent[i];
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < OPS.length; i++) cumulative[i] /= total;
+    }
+
+    // "journey=40,refuel=20": weights per operation, in Op order; missing ones are 0
+    static int[] parseMix(String spec) {
+        int[] mix = new int[OPS.length];
+        for (String part : spec.split(",")) {
+            String[] kv = part.split("=");
+            Op op = kv.length == 2 ? Op.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)) : null;
+            if (op == null) throw new IllegalArgumentException("Bad mix entry: " + part);
+            mix[op.ordinal()] = Integer.parseInt(kv[1].trim());
+        }
+        return mix;
+    }
+
+    // Runs for warmup + duration seconds; only the last duration seconds are recorded
+    public void run(int threads, double warmupSeconds, double durationSeconds, double rate, PrintStream out) throws InterruptedException {
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + (long) (warmupSeconds * 1e9);
+        long end = measureFrom + (long) (durationSeconds * 1e9);
+        // each thread issues every threads-th operation of the overall schedule
+        long interval = rate > 0 ? (long) (threads * 1e9 / rate) : 0;
+
+        Samples[][] samples = new Samples[threads][OPS.length];
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Samples[] mine = samples[t];
+            for (int o = 0; o < OPS.length; o++) mine[o] = new Samples();
+            long seed = 1000 + t;
+            long offset = interval * t / threads;
+            Thread worker = new Thread(() -> {
+                try {
+                    work(new SplittableRandom(seed), mine, start + offset, interval, measureFrom, end);
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + t);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+        report(samples, durationSeconds, threads, rate, out);
+    }
+
+    private void work(SplittableRandom random, Samples[] samples, long first, long interval, long measureFrom, long end) {
+        long scheduled = first;
+        while (true) {
+            long begin;
+            if (interval > 0) {
+                while ((begin = System.nanoTime()) < scheduled) {
+                    LockSupport.parkNanos(scheduled - begin);
+                }
+                begin = scheduled;
+                scheduled += interval;
+            } else {
+                begin = System.nanoTime();
+            }
+            if (begin >= end) {
+                return;
+            }
+            Op op = pickOp(random);
+            boolean ok = execute(op, random);
+            long latency = System.nanoTime() - begin;
+            if (begin >= measureFrom) {
+                Samples s = samples[op.ordinal()];
+                s.add(latency);
+                if (!ok) s.errors++;
+            }
+        }
+    }
+
+    private Op pickOp(SplittableRandom random) {
+        double u = random.nextDouble();
+        for (int i = 0; i < OPS.length - 1; i++) {
+            if (u < cumulative[i]) return OPS[i];
+        }
+        return OPS[OPS.length - 1];
+    }
+
+    // Sizes are small against capacities, so most operations succeed while the fleet
+    // keeps drifting: fuel burns down between refuels, cargo and passengers come and go
+    private boolean execute(Op op, SplittableRandom random) {
+        try {
+            switch (op) {
+                case JOURNEY -> manager.moveVehicle(pick(all, random), 1 + random.nextDouble() * 99);
+                case REFUEL -> {
+                    if (burners.length == 0) return false;
+                    manager.refuel(pick(burners, random), 5 + random.nextDouble() * 45);
+                }
+                case CARGO -> {
+                    if (cargo.length == 0) return false;
+                    String id = pick(cargo, random);
+                    double weight = 10 + random.nextDouble() * 190;
+                    if (random.nextBoolean()) manager.loadCargo(id, weight);
+                    else manager.unloadCargo(id, weight);
+                }
+                case PASSENGERS -> {
+                    if (passengers.length == 0) return false;
+                    String id = pick(passengers, random);
+                    int count = 1 + random.nextInt(3);
+                    if (random.nextBoolean()) manager.boardPassengers(id, count);
+                    else manager.disembarkPassengers(id, count);
+                }
+                case MAINTENANCE -> {
+                    if (maintainable.length == 0) return false;
+                    manager.maintainone(pick(maintainable, random));
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String pick(String[] ids, SplittableRandom random) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private static void report(Samples[][] samples, double seconds, int threads, double rate, PrintStream out) {
+        out.println(String.format(Locale.ROOT, "# %d thread(s), %s, %.0f s measured",
+                threads, rate > 0 ? String.format(Locale.ROOT, "target %.0f ops/s", rate) : "closed loop", seconds));
+        out.println(String.format(Locale.ROOT, "%-12s %10s %12s %8s %10s %10s %10s %10s %10s",
+                "Operation", "Ops", "Ops/s", "Errors", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us"));
+        long[] everything = new long[0];
+        long totalErrors = 0;
+        for (Op op : OPS) {
+            int n = 0;
+            long errors = 0;
+            for (Samples[] perThread : samples) {
+                n += perThread[op.ordinal()].count;
+                errors += perThread[op.ordinal()].errors;
+            }
+            long[] merged = new long[n];
+            int at = 0;
+            for (Samples[] perThread : samples) {
+                Samples s = perThread[op.ordinal()];
+                System.arraycopy(s.nanos, 0, merged, at, s.count);
+                at += s.count;
+            }
+            Arrays.sort(merged);
+            if (n > 0) out.println(row(op.label(), merged, errors, seconds));
+            int old = everything.length;
+            everything = Arrays.copyOf(everything, old + n);
+            System.arraycopy(merged, 0, everything, old, n);
+            totalErrors += errors;
+        }
+        Arrays.sort(everything);
+        out.println(row("all", everything, totalErrors, seconds));
+    }
+
+    private static String row(String label, long[] sorted, long errors, double seconds) {
+        return String.format(Locale.ROOT, "%-12s %10d %12.0f %8d %10.1f %10.1f %10.1f %10.1f %10.1f",
+                label, sorted.length, sorted.length / seconds, errors,
+                percentile(sorted, 50) / 1e3, percentile(sorted, 90) / 1e3, percentile(sorted, 99) / 1e3,
+                percentile(sorted, 99.9) / 1e3, sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e3);
+    }
+
+    // Nearest-rank percentile
+    static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    public static void main(String[] args) throws Exception {
+        int fleetSize = 100_000;
+        String csv = null;
+        int threads = 1;
+        double warmup = 3, duration = 10, rate = 0;
+        int[] mix = {40, 20, 15, 15, 10};
+        boolean columnar = false, sync = false;
+        String journal = null;
+        int metricsPort = -1;
+        String metricsFile = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--fleet" -> fleetSize = Integer.parseInt(args[++i].replace("_", ""));
+                case "--csv" -> csv = args[++i];
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmup = Double.parseDouble(args[++i]);
+                case "--duration" -> duration = Double.parseDouble(args[++i]);
+                case "--rate" -> rate = Double.parseDouble(args[++i]);
+                case "--mix" -> mix = parseMix(args[++i]);
+                case "--columnar" -> columnar = true;
+                case "--journal" -> journal = args[++i];
+                case "--sync" -> sync = true;
+                case "--metrics" -> metricsPort = Integer.parseInt(args[++i]);
+                case "--metrics-file" -> metricsFile = args[++i];
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        PrintStream out = System.out;
+        FleetManager manager = new FleetManager(threads > 1, columnar);
+        if (journal != null) {
+            manager.openJournal(journal, sync);
+        }
+        if (csv != null) {
+            manager.loadFromFile(csv);
+        } else {
+            new FleetGenerator(42).populate(manager, fleetSize);
+        }
+        out.println("# fleet of " + manager.size() + " vehicles" + (journal != null ? ", journal in " + journal + (sync ? " (sync)" : "") : ""));
+
+        FleetMetrics metrics = metricsPort >= 0 || metricsFile != null ? new FleetMetrics() : null;
+        manager.setMetrics(metrics);
+        MetricsEndpoint endpoint = metricsPort >= 0 ? new MetricsEndpoint(metrics, metricsPort) : null;
+        if (endpoint != null) {
+            out.println("# metrics at http://127.0.0.1:" + endpoint.getPort() + "/metrics and /metrics.json");
+        }
+
+        // mutations print nothing without an event listener, but keep stray output off the numbers
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            new LoadDriver(manager, mix).run(threads, warmup, duration, rate, out);
+        } finally {
+            System.setOut(out);
+            if (journal != null) manager.closeJournal();
+            if (endpoint != null) endpoint.close();
+        }
+        if (metricsFile != null) {
+            metrics.writeTo(Path.of(metricsFile));
+        }
+    }
+}
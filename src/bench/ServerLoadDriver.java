@@ -0,0 +1,203 @@
+package bench;
+
+import vehicles.Vehicle;
+import vehicles.WaterVehicle;
+
+import fleet.FleetManager;
+
+import metrics.LatencyHistogram;
+
+import server.FleetClient;
+import server.FleetServer;
+
+import interfaces.FuelConsumable;
+import interfaces.CargoCarrier;
+import interfaces.PassengerCarrier;
+import interfaces.Maintainable;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// LoadDriver's workload sent through a FleetServer instead of straight to the manager: a
+// server runs in-process on a loopback port and every client is a virtual thread with its own
+// connection, so thousands of operators can be in flight at once. Clients run closed loop,
+// each sending its next request as soon as its last answer is in.
+//
+//   java -cp out bench.ServerLoadDriver [options]
+//     --fleet 10000            generated fleet size
+//     --clients 2000           concurrent client connections
+//     --duration 10            measured seconds, after --warmup 3 seconds
+//     --mix journey=40,refuel=20,cargo=15,passengers=15,maintenance=10
+//
+// Latency is from sending a request to reading its answer. ERR answers count as errors.
+public class ServerLoadDriver {
+    private static final LoadDriver.Op[] OPS = LoadDriver.Op.values();
+
+    private final String[] all;
+    private final String[] burners;
+    private final String[] cargo;
+    private final String[] passengers;
+    private final String[] maintainable;
+    private final double[] cumulative = new double[OPS.length];
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPS.length];
+    private final LongAdder[] errors = new LongAdder[OPS.length];
+
+    ServerLoadDriver(FleetManager manager, int[] mixPercent) {
+        List<String> all = new ArrayList<>(), burners = new ArrayList<>(), cargo = new ArrayList<>(),
+                passengers = new ArrayList<>(), maintainable = new ArrayList<>();
+        for (Vehicle v : manager.searchByType(Vehicle.class)) {
+            String id = v.getId();
+            all.add(id);
+            if (v instanceof FuelConsumable && !(v instanceof WaterVehicle w && w.hasSail())) burners.add(id);
+            if (v instanceof CargoCarrier) cargo.add(id);
+            if (v instanceof PassengerCarrier) passengers.add(id);
+            if (v instanceof Maintainable) maintainable.add(id);
+        }
+        this.all = all.toArray(new String[0]);
+        this.burners = burners.toArray(new String[0]);
+        this.cargo = cargo.toArray(new String[0]);
+        this.passengers = passengers.toArray(new String[0]);
+        this.maintainable = maintainable.toArray(new String[0]);
+        if (this.all.length == 0) {
+            throw new IllegalArgumentException("The fleet is empty.");
+        }
+
+        double total = 0;
+        for (int i = 0; i < OPS.length; i++) {
+            total += mixPercent[i];
+            cumulative[i] = total;
+            latencies[i] = new LatencyHistogram();
+            errors[i] = new LongAdder();
+        }
+        for (int i = 0; i < OPS.length; i++) cumulative[i] /= total;
+    }
+
+    // Connects every client first, then runs them all for warmup + duration seconds
+    void run(int port, int clients, double warmupSeconds, double durationSeconds, PrintStream out)
+            throws IOException, InterruptedException {
+        List<FleetClient> connected = new ArrayList<>(clients);
+        for (int c = 0; c < clients; c++) {
+            connected.add(new FleetClient(port));
+        }
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + (long) (warmupSeconds * 1e9);
+        long end = measureFrom + (long) (durationSeconds * 1e9);
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int c = 0; c < clients; c++) {
+            FleetClient client = connected.get(c);
+            SplittableRandom random = new SplittableRandom(1000 + c);
+            Thread.ofVirtual().name("client-" + c).start(() -> {
+                try (client) {
+                    work(client, random, start, measureFrom, end);
+                } catch (IOException e) {
+                    System.err.println("Client failed: " + e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        report(clients, durationSeconds, out);
+    }
+
+    private void work(FleetClient client, SplittableRandom random, long start, long measureFrom, long end) throws IOException {
+        long now;
+        while ((now = System.nanoTime()) < start) {
+            LockSupport.parkNanos(start - now);
+        }
+        while (true) {
+            long begin = System.nanoTime();
+            if (begin >= end) return;
+            int op = pickOp(random);
+            String request = request(OPS[op], random);
+            if (request == null) continue;
+            String answer = client.send(request);
+            long latency = System.nanoTime() - begin;
+            if (begin >= measureFrom) {
+                latencies[op].record(latency);
+                if (answer.startsWith("ERR")) errors[op].increment();
+            }
+        }
+    }
+
+    private int pickOp(SplittableRandom random) {
+        double u = random.nextDouble();
+        for (int i = 0; i < OPS.length - 1; i++) {
+            if (u < cumulative[i]) return i;
+        }
+        return OPS.length - 1;
+    }
+
+    // The same sizes as LoadDriver, as protocol lines; null when no vehicle can take the op
+    private String request(LoadDriver.Op op, SplittableRandom random) {
+        return switch (op) {
+            case JOURNEY -> "MOVE " + pick(all, random) + " " + (1 + random.nextDouble() * 99);
+            case REFUEL -> burners.length == 0 ? null : "REFUEL " + pick(burners, random) + " " + (5 + random.nextDouble() * 45);
+            case CARGO -> cargo.length == 0 ? null
+                    : (random.nextBoolean() ? "LOAD " : "UNLOAD ") + pick(cargo, random) + " " + (10 + random.nextDouble() * 190);
+            case PASSENGERS -> passengers.length == 0 ? null
+                    : (random.nextBoolean() ? "BOARD " : "DISEMBARK ") + pick(passengers, random) + " " + (1 + random.nextInt(3));
+            case MAINTENANCE -> maintainable.length == 0 ? null : "MAINTAIN " + pick(maintainable, random);
+        };
+    }
+
+    private static String pick(String[] ids, SplittableRandom random) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private void report(int clients, double seconds, PrintStream out) {
+        out.println(String.format(Locale.ROOT, "# %d client(s), closed loop, %.0f s measured", clients, seconds));
+        out.println(String.format(Locale.ROOT, "%-12s %10s %12s %8s %10s %10s %10s %10s %10s",
+                "Operation", "Ops", "Ops/s", "Errors", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us"));
+        LatencyHistogram.Snapshot everything = LatencyHistogram.Snapshot.empty();
+        long totalErrors = 0;
+        for (int i = 0; i < OPS.length; i++) {
+            LatencyHistogram.Snapshot s = latencies[i].snapshot();
+            long e = errors[i].sum();
+            if (s.getCount() > 0) out.println(row(OPS[i].label(), s, e, seconds));
+            everything = everything.merge(s);
+            totalErrors += e;
+        }
+        out.println(row("all", everything, totalErrors, seconds));
+    }
+
+    private static String row(String label, LatencyHistogram.Snapshot s, long errors, double seconds) {
+        return String.format(Locale.ROOT, "%-12s %10d %12.0f %8d %10.1f %10.1f %10.1f %10.1f %10.1f",
+                label, s.getCount(), s.getCount() / seconds, errors,
+                s.percentileNanos(50) / 1e3, s.percentileNanos(90) / 1e3, s.percentileNanos(99) / 1e3,
+                s.percentileNanos(99.9) / 1e3, s.getMaxNanos() / 1e3);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int fleetSize = 10_000;
+        int clients = 2_000;
+        double warmup = 3, duration = 10;
+        int[] mix = {40, 20, 15, 15, 10};
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--fleet" -> fleetSize = Integer.parseInt(args[++i].replace("_", ""));
+                case "--clients" -> clients = Integer.parseInt(args[++i].replace("_", ""));
+                case "--warmup" -> warmup = Double.parseDouble(args[++i]);
+                case "--duration" -> duration = Double.parseDouble(args[++i]);
+                case "--mix" -> mix = LoadDriver.parseMix(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        PrintStream out = System.out;
+        FleetManager manager = new FleetManager(true);
+        new FleetGenerator(42).populate(manager, fleetSize);
+        try (FleetServer server = new FleetServer(manager, 0)) {
+            out.println("# fleet of " + manager.size() + " vehicles, server on 127.0.0.1:" + server.getPort());
+            new ServerLoadDriver(manager, mix).run(server.getPort(), clients, warmup, duration, out);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package bench;
+
+import vehicles.Vehicle;
+import vehicles.Car;
+import vehicles.Truck;
+import vehicles.Bus;
+import vehicles.Airplane;
+
+import fleet.FleetAggregate;
+import fleet.FleetManager;
+import fleet.FleetStats;
+
+import interfaces.FuelConsumable;
+
+import exceptions.InvalidOperationException;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Hammers a concurrent FleetManager with add, remove, move and refuel from many threads at
+// once, then checks that nothing was lost. Exits with status 1 on any violation.
+//
+//   java -cp out bench.StressDriver [options]
+//     --threads 32             writer threads, at least 32
+//     --ops 200000             operations per thread
+//     --shared 64              vehicles every thread moves and refuels, never removed
+//     --churn 16               IDs per thread that its owner keeps adding and removing
+//     --columnar               keep the FleetColumns copy up to date as well
+//     --seed 42
+//
+// Amounts are whole liters and distances whole multiples of each vehicle's efficiency, so
+// every burn is a whole number of liters and the expected totals are exact. Checked at the end:
+//   - the registry holds the shared vehicles plus every churn ID its owner last added, and
+//     no other; the type and capability indexes agree with it
+//   - each shared vehicle's fuel and mileage equal the sums of the refuels and moves the
+//     manager acknowledged for it, so no concurrent update was lost
+//   - generateReport() and getStats() match a serial recomputation over the vehicles
+public class StressDriver {
+    private static final int MIN_THREADS = 32;
+
+    private final FleetManager manager;
+    private final int threads;
+    private final int opsPerThread;
+    private final long seed;
+    private final Vehicle[] shared;
+    private final double[] efficiency;
+    // acknowledged liters refuelled and burned and km moved, per shared vehicle
+    private final AtomicLongArray refueled;
+    private final AtomicLongArray burned;
+    private final AtomicLongArray moved;
+    // churn IDs of thread t are churnIds[t][k]; present[t][k] is its owner's view of the registry
+    private final String[][] churnIds;
+    private final boolean[][] present;
+    private final double[][] churnEfficiency;
+    private final List<String> failures = new ArrayList<>();
+
+    StressDriver(FleetManager manager, int threads, int opsPerThread, int sharedCount, int churnPerThread, long seed)
+            throws InvalidOperationException {
+        this.manager = manager;
+        this.threads = threads;
+        this.opsPerThread = opsPerThread;
+        this.seed = seed;
+        shared = new Vehicle[sharedCount];
+        efficiency = new double[sharedCount];
+        for (int i = 0; i < sharedCount; i++) {
+            shared[i] = newVehicle("SHARED-" + i, i);
+            efficiency[i] = shared[i].calculateFuelEfficiency();
+            manager.addVehicle(shared[i]);
+        }
+        refueled = new AtomicLongArray(sharedCount);
+        burned = new AtomicLongArray(sharedCount);
+        moved = new AtomicLongArray(sharedCount);
+        churnIds = new String[threads][churnPerThread];
+        present = new boolean[threads][churnPerThread];
+        churnEfficiency = new double[threads][churnPerThread];
+        for (int t = 0; t < threads; t++) {
+            for (int k = 0; k < churnPerThread; k++) {
+                churnIds[t][k] = "CHURN-" + t + "-" + k;
+            }
+        }
+    }
+
+    // Only fuel burners with a fixed efficiency, so a burn is distance / efficiency exactly
+    private static Vehicle newVehicle(String id, int n) throws InvalidOperationException {
+        return switch (n & 3) {
+            case 0 -> new Car(id, "Stress Car", 120, 4);
+            case 1 -> new Bus(id, "Stress Bus", 90, 6);
+            case 2 -> new Truck(id, "Stress Truck", 100, 6);
+            default -> new Airplane(id, "Stress Plane", 850, 11000);
+        };
+    }
+
+    void run(PrintStream out) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers[t] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                    work(thread, new SplittableRandom(seed + thread));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException | InvalidOperationException e) {
+                    fail("thread " + thread + " died: " + e);
+                }
+            }, "stress-" + t);
+            workers[t].start();
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        for (Thread w : workers) {
+            w.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        out.println(String.format(Locale.ROOT, "# %d threads x %d ops in %.2f s (%.0f ops/s)",
+                threads, opsPerThread, seconds, threads * (double) opsPerThread / seconds));
+    }
+
+    // Half the operations go to the shared vehicles, nearly all the rest to the thread's own
+    // churn IDs, one in a hundred is a report
+    private void work(int thread, SplittableRandom random) throws InvalidOperationException {
+        String[] own = churnIds[thread];
+        boolean[] mine = present[thread];
+        double[] ownEfficiency = churnEfficiency[thread];
+        for (int op = 0; op < opsPerThread; op++) {
+            int roll = random.nextInt(100);
+            if (roll < 50) {
+                int i = random.nextInt(shared.length);
+                String id = shared[i].getId();
+                if (roll < 25) {
+                    long liters = 1 + random.nextInt(20);
+                    manager.refuel(id, liters);
+                    refueled.addAndGet(i, liters);
+                } else {
+                    long liters = 1 + random.nextInt(5);
+                    long km = (long) (liters * efficiency[i]);
+                    try {
+                        manager.moveVehicle(id, km);
+                        burned.addAndGet(i, liters);
+                        moved.addAndGet(i, km);
+                    } catch (InvalidOperationException e) {
+                        // not enough fuel just now; nothing changed
+                    }
+                }
+            } else if (roll < 99) {
+                int k = random.nextInt(own.length);
+                if (roll < 75) {
+                    if (mine[k]) {
+                        manager.removeVehicle(own[k]);
+                    } else {
+                        Vehicle v = newVehicle(own[k], random.nextInt(4));
+                        ownEfficiency[k] = v.calculateFuelEfficiency();
+                        manager.addVehicle(v);
+                    }
+                    mine[k] = !mine[k];
+                } else if (mine[k]) {
+                    manager.refuel(own[k], 10);
+                    try {
+                        manager.moveVehicle(own[k], ownEfficiency[k]);
+                    } catch (InvalidOperationException e) {
+                        // cannot happen right after the refuel, but move declares it
+                    }
+                }
+            } else {
+                // readers race the writers too
+                manager.generateReport();
+            }
+        }
+    }
+
+    // Runs once every worker has finished
+    void check(PrintStream out) {
+        int expectedSize = shared.length;
+        for (int t = 0; t < threads; t++) {
+            for (int k = 0; k < churnIds[t].length; k++) {
+                boolean found = manager.findById(churnIds[t][k]).isPresent();
+                if (found != present[t][k]) {
+                    fail(churnIds[t][k] + (present[t][k] ? " was added last but is missing" : " was removed last but is still registered"));
+                }
+                if (present[t][k]) expectedSize++;
+            }
+        }
+        List<Vehicle> all = manager.searchByType(Vehicle.class);
+        if (manager.size() != expectedSize) fail("registry holds " + manager.size() + " vehicles, expected " + expectedSize);
+        if (all.size() != expectedSize) fail("searchByType(Vehicle) finds " + all.size() + " vehicles, expected " + expectedSize);
+        int burners = manager.searchByType(FuelConsumable.class).size();
+        if (burners != expectedSize) fail("FuelConsumable index holds " + burners + " vehicles, expected " + expectedSize);
+        int byType = manager.searchByType(Car.class).size() + manager.searchByType(Bus.class).size()
+                + manager.searchByType(Truck.class).size() + manager.searchByType(Airplane.class).size();
+        if (byType != expectedSize) fail("type indexes hold " + byType + " vehicles, expected " + expectedSize);
+
+        for (int i = 0; i < shared.length; i++) {
+            Vehicle v = shared[i];
+            double fuel = ((FuelConsumable) v).getFuelLevel();
+            long expectedFuel = refueled.get(i) - burned.get(i);
+            if (fuel != expectedFuel) fail(v.getId() + " has " + fuel + " L, expected " + expectedFuel + " (lost update)");
+            if (v.getCurrentMileage() != moved.get(i)) {
+                fail(v.getId() + " has " + v.getCurrentMileage() + " km, expected " + moved.get(i) + " (lost update)");
+            }
+        }
+
+        FleetAggregate serial = all.stream().collect(FleetAggregate.collector());
+        if (!sortedLines(manager.generateReport()).equals(sortedLines(serial.render()))) {
+            fail("generateReport() differs from a serial recomputation:\n" + manager.generateReport() + "vs\n" + serial.render());
+        }
+        FleetStats stats = manager.getStats();
+        if (stats.getTotalFuel() != serial.getTotalFuel()) {
+            fail("getStats() total fuel " + stats.getTotalFuel() + ", serial " + serial.getTotalFuel());
+        }
+        if (stats.getTotalMileage() != serial.getTotalMileage()) {
+            fail("getStats() total mileage " + stats.getTotalMileage() + ", serial " + serial.getTotalMileage());
+        }
+        out.println("# " + expectedSize + " vehicles at the end, " + failures.size() + " violation(s)");
+    }
+
+    // The maintenance list follows registry order, which a concurrent registry does not fix
+    private static List<String> sortedLines(String report) {
+        String[] lines = report.split("\n");
+        Arrays.sort(lines);
+        return Arrays.asList(lines);
+    }
+
+    private synchronized void fail(String message) {
+        failures.add(message);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = MIN_THREADS;
+        int ops = 200_000;
+        int sharedCount = 64;
+        int churn = 16;
+        boolean columnar = false;
+        long seed = 42;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--ops" -> ops = Integer.parseInt(args[++i].replace("_", ""));
+                case "--shared" -> sharedCount = Integer.parseInt(args[++i]);
+                case "--churn" -> churn = Integer.parseInt(args[++i]);
+                case "--columnar" -> columnar = true;
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (threads < MIN_THREADS) {
+            throw new IllegalArgumentException("A stress run needs at least " + MIN_THREADS + " threads.");
+        }
+        if (sharedCount <= 0 || churn <= 0) {
+            throw new IllegalArgumentException("--shared and --churn must be positive.");
+        }
+
+        PrintStream out = System.out;
+        StressDriver driver = new StressDriver(new FleetManager(true, columnar), threads, ops, sharedCount, churn, seed);
+        driver.run(out);
+        driver.check(out);
+        for (String f : driver.failures) {
+            out.println("FAIL " + f);
+        }
+        if (!driver.failures.isEmpty()) System.exit(1);
+        out.println("OK");
+    }
+}
@@ -0,0 +1,188 @@
+package events;
+
+import interfaces.FleetEventListener;
+import vehicles.Vehicle;
+
+import java.io.Closeable;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Hands events to a delegate on a background thread. Producers claim a slot in a
+// preallocated ring and copy the event's fields into it, so emitting neither allocates
+// nor takes a lock; the drainer delivers runs of published slots and ends each run
+// with onBatchEnd. A full ring makes producers wait rather than drop events. close() claims the
+// rest of the sequence space in one step: every sequence claimed before it is drained before the
+// drainer stops, and every event after it is delivered on the emitting thread, as are events
+// emitted once an Error has killed the drainer. Instances come from start(), which starts the
+// drainer once the listener is fully built.
+public final class AsyncEventListener implements FleetEventListener, Closeable {
+    private static final int SPINS_BEFORE_PARK = 100;
+    // Added to next by close(), so that every sequence claimed afterwards is at least this
+    private static final long CLOSED = 1L << 62;
+
+    private final FleetEventListener delegate;
+    private final int mask;
+    private final FleetEventType[] types;
+    private final Vehicle[] vehicles;
+    private final double[] amounts;
+    private final double[] levels;
+    // Sequence last published into each slot; a slot is readable once it holds the expected one
+    private final AtomicLongArray published;
+    private final AtomicLong next = new AtomicLong();
+    private volatile long consumed;
+    private volatile boolean sleeping;
+    private volatile boolean closed;
+    // First sequence not claimed before close(); set before closed
+    private volatile long end;
+    private final Thread drainer;
+
+    public static AsyncEventListener start(FleetEventListener delegate) {
+        return start(delegate, 1 << 16);
+    }
+
+    public static AsyncEventListener start(FleetEventListener delegate, int capacity) {
+        AsyncEventListener listener = new AsyncEventListener(delegate, capacity);
+        listener.drainer.start();
+        return listener;
+    }
+
+    private AsyncEventListener(FleetEventListener delegate, int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two.");
+        }
+        this.delegate = delegate;
+        this.mask = capacity - 1;
+        types = new FleetEventType[capacity];
+        vehicles = new Vehicle[capacity];
+        amounts = new double[capacity];
+        levels = new double[capacity];
+        published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        drainer = new Thread(this::drain, "fleet-event-drainer");
+        drainer.setDaemon(true);
+    }
+
+    // Console output written in batches from the drainer thread
+    public static AsyncEventListener console(PrintStream out) {
+        return start(new ConsoleEventListener(out, true));
+    }
+
+    @Override
+    public void onEvent(FleetEventType type, Vehicle vehicle, double amount, double level) {
+        if (closed) {
+            deliverNow(type, vehicle, amount, level);
+            return;
+        }
+        long seq = next.getAndIncrement();
+        if (seq >= CLOSED) {
+            // close() got in between; the drainer will not reach this sequence
+            deliverNow(type, vehicle, amount, level);
+            return;
+        }
+        while (seq - consumed > mask) {
+            // no slot will ever be freed without the drainer
+            if (!drainer.isAlive()) {
+                deliverNow(type, vehicle, amount, level);
+                return;
+            }
+            if (sleeping) LockSupport.unpark(drainer);
+            Thread.onSpinWait();
+        }
+        int i = (int) seq & mask;
+        types[i] = type;
+        vehicles[i] = vehicle;
+        amounts[i] = amount;
+        levels[i] = level;
+        published.set(i, seq);
+        if (sleeping) {
+            LockSupport.unpark(drainer);
+        }
+    }
+
+    // Synchronous fallback, one event per batch; waits out a closing drainer first so the
+    // delegate is never called from two threads at once
+    private void deliverNow(FleetEventType type, Vehicle vehicle, double amount, double level) {
+        while (drainer.isAlive()) {
+            LockSupport.unpark(drainer);
+            Thread.onSpinWait();
+        }
+        synchronized (delegate) {
+            try {
+                delegate.onEvent(type, vehicle, amount, level);
+                delegate.onBatchEnd();
+            } catch (RuntimeException e) {
+                System.out.println("Event listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Returns once every event emitted before the call has been delivered
+    public void flush() {
+        long target = next.get();
+        while (consumed < target && drainer.isAlive()) {
+            LockSupport.unpark(drainer);
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        end = next.getAndAdd(CLOSED);
+        closed = true;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        long seq = consumed;
+        boolean inBatch = false;
+        int idle = 0;
+        while (true) {
+            int i = (int) seq & mask;
+            if (published.get(i) == seq) {
+                try {
+                    delegate.onEvent(types[i], vehicles[i], amounts[i], levels[i]);
+                } catch (RuntimeException e) {
+                    System.out.println("Event listener failed: " + e.getMessage());
+                }
+                vehicles[i] = null;
+                seq++;
+                inBatch = true;
+                // publish progress every so often so producers waiting on a full ring can go on
+                if ((seq & 1023) == 0) consumed = seq;
+                idle = 0;
+                continue;
+            }
+            if (inBatch) {
+                delegate.onBatchEnd();
+                consumed = seq;
+                inBatch = false;
+            }
+            // sequences below end are claimed and will be published, so the drainer waits for them
+            if (closed && seq >= end) {
+                return;
+            }
+            if (++idle < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+                continue;
+            }
+            sleeping = true;
+            if (published.get(i) != seq && !(closed && seq >= end)) {
+                LockSupport.park(this);
+            }
+            sleeping = false;
+            idle = 0;
+        }
+    }
+}
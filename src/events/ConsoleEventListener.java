@@ -0,0 +1,91 @@
+package events;
+
+import interfaces.FleetEventListener;
+import vehicles.Airplane;
+import vehicles.Vehicle;
+import vehicles.VehicleType;
+
+import java.io.PrintStream;
+
+// Prints events as the console lines the vehicles used to print themselves.
+// Registry events (added/removed) have no console line.
+public class ConsoleEventListener implements FleetEventListener {
+    private static final int FLUSH_THRESHOLD = 8 << 10;
+
+    private final PrintStream out;
+    private final boolean batched;
+    private final StringBuilder sb = new StringBuilder();
+
+    public ConsoleEventListener() {
+        this(System.out, false);
+    }
+
+    // batched: lines are collected and written once per onBatchEnd (or every 8K chars),
+    // for use behind a single-threaded dispatcher such as AsyncEventListener
+    public ConsoleEventListener(PrintStream out, boolean batched) {
+        this.out = out;
+        this.batched = batched;
+    }
+
+    @Override
+    public void onEvent(FleetEventType type, Vehicle vehicle, double amount, double level) {
+        if (batched) {
+            if (format(sb, type, vehicle, amount, level)) {
+                sb.append(System.lineSeparator());
+                if (sb.length() >= FLUSH_THRESHOLD) onBatchEnd();
+            }
+            return;
+        }
+        StringBuilder line = new StringBuilder(64);
+        if (format(line, type, vehicle, amount, level)) {
+            out.println(line);
+        }
+    }
+
+    @Override
+    public void onBatchEnd() {
+        if (sb.length() > 0) {
+            out.print(sb);
+            out.flush();
+            sb.setLength(0);
+        }
+    }
+
+    // Appends the event's console line; false for events that have none
+    public static boolean format(StringBuilder sb, FleetEventType type, Vehicle v, double amount, double level) {
+        switch (type) {
+            case MOVED -> {
+                VehicleType t = VehicleType.of(v);
+                if (t == VehicleType.AIRPLANE) {
+                    sb.append("Flying at altitude ").append(((Airplane) v).getMaxAltitude()).append(" meters");
+                } else if (t == null) {
+                    sb.append("Moving");
+                } else {
+                    sb.append(switch (t) {
+                        case CAR -> "Driving on road";
+                        case TRUCK -> "Hauling cargo";
+                        case BUS -> "Transporting passengers and cargo";
+                        default -> "Sailing with cargo";
+                    });
+                }
+                sb.append(" for ").append(amount).append(" km...");
+            }
+            case REFUELED -> sb.append("Refueled ").append(amount)
+                    .append(" liters. Current fuel: ").append(level).append(" liters");
+            case PASSENGERS_BOARDED -> sb.append((int) amount)
+                    .append(" passengers boarded. Current passengers: ").append((int) level);
+            case PASSENGERS_DISEMBARKED -> sb.append((int) amount)
+                    .append(" passengers disembarked. Current passengers: ").append((int) level);
+            case CARGO_LOADED -> sb.append(amount).append(" kg loaded. Current cargo: ").append(level).append(" kg");
+            case CARGO_UNLOADED -> sb.append(amount).append(" kg unloaded. Current cargo: ").append(level).append(" kg");
+            case MAINTENANCE_SCHEDULED -> sb.append("Maintenance scheduled for ")
+                    .append(v.getClass().getSimpleName()).append(" ID: ").append(v.getId());
+            case MAINTENANCE_PERFORMED -> sb.append("Maintenance performed for ")
+                    .append(v.getClass().getSimpleName()).append(" ID: ").append(v.getId());
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+}
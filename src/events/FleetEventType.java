@@ -0,0 +1,18 @@
+package events;
+
+public enum FleetEventType {
+    VEHICLE_ADDED,
+    VEHICLE_REMOVED,
+    MOVED,
+    REFUELED,
+    PASSENGERS_BOARDED,
+    PASSENGERS_DISEMBARKED,
+    CARGO_LOADED,
+    CARGO_UNLOADED,
+    MAINTENANCE_SCHEDULED,
+    MAINTENANCE_PERFORMED,
+    // consumeFuel called on its own; a move's burn is part of MOVED
+    FUEL_CONSUMED,
+    // mileage, fuel, cargo or passengers overwritten by a loader setter such as restoreState
+    STATE_RESTORED
+}
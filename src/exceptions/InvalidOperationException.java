@@ -5,4 +5,8 @@ public class InvalidOperationException extends Exception {
 
         super(message);
     }
+
+    public InvalidOperationException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,95 @@
+package fleet;
+
+import vehicles.Vehicle;
+
+import java.util.Collections;
+import java.util.List;
+
+// Dispatcher's answer for a batch: the vehicle picked for each trip, indexed like the trips
+// passed in, with what each journey would take with its cargo aboard. Nothing has been loaded
+// or moved.
+public class DispatchPlan {
+    private final List<Trip> trips;
+    private final Vehicle[] vehicles;
+    private final double[] hours;
+    private final double[] fuel;
+    private final int assignedCount;
+    private final double totalHours;
+    private final double totalFuel;
+
+    DispatchPlan(List<Trip> trips, Vehicle[] vehicles) {
+        this.trips = Collections.unmodifiableList(trips);
+        this.vehicles = vehicles;
+        this.hours = new double[vehicles.length];
+        this.fuel = new double[vehicles.length];
+        int assigned = 0;
+        double h = 0.0, f = 0.0;
+        for (int t = 0; t < vehicles.length; t++) {
+            Vehicle v = vehicles[t];
+            if (v == null) {
+                hours[t] = Double.NaN;
+                fuel[t] = Double.NaN;
+                continue;
+            }
+            Trip trip = trips.get(t);
+            double distance = trip.getDistance();
+            hours[t] = v.estimateJourneyTime(distance);
+            fuel[t] = RoutePlanner.burnsFuel(v) ? distance / RoutePlanner.loadedEfficiency(v, trip.getCargo()) : 0.0;
+            assigned++;
+            h += hours[t];
+            f += fuel[t];
+        }
+        this.assignedCount = assigned;
+        this.totalHours = h;
+        this.totalFuel = f;
+    }
+
+    public int getTripCount() {
+        return vehicles.length;
+    }
+
+    public Trip getTrip(int trip) {
+        return trips.get(trip);
+    }
+
+    // Null when no vehicle could take the trip
+    public Vehicle getVehicle(int trip) {
+        return vehicles[trip];
+    }
+
+    // NaN for a trip left unassigned
+    public double getHours(int trip) {
+        return hours[trip];
+    }
+
+    // NaN for a trip left unassigned
+    public double getFuel(int trip) {
+        return fuel[trip];
+    }
+
+    public int getAssignedCount() {
+        return assignedCount;
+    }
+
+    public int getUnassignedCount() {
+        return vehicles.length - assignedCount;
+    }
+
+    // Over assigned trips only
+    public double getTotalHours() {
+        return totalHours;
+    }
+
+    // Over assigned trips only
+    public double getTotalFuel() {
+        return totalFuel;
+    }
+
+    @Override
+    public String toString() {
+        return "DispatchPlan{trips=" + vehicles.length
+                + ", assigned=" + assignedCount
+                + ", hours=" + totalHours
+                + ", fuel=" + totalFuel + "}";
+    }
+}
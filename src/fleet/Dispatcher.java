@@ -0,0 +1,535 @@
+package fleet;
+
+import vehicles.Truck;
+import vehicles.Vehicle;
+
+import interfaces.FuelConsumable;
+import interfaces.CargoCarrier;
+import interfaces.PassengerCarrier;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+// Assigns a batch of trips to a fleet, at most one trip per vehicle, keeping total fuel or total
+// time low. Under either objective a vehicle costs a fixed amount per km (1 / efficiency, or the
+// hours it estimates for 1 km), so trips are placed longest first, each on the cheapest free
+// vehicle that can take it: the cargo and passengers fit its free capacity and its tank covers
+// the distance, checked as consumeFuel would. Fuel is reckoned with the trip's cargo aboard, which
+// costs a truck loaded past half capacity a tenth of its efficiency. Each vehicle class gets a max
+// tree over its vehicles in cost order, which finds that vehicle in O(log n) as long as the class's
+// vehicles are alike in which requirements they can meet; the cheapest answer across classes wins.
+//
+// Greedy placement can give a long trip the only vehicle a later trip fits, or a cheap one the
+// later trip needed more. Improvement passes then let a trip take a cheaper vehicle from the trip
+// holding it, which moves to its own best free vehicle, when that places one more trip or lowers
+// the total.
+//
+// The fleet is read in parallel chunks on the executor and ordered with parallel sorts; placement
+// is sequential, since every pick depends on the ones before it. Vehicles are read without locks.
+public class Dispatcher {
+    private static final int MIN_CHUNK = 1024;
+    private static final int CHUNKS_PER_WORKER = 4;
+    // Holders a trip tries to take a vehicle from per pass; the cheapest ones pay off most
+    private static final int MAX_EJECTIONS = 8;
+    private static final int MAX_PASSES = 4;
+    // fuel * efficiency can round below the distance / efficiency <= fuel it stands in for
+    private static final double ROUNDING_ALLOWANCE = 1e-12;
+
+    private final Executor executor;
+    private final int parallelism;
+
+    public Dispatcher() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public Dispatcher(ForkJoinPool pool) {
+        this(pool, pool.getParallelism());
+    }
+
+    public Dispatcher(Executor executor, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive.");
+        }
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    // objective is what the plan keeps low: TIME for total hours, FUEL for total fuel
+    public DispatchPlan plan(Collection<Vehicle> vehicles, List<Trip> trips, RouteQuery.Ranking objective) {
+        Trip[] batch = trips.toArray(new Trip[0]);
+        Snapshot s = snapshot(vehicles.toArray(new Vehicle[0]), objective == RouteQuery.Ranking.FUEL);
+        Placement p = new Placement(s, batch);
+        p.placeGreedily();
+        p.improve();
+        Vehicle[] picked = new Vehicle[batch.length];
+        for (int t = 0; t < batch.length; t++) {
+            int pos = p.vehicleOf[t];
+            picked[t] = pos < 0 ? null : s.vehicles[pos];
+        }
+        return new DispatchPlan(Arrays.asList(batch), picked);
+    }
+
+    private interface Range {
+        void run(int from, int to);
+    }
+
+    private void inChunks(int n, Range task) {
+        int chunks = Math.min(parallelism * CHUNKS_PER_WORKER, (n + MIN_CHUNK - 1) / MIN_CHUNK);
+        if (chunks <= 1) {
+            task.run(0, n);
+            return;
+        }
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks];
+        for (int c = 0; c < chunks; c++) {
+            int from = (int) ((long) n * c / chunks);
+            int to = (int) ((long) n * (c + 1) / chunks);
+            futures[c] = CompletableFuture.runAsync(() -> task.run(from, to), executor);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private Snapshot snapshot(Vehicle[] all, boolean byFuel) {
+        int n = all.length;
+        double[] cost = new double[n];
+        double[] efficiency = new double[n];
+        double[] lightCargo = new double[n];
+        double[] heavyCost = new double[n];
+        double[] heavyEfficiency = new double[n];
+        double[] fuel = new double[n];
+        double[] range = new double[n];
+        double[] cargo = new double[n];
+        int[] seats = new int[n];
+        inChunks(n, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                Vehicle v = all[i];
+                lightCargo[i] = Double.POSITIVE_INFINITY;
+                if (!RoutePlanner.burnsFuel(v)) {
+                    cost[i] = byFuel ? 0.0 : v.estimateJourneyTime(1.0);
+                    efficiency[i] = Double.POSITIVE_INFINITY;
+                    fuel[i] = Double.POSITIVE_INFINITY;
+                    range[i] = Double.POSITIVE_INFINITY;
+                } else {
+                    double eff = v.calculateFuelEfficiency();
+                    double level = ((FuelConsumable) v).getFuelLevel();
+                    cost[i] = byFuel ? 1.0 / eff : v.estimateJourneyTime(1.0);
+                    efficiency[i] = eff;
+                    fuel[i] = level;
+                    range[i] = level * eff * (1 + ROUNDING_ALLOWANCE);
+                    if (!(eff > 0)) {
+                        // no distance is covered; keep it out of reach and off the cheap end
+                        cost[i] = Double.POSITIVE_INFINITY;
+                        fuel[i] = Double.NEGATIVE_INFINITY;
+                        range[i] = Double.NEGATIVE_INFINITY;
+                    } else if (v instanceof Truck truck) {
+                        lightCargo[i] = truck.getCargoBeforeEfficiencyDrop();
+                    }
+                }
+                heavyCost[i] = cost[i];
+                heavyEfficiency[i] = efficiency[i];
+                cargo[i] = v instanceof CargoCarrier c ? c.getCargoCapacity() - c.getCurrentCargo() : 0.0;
+                seats[i] = v instanceof PassengerCarrier p ? p.getPassengerCapacity() - p.getCurrentPassengers() : 0;
+                if (lightCargo[i] < cargo[i]) {
+                    // any heavier load costs the same, so a full one stands for all of them
+                    double eff = ((Truck) v).calculateFuelEfficiency(((Truck) v).getCurrentCargo() + cargo[i]);
+                    heavyEfficiency[i] = eff;
+                    if (byFuel) heavyCost[i] = 1.0 / eff;
+                } else {
+                    // no more than fits, so a search for light cargo also finds room for it
+                    lightCargo[i] = cargo[i];
+                }
+            }
+        });
+        return new Snapshot(ascending(cost), all, cost, efficiency, lightCargo, heavyCost, heavyEfficiency,
+                fuel, range, cargo, seats);
+    }
+
+    // Indices of keys in ascending order, ties in index order. Keys are replaced by their rank
+    // among the distinct keys so that rank and index pack into one long and sort as primitives.
+    static int[] ascending(double[] keys) {
+        int n = keys.length;
+        double[] distinct = keys.clone();
+        Arrays.parallelSort(distinct);
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            if (m == 0 || Double.compare(distinct[i], distinct[m - 1]) != 0) distinct[m++] = distinct[i];
+        }
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            packed[i] = (long) Arrays.binarySearch(distinct, 0, m, keys[i]) << 32 | i;
+        }
+        Arrays.parallelSort(packed);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) packed[i];
+        }
+        return order;
+    }
+
+    // The fleet as read for one plan, in cost order: position 0 is the cheapest vehicle
+    private static final class Snapshot {
+        final int size;
+        final Vehicle[] vehicles;
+        // Positions of each vehicle class's vehicles, ascending
+        final int[][] classes;
+        final double[] cost;
+        final double[] efficiency;
+        // Cargo a vehicle takes at its current efficiency and cost; past it the heavy ones apply.
+        // Within a class they rise alike, so the heavy cost keeps the positions' order.
+        final double[] lightCargo;
+        final double[] heavyCost;
+        final double[] heavyEfficiency;
+        // infinite for vehicles that burn nothing
+        final double[] fuel;
+        // distance the tank covers, rounded up; only used to rule vehicles out
+        final double[] range;
+        final double[] cargo;
+        final int[] seats;
+
+        Snapshot(int[] order, Vehicle[] vehicles, double[] cost, double[] efficiency, double[] lightCargo,
+                 double[] heavyCost, double[] heavyEfficiency, double[] fuel, double[] range, double[] cargo, int[] seats) {
+            this.size = order.length;
+            this.vehicles = new Vehicle[size];
+            this.cost = new double[size];
+            this.efficiency = new double[size];
+            this.lightCargo = new double[size];
+            this.heavyCost = new double[size];
+            this.heavyEfficiency = new double[size];
+            this.fuel = new double[size];
+            this.range = new double[size];
+            this.cargo = new double[size];
+            this.seats = new int[size];
+            Map<Class<?>, Integer> classOf = new HashMap<>();
+            int[] classAt = new int[size];
+            int[] classSizes = new int[8];
+            for (int pos = 0; pos < size; pos++) {
+                int i = order[pos];
+                int c = classOf.computeIfAbsent(vehicles[i].getClass(), k -> classOf.size());
+                if (c == classSizes.length) classSizes = Arrays.copyOf(classSizes, 2 * c);
+                classAt[pos] = c;
+                classSizes[c]++;
+                this.vehicles[pos] = vehicles[i];
+                this.cost[pos] = cost[i];
+                this.efficiency[pos] = efficiency[i];
+                this.lightCargo[pos] = lightCargo[i];
+                this.heavyCost[pos] = heavyCost[i];
+                this.heavyEfficiency[pos] = heavyEfficiency[i];
+                this.fuel[pos] = fuel[i];
+                this.range[pos] = range[i];
+                this.cargo[pos] = cargo[i];
+                this.seats[pos] = seats[i];
+            }
+            classes = new int[classOf.size()][];
+            for (int c = 0; c < classes.length; c++) {
+                classes[c] = new int[classSizes[c]];
+                classSizes[c] = 0;
+            }
+            for (int pos = 0; pos < size; pos++) {
+                int c = classAt[pos];
+                classes[c][classSizes[c]++] = pos;
+            }
+        }
+
+        boolean light(int pos, Trip t) {
+            return t.getCargo() <= lightCargo[pos];
+        }
+
+        // Per km, with t's cargo aboard
+        double cost(int pos, Trip t) {
+            return light(pos, t) ? cost[pos] : heavyCost[pos];
+        }
+
+        double efficiency(int pos, Trip t) {
+            return light(pos, t) ? efficiency[pos] : heavyEfficiency[pos];
+        }
+
+        // range once past the light cargo
+        double heavyRange(int pos) {
+            return heavyEfficiency[pos] == efficiency[pos] ? range[pos] : fuel[pos] * heavyEfficiency[pos] * (1 + ROUNDING_ALLOWANCE);
+        }
+
+        boolean fits(int pos, Trip t) {
+            return cargo[pos] >= t.getCargo()
+                    && seats[pos] >= t.getPassengers()
+                    && fuel[pos] >= t.getDistance() / efficiency(pos, t);
+        }
+    }
+
+    // A set drawn from one vehicle class's positions, as a max tree: each node holds the largest
+    // range, heavy range, free cargo, free seats and light cargo in its subtree, so a search skips
+    // every subtree that cannot fit the trip. Leaves are indices into members.
+    private static final class VehicleSet {
+        private final Snapshot s;
+        private final int[] members;
+        private final int leaves;
+        private final double[] range;
+        private final double[] heavyRange;
+        private final double[] cargo;
+        private final int[] seats;
+        private final double[] lightCargo;
+
+        VehicleSet(Snapshot s, int[] members, boolean full) {
+            this.s = s;
+            this.members = members;
+            int leaves = 1;
+            while (leaves < members.length) leaves <<= 1;
+            this.leaves = leaves;
+            range = new double[2 * leaves];
+            heavyRange = new double[2 * leaves];
+            cargo = new double[2 * leaves];
+            seats = new int[2 * leaves];
+            lightCargo = new double[2 * leaves];
+            Arrays.fill(range, Double.NEGATIVE_INFINITY);
+            Arrays.fill(heavyRange, Double.NEGATIVE_INFINITY);
+            Arrays.fill(cargo, Double.NEGATIVE_INFINITY);
+            Arrays.fill(seats, -1);
+            Arrays.fill(lightCargo, Double.NEGATIVE_INFINITY);
+            if (full) {
+                for (int m = 0; m < members.length; m++) {
+                    set(m);
+                }
+                for (int node = leaves - 1; node > 0; node--) {
+                    pull(node);
+                }
+            }
+        }
+
+        void add(int m) {
+            set(m);
+            for (int node = (leaves + m) >>> 1; node > 0; node >>>= 1) pull(node);
+        }
+
+        void remove(int m) {
+            int leaf = leaves + m;
+            range[leaf] = Double.NEGATIVE_INFINITY;
+            heavyRange[leaf] = Double.NEGATIVE_INFINITY;
+            cargo[leaf] = Double.NEGATIVE_INFINITY;
+            seats[leaf] = -1;
+            lightCargo[leaf] = Double.NEGATIVE_INFINITY;
+            for (int node = leaf >>> 1; node > 0; node >>>= 1) pull(node);
+        }
+
+        private void set(int m) {
+            int leaf = leaves + m;
+            int pos = members[m];
+            range[leaf] = s.range[pos];
+            heavyRange[leaf] = s.heavyRange(pos);
+            cargo[leaf] = s.cargo[pos];
+            seats[leaf] = s.seats[pos];
+            lightCargo[leaf] = s.lightCargo[pos];
+        }
+
+        private void pull(int node) {
+            int l = 2 * node, r = l + 1;
+            range[node] = Math.max(range[l], range[r]);
+            heavyRange[node] = Math.max(heavyRange[l], heavyRange[r]);
+            cargo[node] = Math.max(cargo[l], cargo[r]);
+            seats[node] = Math.max(seats[l], seats[r]);
+            lightCargo[node] = Math.max(lightCargo[l], lightCargo[r]);
+        }
+
+        // The first position in [from, to) whose vehicle fits t, or -1; with light, the first
+        // that also takes t's cargo without losing efficiency
+        int first(Trip t, int from, int to) {
+            return first(t, from, to, false);
+        }
+
+        int first(Trip t, int from, int to, boolean light) {
+            int lo = lowerBound(from), hi = lowerBound(to);
+            if (lo >= hi) return -1;
+            int m = first(1, 0, leaves, lo, hi, t, light);
+            return m < 0 ? -1 : members[m];
+        }
+
+        private int lowerBound(int pos) {
+            int i = Arrays.binarySearch(members, pos);
+            return i >= 0 ? i : -i - 1;
+        }
+
+        private int first(int node, int lo, int hi, int from, int to, Trip t, boolean light) {
+            if (hi <= from || lo >= to
+                    || range[node] < t.getDistance() || cargo[node] < t.getCargo() || seats[node] < t.getPassengers()
+                    || lightCargo[node] < t.getCargo() && (light || heavyRange[node] < t.getDistance())) {
+                return -1;
+            }
+            if (node >= leaves) {
+                return s.fits(members[lo], t) ? lo : -1;
+            }
+            int mid = (lo + hi) >>> 1;
+            int found = first(2 * node, lo, mid, from, to, t, light);
+            return found >= 0 ? found : first(2 * node + 1, mid, hi, from, to, t, light);
+        }
+    }
+
+    private static final class Placement {
+        private final Snapshot s;
+        private final Trip[] trips;
+        // Longest first; the order trips are placed and revisited in
+        private final int[] order;
+        final int[] vehicleOf;
+        private final int[] tripOf;
+        // Trips no vehicle of the fleet fits, loaded or not
+        private final boolean[] unplaceable;
+        // Per vehicle class, and each position's class and index among its class's members
+        private final VehicleSet[] free;
+        private final VehicleSet[] held;
+        private final int[] classOf;
+        private final int[] memberOf;
+
+        Placement(Snapshot s, Trip[] trips) {
+            this.s = s;
+            this.trips = trips;
+            double[] shortest = new double[trips.length];
+            for (int t = 0; t < trips.length; t++) {
+                shortest[t] = -trips[t].getDistance();
+            }
+            order = ascending(shortest);
+            vehicleOf = new int[trips.length];
+            Arrays.fill(vehicleOf, -1);
+            tripOf = new int[s.size];
+            Arrays.fill(tripOf, -1);
+            unplaceable = new boolean[trips.length];
+            free = new VehicleSet[s.classes.length];
+            held = new VehicleSet[s.classes.length];
+            classOf = new int[s.size];
+            memberOf = new int[s.size];
+            for (int c = 0; c < s.classes.length; c++) {
+                int[] members = s.classes[c];
+                free[c] = new VehicleSet(s, members, true);
+                held[c] = new VehicleSet(s, members, false);
+                for (int m = 0; m < members.length; m++) {
+                    classOf[members[m]] = c;
+                    memberOf[members[m]] = m;
+                }
+            }
+        }
+
+        // The first position in [from, to) in sets whose vehicle fits t, or -1
+        private static int first(VehicleSet[] sets, Trip t, int from, int to) {
+            int best = -1;
+            for (VehicleSet set : sets) {
+                int pos = set.first(t, from, best < 0 ? to : best);
+                if (pos >= 0) best = pos;
+            }
+            return best;
+        }
+
+        // The position in sets whose vehicle fits t at the lowest cost with t's cargo aboard, ties
+        // to the lower position, or -1. A set's first fit is its cheapest unless the cargo costs
+        // it efficiency; then its first fit that keeps its efficiency may undercut it, and no
+        // later one can, since the heavy costs keep the positions' order.
+        private int cheapest(VehicleSet[] sets, Trip t) {
+            int best = -1;
+            double bestCost = Double.POSITIVE_INFINITY;
+            int to = s.size;
+            for (VehicleSet set : sets) {
+                int pos = set.first(t, 0, to);
+                if (pos < 0) continue;
+                if (!s.light(pos, t)) {
+                    int light = set.first(t, pos + 1, to, true);
+                    if (light >= 0 && s.cost(light, t) < s.cost(pos, t)) pos = light;
+                }
+                double cost = s.cost(pos, t);
+                if (best < 0 || cost < bestCost || cost == bestCost && pos < best) {
+                    best = pos;
+                    bestCost = cost;
+                    // a position past best whose cost is at least bestCost before any load cannot win
+                    to = Math.max(best + 1, costAtLeast(bestCost));
+                }
+            }
+            return best;
+        }
+
+        // The first position whose cost is at least cost
+        private int costAtLeast(double cost) {
+            int lo = 0, hi = s.size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (s.cost[mid] < cost) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        void placeGreedily() {
+            for (int t : order) {
+                int pos = cheapest(free, trips[t]);
+                if (pos >= 0) assign(t, pos);
+            }
+        }
+
+        void improve() {
+            for (int pass = 0; pass < MAX_PASSES; pass++) {
+                boolean moved = false;
+                for (int t : order) {
+                    moved |= improve(t);
+                }
+                if (!moved) break;
+            }
+        }
+
+        // Places trip b, or moves it to a cheaper vehicle, by taking a vehicle from the trip
+        // holding it; that trip moves to its best free vehicle, which may be the one b leaves
+        private boolean improve(int b) {
+            if (unplaceable[b]) return false;
+            Trip tb = trips[b];
+            int current = vehicleOf[b];
+            if (current < 0) {
+                int pos = cheapest(free, tb);
+                if (pos >= 0) {
+                    assign(b, pos);
+                    return true;
+                }
+                // free and held together are the whole fleet
+                if (first(held, tb, 0, s.size) < 0) {
+                    unplaceable[b] = true;
+                    return false;
+                }
+            }
+            int limit = current < 0 ? s.size : current;
+            int pos = first(held, tb, 0, limit);
+            for (int tries = 0; pos >= 0 && tries < MAX_EJECTIONS; tries++) {
+                int a = tripOf[pos];
+                Trip ta = trips[a];
+                int fallback = cheapest(free, ta);
+                if (current >= 0 && (fallback < 0 || s.cost(current, ta) < s.cost(fallback, ta)) && s.fits(current, ta)) {
+                    fallback = current;
+                }
+                if (fallback >= 0) {
+                    double gain = current < 0 ? Double.POSITIVE_INFINITY
+                            : tb.getDistance() * (s.cost(current, tb) - s.cost(pos, tb))
+                            + ta.getDistance() * (s.cost(pos, ta) - s.cost(fallback, ta));
+                    if (gain > 0) {
+                        release(a);
+                        if (current >= 0) release(b);
+                        assign(b, pos);
+                        assign(a, fallback);
+                        return true;
+                    }
+                }
+                pos = first(held, tb, pos + 1, limit);
+            }
+            return false;
+        }
+
+        private void assign(int t, int pos) {
+            vehicleOf[t] = pos;
+            tripOf[pos] = t;
+            free[classOf[pos]].remove(memberOf[pos]);
+            held[classOf[pos]].add(memberOf[pos]);
+        }
+
+        private void release(int t) {
+            int pos = vehicleOf[t];
+            vehicleOf[t] = -1;
+            tripOf[pos] = -1;
+            held[classOf[pos]].remove(memberOf[pos]);
+            free[classOf[pos]].add(memberOf[pos]);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package fleet;
+
+import vehicles.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+// The fleet ordered by fuel efficiency, least efficient first, with each vehicle's efficiency
+// cached in its rank. Ties keep registration order, whatever order the registry is in.
+// A vehicle is repositioned only when its efficiency actually changes, which among the
+// built-in types happens when a Truck's load crosses half its capacity. FleetManager calls
+// update after its own mutations and on every event of a vehicle changed through a reference
+// handed out by a lookup, so a cached efficiency is never older than the vehicle's last event.
+//
+// Ranks are immutable, so the skip list never sees a key change under it: a move replaces the
+// old rank with a new one. It is concurrent in both of FleetManager's modes because
+// journey workers refresh vehicles from several threads either way. A move inserts the new
+// rank before removing the old, so a reader racing it may see the vehicle twice, never not at all.
+final class EfficiencyIndex {
+    static final class Rank implements Comparable<Rank> {
+        final double efficiency;
+        final long order;
+        final String key;
+        final Vehicle vehicle;
+
+        Rank(double efficiency, long order, String key, Vehicle vehicle) {
+            this.efficiency = efficiency;
+            this.order = order;
+            this.key = key;
+            this.vehicle = vehicle;
+        }
+
+        @Override
+        public int compareTo(Rank other) {
+            int c = Double.compare(efficiency, other.efficiency);
+            return c != 0 ? c : Long.compare(order, other.order);
+        }
+    }
+
+    // Sorts after every rank with efficiency 0 and before every positive one
+    private static final Rank ZERO = new Rank(0.0, Long.MAX_VALUE, null, null);
+
+    private final ConcurrentSkipListSet<Rank> ranks = new ConcurrentSkipListSet<>();
+    private final AtomicLong nextOrder = new AtomicLong();
+
+    Rank add(String key, Vehicle v) {
+        Rank r = new Rank(v.calculateFuelEfficiency(), nextOrder.getAndIncrement(), key, v);
+        ranks.add(r);
+        return r;
+    }
+
+    void remove(Rank r) {
+        ranks.remove(r);
+    }
+
+    // Caller holds the vehicle's lock; returns the vehicle's rank from now on
+    Rank update(Rank r) {
+        double efficiency = r.vehicle.calculateFuelEfficiency();
+        if (Double.compare(efficiency, r.efficiency) == 0) {
+            return r;
+        }
+        Rank moved = new Rank(efficiency, r.order, r.key, r.vehicle);
+        ranks.add(moved);
+        ranks.remove(r);
+        return moved;
+    }
+
+    void clear() {
+        ranks.clear();
+    }
+
+    // Ascending order, the order sortFleetByEfficiency re-links the registry in
+    Iterable<Rank> ranks() {
+        return ranks;
+    }
+
+    // Efficiency 0 or less: among the built-in types, the sail-driven ships
+    Iterable<Rank> nonPositive() {
+        return ranks.headSet(ZERO, true);
+    }
+
+    // Positive efficiencies from the most efficient down, so fuel per km only grows
+    Iterable<Rank> positiveDescending() {
+        return ranks.tailSet(ZERO, false).descendingSet();
+    }
+
+    List<Vehicle> lowest(int k) {
+        return first(ranks.iterator(), k);
+    }
+
+    List<Vehicle> highest(int k) {
+        return first(ranks.descendingIterator(), k);
+    }
+
+    private static List<Vehicle> first(Iterator<Rank> it, int k) {
+        List<Vehicle> result = new ArrayList<>(Math.min(k, 1024));
+        while (result.size() < k && it.hasNext()) {
+            result.add(it.next().vehicle);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,262 @@
+package fleet;
+
+import vehicles.Vehicle;
+import vehicles.VehicleType;
+import vehicles.Car;
+import vehicles.Truck;
+import vehicles.Bus;
+import vehicles.Airplane;
+import vehicles.CargoShip;
+
+import interfaces.FuelConsumable;
+import interfaces.Maintainable;
+import interfaces.CargoCarrier;
+import interfaces.PassengerCarrier;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collector;
+
+// Everything the fleet report needs, gathered in one pass: each vehicle is visited once
+// for its type, efficiency, mileage, fuel, load and maintenance state. Partial aggregates
+// over disjoint parts of the fleet combine in order, so the same pass runs as a parallel
+// reduction and the maintenance list keeps the fleet's order either way.
+public class FleetAggregate {
+    private static final VehicleType[] TYPES = VehicleType.values();
+
+    private final long[] countByType = new long[TYPES.length];
+    private long vehicleCount;
+    private double totalEfficiency;
+    private double totalMileage;
+    private long fuelVehicleCount;
+    private double totalFuel;
+    private double totalCargo;
+    private double totalCargoCapacity;
+    private long totalPassengers;
+    private long totalPassengerCapacity;
+    private final List<Vehicle> needingMaintenance = new ArrayList<>();
+
+    public static Collector<Vehicle, ?, FleetAggregate> collector() {
+        return Collector.of(FleetAggregate::new, FleetAggregate::accept, FleetAggregate::combine);
+    }
+
+    // Known types are dispatched on their class: interface instanceof checks go through the
+    // JVM's secondary supertype cache, which thrashes when types alternate vehicle by vehicle
+    public void accept(Vehicle v) {
+        vehicleCount++;
+        totalEfficiency += v.calculateFuelEfficiency();
+        totalMileage += v.getCurrentMileage();
+        VehicleType t = VehicleType.exactly(v);
+        if (t == null) {
+            acceptByCapability(v);
+            return;
+        }
+        countByType[t.ordinal()]++;
+        switch (t) {
+            case CAR -> {
+                Car c = (Car) v;
+                fuel(c.getFuelLevel());
+                passengers(c.getCurrentPassengers(), c.getPassengerCapacity());
+                maintenance(v, c.needsMaintenance());
+            }
+            case TRUCK -> {
+                Truck tr = (Truck) v;
+                fuel(tr.getFuelLevel());
+                cargo(tr.getCurrentCargo(), tr.getCargoCapacity());
+                maintenance(v, tr.needsMaintenance());
+            }
+            case BUS -> {
+                Bus b = (Bus) v;
+                fuel(b.getFuelLevel());
+                passengers(b.getCurrentPassengers(), b.getPassengerCapacity());
+                cargo(b.getCurrentCargo(), b.getCargoCapacity());
+                maintenance(v, b.needsMaintenance());
+            }
+            case AIRPLANE -> {
+                Airplane a = (Airplane) v;
+                fuel(a.getFuelLevel());
+                passengers(a.getCurrentPassengers(), a.getPassengerCapacity());
+                cargo(a.getCurrentCargo(), a.getCargoCapacity());
+                maintenance(v, a.needsMaintenance());
+            }
+            case CARGO_SHIP -> {
+                CargoShip s = (CargoShip) v;
+                fuel(s.getFuelLevel());
+                cargo(s.getCurrentCargo(), s.getCargoCapacity());
+                maintenance(v, s.needsMaintenance());
+            }
+        }
+    }
+
+    private void acceptByCapability(Vehicle v) {
+        if (v instanceof FuelConsumable f) fuel(f.getFuelLevel());
+        if (v instanceof CargoCarrier c) cargo(c.getCurrentCargo(), c.getCargoCapacity());
+        if (v instanceof PassengerCarrier p) passengers(p.getCurrentPassengers(), p.getPassengerCapacity());
+        if (v instanceof Maintainable m) maintenance(v, m.needsMaintenance());
+    }
+
+    private void fuel(double level) {
+        fuelVehicleCount++;
+        totalFuel += level;
+    }
+
+    private void cargo(double current, double capacity) {
+        totalCargo += current;
+        totalCargoCapacity += capacity;
+    }
+
+    private void passengers(int current, int capacity) {
+        totalPassengers += current;
+        totalPassengerCapacity += capacity;
+    }
+
+    private void maintenance(Vehicle v, boolean due) {
+        if (due) needingMaintenance.add(v);
+    }
+
+    // Appends other, which must cover vehicles after this one's
+    public FleetAggregate combine(FleetAggregate other) {
+        for (int i = 0; i < countByType.length; i++) countByType[i] += other.countByType[i];
+        vehicleCount += other.vehicleCount;
+        totalEfficiency += other.totalEfficiency;
+        totalMileage += other.totalMileage;
+        fuelVehicleCount += other.fuelVehicleCount;
+        totalFuel += other.totalFuel;
+        totalCargo += other.totalCargo;
+        totalCargoCapacity += other.totalCargoCapacity;
+        totalPassengers += other.totalPassengers;
+        totalPassengerCapacity += other.totalPassengerCapacity;
+        needingMaintenance.addAll(other.needingMaintenance);
+        return this;
+    }
+
+    // FleetColumns fills in the numbers from its arrays and the due vehicles row by row
+    void addType(int typeCode, long count) {
+        if (typeCode >= 0) countByType[typeCode] += count;
+    }
+
+    void addTotals(long vehicles, double efficiency, double mileage, long fuelVehicles, double fuel,
+                   double cargo, double cargoCapacity, long passengers, long passengerCapacity) {
+        vehicleCount += vehicles;
+        totalEfficiency += efficiency;
+        totalMileage += mileage;
+        fuelVehicleCount += fuelVehicles;
+        totalFuel += fuel;
+        totalCargo += cargo;
+        totalCargoCapacity += cargoCapacity;
+        totalPassengers += passengers;
+        totalPassengerCapacity += passengerCapacity;
+    }
+
+    void addNeedingMaintenance(Vehicle v) {
+        needingMaintenance.add(v);
+    }
+
+    public long getVehicleCount() {
+        return vehicleCount;
+    }
+
+    public long getCount(VehicleType type) {
+        return countByType[type.ordinal()];
+    }
+
+    public double getAverageEfficiency() {
+        return vehicleCount == 0 ? 0.0 : totalEfficiency / vehicleCount;
+    }
+
+    public double getTotalMileage() {
+        return totalMileage;
+    }
+
+    public long getFuelVehicleCount() {
+        return fuelVehicleCount;
+    }
+
+    public double getTotalFuel() {
+        return totalFuel;
+    }
+
+    public double getTotalCargo() {
+        return totalCargo;
+    }
+
+    // Current load over capacity across all cargo carriers; 0 when there are none
+    public double getCargoUtilisation() {
+        return totalCargoCapacity == 0 ? 0.0 : totalCargo / totalCargoCapacity;
+    }
+
+    public long getTotalPassengers() {
+        return totalPassengers;
+    }
+
+    public double getPassengerUtilisation() {
+        return totalPassengerCapacity == 0 ? 0.0 : (double) totalPassengers / totalPassengerCapacity;
+    }
+
+    public List<Vehicle> getVehiclesNeedingMaintenance() {
+        return Collections.unmodifiableList(needingMaintenance);
+    }
+
+    // The text of FleetManager.generateReport
+    public String render() {
+        StringBuilder sb = new StringBuilder(128 + 32 * needingMaintenance.size());
+        sb.append("Fleet Report:\n");
+        sb.append("Total Vehicles: ").append(vehicleCount).append("\n");
+
+        sb.append("Count by Type:\n");
+        for (VehicleType t : TYPES) {
+            long count = countByType[t.ordinal()];
+            if (count > 0) sb.append(" - ").append(t.getDisplayName()).append(": ").append(count).append("\n");
+        }
+
+        sb.append("Average Efficiency: ");
+        appendFixed2(sb, getAverageEfficiency());
+        sb.append(" km/l\n");
+        sb.append("Total Mileage: ");
+        appendFixed2(sb, totalMileage);
+        sb.append(" km\n");
+
+        sb.append("Vehicles Needing Maintenance:\n");
+        for (Vehicle v : needingMaintenance) {
+            sb.append(" - ").append(v.getClass().getSimpleName())
+                    .append(" (ID: ").append(v.getId()).append(")\n");
+        }
+        return sb.toString();
+    }
+
+    // Same text as String.format("%.2f", value) in the default format locale, without the
+    // Formatter: it rounds half-up from the shortest decimal that reads back as value, which
+    // is exactly BigDecimal.valueOf. Only the sign of a value rounding to zero needs help.
+    static void appendFixed2(StringBuilder sb, double value) {
+        if (Double.isNaN(value)) {
+            sb.append("NaN");
+            return;
+        }
+        if (Double.isInfinite(value)) {
+            sb.append(value > 0 ? "Infinity" : "-Infinity");
+            return;
+        }
+        String digits = BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).toPlainString();
+        if (Double.doubleToRawLongBits(value) < 0 && digits.charAt(0) != '-') {
+            sb.append('-');
+        }
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT));
+        char zero = symbols.getZeroDigit();
+        char separator = symbols.getDecimalSeparator();
+        if (zero == '0' && separator == '.') {
+            sb.append(digits);
+            return;
+        }
+        for (int i = 0; i < digits.length(); i++) {
+            char c = digits.charAt(i);
+            if (c == '.') sb.append(separator);
+            else if (c >= '0' && c <= '9') sb.append((char) (zero + (c - '0')));
+            else sb.append(c);
+        }
+    }
+}
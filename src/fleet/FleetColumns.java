@@ -0,0 +1,329 @@
+package fleet;
+
+import vehicles.Vehicle;
+import vehicles.VehicleType;
+
+import interfaces.FuelConsumable;
+import interfaces.Maintainable;
+import interfaces.CargoCarrier;
+import interfaces.PassengerCarrier;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Structure-of-arrays copy of the fleet's numeric state, one row per vehicle, for
+// aggregations that would otherwise make a virtual call per vehicle per field.
+// FleetManager owns it: rows are added and removed with the registry and refreshed, under
+// the vehicle's lock, from FleetManager.changed(). That runs at the end of the manager's own
+// mutations and on every event of a vehicle changed through a reference from a lookup, so a
+// row is as current as the vehicle's last event. Removal moves the last row into the gap, so
+// rows stay dense and every loop runs over [0, size).
+//
+// Row refreshes of different vehicles run concurrently under the read lock; adding,
+// removing and growing take the write lock. Aggregates run under the read lock too, so
+// like iterating a concurrent registry they may mix before- and after-states.
+public class FleetColumns {
+    public static final byte FUEL = 1;
+    public static final byte CARGO = 2;
+    public static final byte PASSENGERS = 4;
+    public static final byte MAINTAINABLE = 8;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Where a vehicle's row lives; updated when removal moves the row
+    interface Row {
+        int getSlot();
+
+        void setSlot(int slot);
+
+        Vehicle getVehicle();
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size;
+    private Row[] rows = new Row[INITIAL_CAPACITY];
+    private byte[] typeCodes = new byte[INITIAL_CAPACITY];
+    private byte[] capabilities = new byte[INITIAL_CAPACITY];
+    private double[] mileage = new double[INITIAL_CAPACITY];
+    private double[] maintenance = new double[INITIAL_CAPACITY];
+    private double[] fuel = new double[INITIAL_CAPACITY];
+    private double[] cargo = new double[INITIAL_CAPACITY];
+    private int[] passengers = new int[INITIAL_CAPACITY];
+    private double[] efficiency = new double[INITIAL_CAPACITY];
+    private double[] cargoCapacity = new double[INITIAL_CAPACITY];
+    private int[] passengerCapacity = new int[INITIAL_CAPACITY];
+    // needsMaintenance(), kept current by the vehicle's maintenance callback
+    private boolean[] due = new boolean[INITIAL_CAPACITY];
+
+    void add(Row row, Vehicle v) {
+        lock.writeLock().lock();
+        try {
+            if (size == rows.length) {
+                grow();
+            }
+            int slot = size++;
+            rows[slot] = row;
+            row.setSlot(slot);
+            VehicleType t = VehicleType.exactly(v);
+            typeCodes[slot] = (byte) (t == null ? -1 : t.ordinal());
+            capabilities[slot] = capabilitiesOf(v);
+            cargoCapacity[slot] = v instanceof CargoCarrier c ? c.getCargoCapacity() : 0.0;
+            passengerCapacity[slot] = v instanceof PassengerCarrier p ? p.getPassengerCapacity() : 0;
+            due[slot] = v instanceof Maintainable m && m.needsMaintenance();
+            write(slot, v);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Row row) {
+        lock.writeLock().lock();
+        try {
+            int slot = row.getSlot();
+            if (slot < 0) {
+                return;
+            }
+            int last = --size;
+            if (slot != last) {
+                Row moved = rows[last];
+                rows[slot] = moved;
+                typeCodes[slot] = typeCodes[last];
+                capabilities[slot] = capabilities[last];
+                mileage[slot] = mileage[last];
+                maintenance[slot] = maintenance[last];
+                fuel[slot] = fuel[last];
+                cargo[slot] = cargo[last];
+                passengers[slot] = passengers[last];
+                efficiency[slot] = efficiency[last];
+                cargoCapacity[slot] = cargoCapacity[last];
+                passengerCapacity[slot] = passengerCapacity[last];
+                due[slot] = due[last];
+                moved.setSlot(slot);
+            }
+            rows[last] = null;
+            row.setSlot(-1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the vehicle's lock, which keeps two refreshes of one row apart
+    void update(Row row, Vehicle v) {
+        lock.readLock().lock();
+        try {
+            int slot = row.getSlot();
+            if (slot >= 0) {
+                write(slot, v);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the vehicle's lock, as for update
+    void setDue(Row row, boolean isDue) {
+        lock.readLock().lock();
+        try {
+            int slot = row.getSlot();
+            if (slot >= 0) {
+                due[slot] = isDue;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                rows[i].setSlot(-1);
+                rows[i] = null;
+            }
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double totalMileage() {
+        lock.readLock().lock();
+        try {
+            return sum(mileage, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double totalEfficiency() {
+        lock.readLock().lock();
+        try {
+            return sum(efficiency, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Non-fuel rows hold 0, so no mask is needed
+    public double totalFuel() {
+        lock.readLock().lock();
+        try {
+            return sum(fuel, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double totalCargo() {
+        lock.readLock().lock();
+        try {
+            return sum(cargo, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long totalPassengers() {
+        lock.readLock().lock();
+        try {
+            long total = 0;
+            for (int i = 0, n = size; i < n; i++) {
+                total += passengers[i];
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countByType(VehicleType type) {
+        lock.readLock().lock();
+        try {
+            byte code = (byte) type.ordinal();
+            int count = 0;
+            for (int i = 0, n = size; i < n; i++) {
+                count += typeCodes[i] == code ? 1 : 0;
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Rows with any of the given capability bits
+    public int countWith(byte capability) {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (int i = 0, n = size; i < n; i++) {
+                count += (capabilities[i] & capability) != 0 ? 1 : 0;
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Maintainable rows past the mileage interval; vehicles flagged by scheduleMaintenance
+    // are not visible here
+    public int countOverMaintenanceInterval() {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (int i = 0, n = size; i < n; i++) {
+                count += (capabilities[i] & MAINTAINABLE) != 0 && maintenance[i] > Vehicle.MAINTENANCE_INTERVAL ? 1 : 0;
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The report's aggregate from the arrays; due vehicles are listed in row order, which is
+    // registration order until a removal moves a row
+    public FleetAggregate aggregate() {
+        lock.readLock().lock();
+        try {
+            int n = size;
+            FleetAggregate a = new FleetAggregate();
+            int[] types = new int[VehicleType.values().length];
+            long fuelVehicles = 0;
+            long totalPassengers = 0;
+            long totalPassengerCapacity = 0;
+            for (int i = 0; i < n; i++) {
+                if (typeCodes[i] >= 0) types[typeCodes[i]]++;
+                fuelVehicles += (capabilities[i] & FUEL) != 0 ? 1 : 0;
+                totalPassengers += passengers[i];
+                totalPassengerCapacity += passengerCapacity[i];
+                if (due[i]) a.addNeedingMaintenance(rows[i].getVehicle());
+            }
+            for (int t = 0; t < types.length; t++) a.addType(t, types[t]);
+            a.addTotals(n, sum(efficiency, n), sum(mileage, n), fuelVehicles, sum(fuel, n),
+                    sum(cargo, n), sum(cargoCapacity, n), totalPassengers, totalPassengerCapacity);
+            return a;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Four independent accumulators: a single running sum is one long dependency chain,
+    // and the JIT may not reassociate floating-point adds to vectorize it
+    private static double sum(double[] values, int n) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < n; i += 4) {
+            s0 += values[i];
+            s1 += values[i + 1];
+            s2 += values[i + 2];
+            s3 += values[i + 3];
+        }
+        for (; i < n; i++) {
+            s0 += values[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private void write(int slot, Vehicle v) {
+        mileage[slot] = v.getCurrentMileage();
+        maintenance[slot] = v.maintance();
+        efficiency[slot] = v.calculateFuelEfficiency();
+        fuel[slot] = v instanceof FuelConsumable f ? f.getFuelLevel() : 0.0;
+        cargo[slot] = v instanceof CargoCarrier c ? c.getCurrentCargo() : 0.0;
+        passengers[slot] = v instanceof PassengerCarrier p ? p.getCurrentPassengers() : 0;
+    }
+
+    private static byte capabilitiesOf(Vehicle v) {
+        int bits = 0;
+        if (v instanceof FuelConsumable) bits |= FUEL;
+        if (v instanceof CargoCarrier) bits |= CARGO;
+        if (v instanceof PassengerCarrier) bits |= PASSENGERS;
+        if (v instanceof Maintainable) bits |= MAINTAINABLE;
+        return (byte) bits;
+    }
+
+    private void grow() {
+        int capacity = rows.length * 2;
+        rows = Arrays.copyOf(rows, capacity);
+        typeCodes = Arrays.copyOf(typeCodes, capacity);
+        capabilities = Arrays.copyOf(capabilities, capacity);
+        mileage = Arrays.copyOf(mileage, capacity);
+        maintenance = Arrays.copyOf(maintenance, capacity);
+        fuel = Arrays.copyOf(fuel, capacity);
+        cargo = Arrays.copyOf(cargo, capacity);
+        passengers = Arrays.copyOf(passengers, capacity);
+        efficiency = Arrays.copyOf(efficiency, capacity);
+        cargoCapacity = Arrays.copyOf(cargoCapacity, capacity);
+        passengerCapacity = Arrays.copyOf(passengerCapacity, capacity);
+        due = Arrays.copyOf(due, capacity);
+    }
+}
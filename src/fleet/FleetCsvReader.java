@@ -0,0 +1,319 @@
+package fleet;
+
+import vehicles.Vehicle;
+import vehicles.Car;
+import vehicles.Truck;
+import vehicles.Bus;
+import vehicles.Airplane;
+import vehicles.CargoShip;
+
+import exceptions.InvalidOperationException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+// Streaming reader for the fleet CSV format written by FleetManager.saveToFile.
+// Rows are tokenized in place over one reusable char buffer: only the ID and model
+// become Strings, numbers are parsed straight from the buffer, and vehicles are built
+// in their restored state without going through the logging refuel/load/board paths.
+// Target throughput is well over 1M rows/sec per core on the 5-type sample mix.
+public class FleetCsvReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_FIELDS = 16;
+
+    // 2^53: every long mantissa below this is exactly representable as a double
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Reader in;
+    private char[] buf = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private boolean eof;
+
+    // Field boundaries of the current row, as [start, end) offsets into buf
+    private final int[] starts = new int[MAX_FIELDS];
+    private final int[] ends = new int[MAX_FIELDS];
+    private int fieldCount;
+    private long rowNumber;
+
+    public FleetCsvReader(Reader in) {
+        this.in = in;
+    }
+
+    // Next vehicle, or null at end of input. A malformed row throws after it has been
+    // consumed, so the caller can report it and keep reading.
+    public Vehicle next() throws IOException, InvalidOperationException {
+        while (nextRow()) {
+            if (fieldCount == 1 && starts[0] == ends[0]) {
+                continue; // blank line
+            }
+            return createVehicle(buf, starts, ends, fieldCount);
+        }
+        return null;
+    }
+
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    // ID column of the current row, for error messages
+    public String currentId() {
+        return fieldCount > 1 ? new String(buf, starts[1], ends[1] - starts[1]) : "";
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean nextRow() throws IOException {
+        fieldCount = 0;
+        int scan = pos;
+        while (true) {
+            while (scan < limit && buf[scan] != '\n') {
+                scan++;
+            }
+            if (scan < limit || (eof && pos < limit)) {
+                break;
+            }
+            if (eof) {
+                return false;
+            }
+            // Row continues past the buffered data: compact, grow if needed, refill
+            int consumed = scan - pos;
+            if (pos > 0) {
+                System.arraycopy(buf, pos, buf, 0, limit - pos);
+                limit -= pos;
+                pos = 0;
+            }
+            if (limit == buf.length) {
+                char[] bigger = new char[buf.length * 2];
+                System.arraycopy(buf, 0, bigger, 0, limit);
+                buf = bigger;
+            }
+            int n = in.read(buf, limit, buf.length - limit);
+            if (n < 0) {
+                eof = true;
+            } else {
+                limit += n;
+            }
+            scan = pos + consumed;
+        }
+
+        int end = scan < limit ? scan : limit;
+        int next = scan < limit ? scan + 1 : limit;
+        if (end > pos && buf[end - 1] == '\r') {
+            end--;
+        }
+        int start = pos;
+        for (int i = pos; i < end; i++) {
+            if (buf[i] == ',') {
+                addField(start, i);
+                start = i + 1;
+            }
+        }
+        addField(start, end);
+        pos = next;
+        rowNumber++;
+        return true;
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount < MAX_FIELDS) {
+            starts[fieldCount] = start;
+            ends[fieldCount] = end;
+        }
+        fieldCount++;
+    }
+
+    // Row factory shared by the streaming and memory-mapped loaders
+    static Vehicle createVehicle(char[] b, int[] s, int[] e, int fields) throws InvalidOperationException {
+        if (matches(b, s[0], e[0], "Car")) {
+            expectFields("Car", fields, 10);
+            Car car = new Car(text(b, s, e, 1), text(b, s, e, 2), parseDouble(b, s[3], e[3]), parseInt(b, s[5], e[5]));
+            car.setCurrentMileage(parseDouble(b, s[4], e[4]));
+            car.setmaintance(parseDouble(b, s[8], e[8]));
+            car.restoreState(parseDouble(b, s[6], e[6]), parseInt(b, s[9], e[9]));
+            return car;
+        }
+        if (matches(b, s[0], e[0], "Truck")) {
+            expectFields("Truck", fields, 10);
+            Truck truck = new Truck(text(b, s, e, 1), text(b, s, e, 2), parseDouble(b, s[3], e[3]), parseInt(b, s[5], e[5]));
+            truck.setCurrentMileage(parseDouble(b, s[4], e[4]));
+            truck.setmaintance(parseDouble(b, s[8], e[8]));
+            truck.restoreState(parseDouble(b, s[6], e[6]), parseDouble(b, s[9], e[9]));
+            return truck;
+        }
+        if (matches(b, s[0], e[0], "Bus")) {
+            expectFields("Bus", fields, 12);
+            Bus bus = new Bus(text(b, s, e, 1), text(b, s, e, 2), parseDouble(b, s[3], e[3]), parseInt(b, s[5], e[5]));
+            bus.setCurrentMileage(parseDouble(b, s[4], e[4]));
+            bus.setmaintance(parseDouble(b, s[10], e[10]));
+            bus.restoreState(parseDouble(b, s[6], e[6]), parseInt(b, s[8], e[8]), parseDouble(b, s[11], e[11]));
+            return bus;
+        }
+        if (matches(b, s[0], e[0], "CargoShip")) {
+            expectFields("CargoShip", fields, 10);
+            CargoShip cs = new CargoShip(text(b, s, e, 1), text(b, s, e, 2), parseDouble(b, s[3], e[3]), parseBoolean(b, s[5], e[5]));
+            cs.setCurrentMileage(parseDouble(b, s[4], e[4]));
+            cs.setmaintance(parseDouble(b, s[8], e[8]));
+            cs.restoreState(parseDouble(b, s[6], e[6]), parseDouble(b, s[9], e[9]));
+            return cs;
+        }
+        if (matches(b, s[0], e[0], "Airplane")) {
+            expectFields("Airplane", fields, 10);
+            Airplane ap = new Airplane(text(b, s, e, 1), text(b, s, e, 2), parseDouble(b, s[3], e[3]), parseDouble(b, s[5], e[5]));
+            ap.setCurrentMileage(parseDouble(b, s[4], e[4]));
+            ap.setmaintance(parseDouble(b, s[8], e[8]));
+            ap.restoreState(parseDouble(b, s[6], e[6]), parseInt(b, s[9], e[9]), 0.0);
+            return ap;
+        }
+        throw new InvalidOperationException("Unknown vehicle type: " + new String(b, s[0], e[0] - s[0]));
+    }
+
+    private static void expectFields(String type, int actual, int expected) throws InvalidOperationException {
+        if (actual < expected) {
+            throw new InvalidOperationException(type + " row needs " + expected + " fields, found " + actual);
+        }
+    }
+
+    private static String text(char[] b, int[] s, int[] e, int field) {
+        return new String(b, s[field], e[field] - s[field]);
+    }
+
+    private static boolean matches(char[] b, int start, int end, String literal) {
+        if (end - start != literal.length()) return false;
+        for (int i = 0; i < literal.length(); i++) {
+            if (b[start + i] != literal.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    // Same result as Boolean.parseBoolean: "true" in any case, anything else is false
+    static boolean parseBoolean(char[] b, int start, int end) {
+        if (end - start != 4) return false;
+        return (b[start] | 0x20) == 't' && (b[start + 1] | 0x20) == 'r'
+                && (b[start + 2] | 0x20) == 'u' && (b[start + 3] | 0x20) == 'e';
+    }
+
+    static int parseInt(char[] b, int start, int end) throws InvalidOperationException {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (b[i] == '-' || b[i] == '+')) {
+            negative = b[i] == '-';
+            i++;
+        }
+        if (i == end) {
+            throw invalidNumber(b, start, end);
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int d = b[i] - '0';
+            if (d < 0 || d > 9) {
+                throw invalidNumber(b, start, end);
+            }
+            value = value * 10 + d;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw invalidNumber(b, start, end);
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw invalidNumber(b, start, end);
+        }
+        return (int) value;
+    }
+
+    // Exact for inputs whose significant digits fit in 53 bits and whose decimal exponent is
+    // at most 22 in magnitude (one correctly rounded multiply or divide). Everything else,
+    // including NaN/Infinity and long mantissas, falls back to Double.parseDouble.
+    static double parseDouble(char[] b, int start, int end) throws InvalidOperationException {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (b[i] == '-' || b[i] == '+')) {
+            negative = b[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean sawDigit = false;
+        boolean sawDot = false;
+        for (; i < end; i++) {
+            char c = b[i];
+            if (c >= '0' && c <= '9') {
+                sawDigit = true;
+                if (mantissa == 0 && c == '0') {
+                    if (sawDot) scale--;
+                    continue;
+                }
+                if (digits >= 18) {
+                    return slowParseDouble(b, start, end);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (sawDot) scale--;
+            } else if (c == '.' && !sawDot) {
+                sawDot = true;
+            } else if ((c == 'e' || c == 'E') && sawDigit) {
+                int exp = parseExponent(b, i + 1, end);
+                if (exp == Integer.MIN_VALUE) {
+                    return slowParseDouble(b, start, end);
+                }
+                scale += exp;
+                i = end;
+                break;
+            } else {
+                return slowParseDouble(b, start, end);
+            }
+        }
+        if (!sawDigit) {
+            return slowParseDouble(b, start, end);
+        }
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+        if (mantissa >= MAX_EXACT_MANTISSA || scale < -22 || scale > 22) {
+            return slowParseDouble(b, start, end);
+        }
+        double value = scale < 0 ? mantissa / POWERS_OF_TEN[-scale] : mantissa * POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    // Exponent digits after 'e'; MIN_VALUE when absent or too large for the fast path
+    private static int parseExponent(char[] b, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (b[i] == '-' || b[i] == '+')) {
+            negative = b[i] == '-';
+            i++;
+        }
+        if (i == end || end - i > 3) {
+            return Integer.MIN_VALUE;
+        }
+        int exp = 0;
+        for (; i < end; i++) {
+            int d = b[i] - '0';
+            if (d < 0 || d > 9) return Integer.MIN_VALUE;
+            exp = exp * 10 + d;
+        }
+        return negative ? -exp : exp;
+    }
+
+    private static double slowParseDouble(char[] b, int start, int end) throws InvalidOperationException {
+        try {
+            return Double.parseDouble(new String(b, start, end - start));
+        } catch (NumberFormatException e) {
+            throw invalidNumber(b, start, end);
+        }
+    }
+
+    private static InvalidOperationException invalidNumber(char[] b, int start, int end) {
+        return new InvalidOperationException("Invalid number: \"" + new String(b, start, end - start) + "\"");
+    }
+}
@@ -0,0 +1,260 @@
+package fleet;
+
+import vehicles.Vehicle;
+import vehicles.Car;
+import vehicles.Truck;
+import vehicles.Bus;
+import vehicles.Airplane;
+import vehicles.CargoShip;
+import vehicles.VehicleType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+// Snapshot writer for the fleet CSV format read by FleetCsvReader. Rows are encoded
+// straight into one reusable byte buffer (ints and whole-number doubles without any
+// String), and the buffer goes to the channel in large blocks.
+public class FleetCsvWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+    // Room for the type tag and up to 12 numeric fields (Double.toString is at most 24 chars);
+    // ID and model are budgeted separately at 3 UTF-8 bytes per char
+    private static final int ROW_BUDGET = 512;
+    // Double.toString uses plain (non-E) notation for magnitudes in [10^-3, 10^7)
+    private static final double PLAIN_DOUBLE_MIN = 1e-3;
+    private static final double PLAIN_DOUBLE_LIMIT = 1e7;
+    private static final double MAX_EXACT_MANTISSA = 0x1p53;
+    private static final long[] POWERS_OF_TEN = new long[19];
+    private static final byte[] DIGIT_PAIRS = new byte[200];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[2 * i] = (byte) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (byte) ('0' + i % 10);
+        }
+    }
+
+    private final FileChannel channel;
+    private byte[] buf = new byte[BUFFER_SIZE];
+    private int pos;
+
+    public FleetCsvWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    // A crash mid-save leaves either the old file or the complete new one
+    public static void writeAtomically(Path target, Iterable<Vehicle> vehicles) throws IOException {
+        AtomicFiles.replace(target, ch -> {
+            FleetCsvWriter writer = new FleetCsvWriter(ch);
+            for (Vehicle v : vehicles) {
+                writer.write(v);
+            }
+            writer.flush();
+        });
+    }
+
+    public void write(Vehicle v) throws IOException {
+        VehicleType type = VehicleType.of(v);
+        if (type == null) {
+            return; // the CSV format has no row layout for other vehicle kinds
+        }
+        // an absent model is written as "null", as the original row builder did
+        String model = String.valueOf(v.getModel());
+        // One capacity check per row; everything below writes into buf unchecked
+        ensure(ROW_BUDGET + 3 * (v.getId().length() + model.length()));
+        ascii(type.getDisplayName());
+        comma();
+        text(v.getId());
+        comma();
+        text(model);
+        comma();
+        number(v.getMaxSpeed());
+        comma();
+        number(v.getCurrentMileage());
+        comma();
+        switch (type) {
+            case CAR -> {
+                Car c = (Car) v;
+                number(c.getNumberOfWheels()); comma();
+                number(c.getFuelLevel()); comma();
+                number(c.getPassengerCapacity()); comma();
+                number(c.maintance()); comma();
+                number(c.getCurrentPassengers());
+            }
+            case TRUCK -> {
+                Truck t = (Truck) v;
+                number(t.getNumberOfWheels()); comma();
+                number(t.getFuelLevel()); comma();
+                number(t.getCargoCapacity()); comma();
+                number(t.maintance()); comma();
+                number(t.getCurrentCargo());
+            }
+            case BUS -> {
+                Bus b = (Bus) v;
+                number(b.getNumberOfWheels()); comma();
+                number(b.getFuelLevel()); comma();
+                number(b.getPassengerCapacity()); comma();
+                number(b.getCurrentPassengers()); comma();
+                number(b.getCargoCapacity()); comma();
+                number(b.maintance()); comma();
+                number(b.getCurrentCargo());
+            }
+            case CARGO_SHIP -> {
+                CargoShip c = (CargoShip) v;
+                ascii(c.hasSail() ? "true" : "false"); comma();
+                number(c.getFuelLevel()); comma();
+                number(c.getCargoCapacity()); comma();
+                number(c.maintance()); comma();
+                number(c.getCurrentCargo());
+            }
+            case AIRPLANE -> {
+                Airplane a = (Airplane) v;
+                number(a.getMaxAltitude()); comma();
+                number(a.getFuelLevel()); comma();
+                number(a.getPassengerCapacity()); comma();
+                number(a.maintance()); comma();
+                number(a.getCurrentPassengers());
+            }
+        }
+        put((byte) '\n');
+    }
+
+    public void flush() throws IOException {
+        ByteBuffer block = ByteBuffer.wrap(buf, 0, pos);
+        while (block.hasRemaining()) {
+            channel.write(block);
+        }
+        pos = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buf.length - pos >= bytes) return;
+        flush();
+        if (buf.length < bytes) {
+            buf = new byte[bytes];
+        }
+    }
+
+    private void put(byte b) {
+        buf[pos++] = b;
+    }
+
+    private void comma() {
+        buf[pos++] = ',';
+    }
+
+    private void ascii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            buf[pos++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void text(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+                System.arraycopy(utf8, 0, buf, pos, utf8.length);
+                pos += utf8.length;
+                return;
+            }
+        }
+        ascii(s);
+    }
+
+    private void number(long value) {
+        if (value < 0) {
+            put((byte) '-');
+            if (value == Long.MIN_VALUE) {
+                ascii("9223372036854775808");
+                return;
+            }
+            value = -value;
+        }
+        int end = pos + digitCount(value);
+        int i = end;
+        // two digits per division; int arithmetic once the value fits
+        while (value > Integer.MAX_VALUE) {
+            int pair = (int) (value % 100);
+            value /= 100;
+            buf[--i] = DIGIT_PAIRS[2 * pair + 1];
+            buf[--i] = DIGIT_PAIRS[2 * pair];
+        }
+        int v = (int) value;
+        while (v >= 100) {
+            int pair = v % 100;
+            v /= 100;
+            buf[--i] = DIGIT_PAIRS[2 * pair + 1];
+            buf[--i] = DIGIT_PAIRS[2 * pair];
+        }
+        if (v >= 10) {
+            buf[--i] = DIGIT_PAIRS[2 * v + 1];
+            buf[--i] = DIGIT_PAIRS[2 * v];
+        } else {
+            buf[--i] = (byte) ('0' + v);
+        }
+        pos = end;
+    }
+
+    private static int digitCount(long value) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) digits++;
+        return digits;
+    }
+
+    // Byte-for-byte the same text as Double.toString, so files round-trip unchanged.
+    // Looks for the fewest fraction digits k whose k-decimal value parses back to exactly
+    // this double. While ulp < 10^-k at most one k-decimal value can do that, so the first
+    // hit is the shortest representation Double.toString would pick.
+    private void number(double value) {
+        double abs = Math.abs(value);
+        if (abs == 0 && Double.doubleToRawLongBits(value) == 0) {
+            put((byte) '0'); put((byte) '.'); put((byte) '0');
+            return;
+        }
+        if (abs >= PLAIN_DOUBLE_MIN && abs < PLAIN_DOUBLE_LIMIT) {
+            double ulp = Math.ulp(abs);
+            for (int k = 0; k < POWERS_OF_TEN.length; k++) {
+                double scale = POWERS_OF_TEN[k];
+                double scaled = abs * scale;
+                if (ulp * scale >= 1 || scaled >= MAX_EXACT_MANTISSA) break;
+                long m = Math.round(scaled);
+                if (m / scale == abs) {
+                    if (value < 0) put((byte) '-');
+                    number(m / POWERS_OF_TEN[k]);
+                    put((byte) '.');
+                    if (k == 0) {
+                        put((byte) '0');
+                    } else {
+                        fraction(m % POWERS_OF_TEN[k], k);
+                    }
+                    return;
+                }
+            }
+        }
+        ascii(Double.toString(value));
+    }
+
+    // Zero-padded to exactly width digits
+    private void fraction(long digits, int width) {
+        int end = pos + width;
+        int i = end;
+        for (; i - pos >= 2; digits /= 100) {
+            int pair = (int) (digits % 100);
+            buf[--i] = DIGIT_PAIRS[2 * pair + 1];
+            buf[--i] = DIGIT_PAIRS[2 * pair];
+        }
+        if (i > pos) {
+            buf[--i] = (byte) ('0' + digits % 10);
+        }
+        pos = end;
+    }
+}
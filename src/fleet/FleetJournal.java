@@ -0,0 +1,490 @@
+package fleet;
+
+import vehicles.Vehicle;
+import vehicles.VehicleType;
+
+import exceptions.InvalidOperationException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+// Write-ahead journal of fleet mutations, kept in a directory next to its snapshot:
+//   fleet.snap              last compacted snapshot (FleetSnapshotWriter format)
+//   journal-<gen>.log       segments, replayed in generation order over the snapshot
+//
+// Entries are physical: an upsert carries the vehicle's whole state after the change,
+// so replay is idempotent and never re-runs vehicle logic (or its console output).
+//   segment header: magic "FLTJ" (int), version (short), flags (short), generation (long)
+//   entry:  length of kind + payload (int), kind (byte), payload, CRC32C of kind + payload (int)
+//     UPSERT  type tag (byte), id (u16 + UTF-8), model (u16 + UTF-8, length 0xFFFF for no
+//             model), snapshot state block
+//     REMOVE  id (u16 + UTF-8)
+//     CLEAR   no payload
+//
+// Appends only copy bytes into a shared buffer. A committer thread writes whatever has
+// accumulated and fsyncs it as one batch, so concurrent writers share each fsync.
+public class FleetJournal implements Closeable {
+    static final String SNAPSHOT_FILE = "fleet.snap";
+
+    private static final int MAGIC = 0x464C544A;
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final byte UPSERT = 1;
+    private static final byte REMOVE = 2;
+    private static final byte CLEAR = 3;
+
+    private static final int NO_MODEL = 0xFFFF;
+
+    private static final int INITIAL_BUFFER = 64 << 10;
+    // Appenders wait for the committer once this much is queued
+    private static final int MAX_PENDING = 16 << 20;
+    // Far above any real entry; a larger length prefix means a torn or corrupt tail
+    private static final int MAX_ENTRY = 1 << 20;
+
+    // Receives replayed entries during recovery
+    interface Replay {
+        void upsert(Vehicle v);
+
+        void remove(String id);
+
+        void clear();
+    }
+
+    private final Path directory;
+    private final boolean syncCommit;
+    private final Thread committer;
+
+    // Segment I/O (committer batches, rotation, close) is serialized on ioLock. It may be
+    // held while taking this object's monitor, never the other way round.
+    private final Object ioLock = new Object();
+    private FileChannel channel;
+    private long generation;
+
+    // Guarded by this
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER);
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER);
+    private final CRC32C crc = new CRC32C();
+    private long appended;
+    private long durable;
+    private IOException failure;
+    // closing: appends are refused; closed: the last batch is written and the segment closed
+    private boolean closing;
+    private boolean closed;
+
+    private FleetJournal(Path directory, long generation, boolean syncCommit) throws IOException {
+        this.directory = directory;
+        this.generation = generation;
+        this.syncCommit = syncCommit;
+        this.channel = createSegment(directory, generation);
+        committer = new Thread(this::commitLoop, "fleet-journal-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    // Replays every segment from fromGeneration on into replay, then opens a fresh segment
+    // for new entries. A torn entry ends its segment: it was never acknowledged as durable.
+    static FleetJournal recover(Path directory, long fromGeneration, Replay replay, boolean syncCommit)
+            throws IOException {
+        long next = fromGeneration;
+        for (long gen : segmentGenerations(directory)) {
+            if (gen >= fromGeneration) {
+                replaySegment(segmentPath(directory, gen), replay);
+            }
+            next = Math.max(next, gen + 1);
+        }
+        return new FleetJournal(directory, next, syncCommit);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    Path snapshotPath() {
+        return directory.resolve(SNAPSHOT_FILE);
+    }
+
+    public boolean isSyncCommit() {
+        return syncCommit;
+    }
+
+    // Appenders call these under the vehicle's lock, so per-vehicle entry order matches
+    // the order the changes were applied in. Each returns the entry's sequence number.
+    // Vehicle kinds the snapshot format cannot encode are not journaled. Everything that
+    // can be refused is checked before begin(), so a throw never leaves half an entry queued.
+    synchronized long upsert(Vehicle v) {
+        VehicleType type = VehicleType.of(v);
+        if (type == null) {
+            return appended;
+        }
+        byte[] id = checked(v.getId().getBytes(StandardCharsets.UTF_8));
+        byte[] model = v.getModel() == null ? null : checked(v.getModel().getBytes(StandardCharsets.UTF_8));
+        int start = begin(UPSERT, 1 + 2 + id.length + 2 + (model == null ? 0 : model.length)
+                + FleetSnapshotReader.stateSize(type));
+        pending.put((byte) (type.ordinal() + 1));
+        putString(pending, id);
+        if (model == null) {
+            pending.putShort((short) NO_MODEL);
+        } else {
+            putString(pending, model);
+        }
+        FleetSnapshotWriter.putState(pending, type, v);
+        return seal(start);
+    }
+
+    synchronized long remove(String id) {
+        byte[] bytes = checked(id.getBytes(StandardCharsets.UTF_8));
+        int start = begin(REMOVE, 2 + bytes.length);
+        putString(pending, bytes);
+        return seal(start);
+    }
+
+    synchronized long clear() {
+        return seal(begin(CLEAR, 0));
+    }
+
+    synchronized long appendedSequence() {
+        return appended;
+    }
+
+    // Makes sequence durable when the journal was opened with syncCommit; otherwise the
+    // committer flushes it in the background and this returns at once, unless the queue is
+    // over MAX_PENDING. Appends never wait, since appenders hold a vehicle lock; this is where
+    // a writer outrunning the disk is held back, with its locks released. Either way a failed
+    // write is thrown here, and by every append after it.
+    void commit(long sequence) {
+        if (!syncCommit) {
+            awaitBacklog();
+            return;
+        }
+        try {
+            awaitDurable(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized void awaitBacklog() {
+        boolean interrupted = false;
+        while (pending.position() > MAX_PENDING && failure == null && !closed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Journal write failed", failure);
+        }
+    }
+
+    public synchronized void awaitDurable(long sequence) throws IOException {
+        boolean interrupted = false;
+        while (durable < sequence && failure == null && !closed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new IOException("Journal write failed", failure);
+        }
+        if (durable < sequence) {
+            throw new IOException("Journal closed before entry " + sequence + " was written");
+        }
+    }
+
+    // Seals the current segment and starts the next one; returns the new generation.
+    // Everything appended before the call lands in an older generation.
+    long rotate() throws IOException {
+        synchronized (ioLock) {
+            synchronized (this) {
+                if (closing) {
+                    throw new IllegalStateException("Journal is closed");
+                }
+            }
+            writePending();
+            channel.close();
+            generation++;
+            channel = createSegment(directory, generation);
+            return generation;
+        }
+    }
+
+    // Called once a snapshot covering the older segments is safely in place
+    void deleteSegmentsBefore(long gen) throws IOException {
+        for (long g : segmentGenerations(directory)) {
+            if (g < gen) {
+                Files.deleteIfExists(segmentPath(directory, g));
+            }
+        }
+    }
+
+    // Refuses further appends before the last batch is written, under the monitor appends take,
+    // so every entry acknowledged with a sequence number is in that batch
+    @Override
+    public void close() throws IOException {
+        synchronized (ioLock) {
+            synchronized (this) {
+                if (closing) {
+                    return;
+                }
+                closing = true;
+            }
+            try {
+                writePending();
+            } finally {
+                synchronized (this) {
+                    closed = true;
+                    notifyAll();
+                }
+                channel.close();
+            }
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int begin(byte kind, int payload) {
+        if (closing) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        // the committer has stopped, so nothing queued from here on would ever be written
+        if (failure != null) {
+            throw new UncheckedIOException("Journal write failed", failure);
+        }
+        int entry = Integer.BYTES + 1 + payload + Integer.BYTES;
+        if (pending.remaining() < entry) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + entry));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        int start = pending.position();
+        pending.putInt(1 + payload).put(kind);
+        return start;
+    }
+
+    private long seal(int start) {
+        int from = start + Integer.BYTES;
+        crc.reset();
+        crc.update(pending.array(), from, pending.position() - from);
+        pending.putInt((int) crc.getValue());
+        appended++;
+        notifyAll();
+        return appended;
+    }
+
+    // 0xFFFF is left free for NO_MODEL
+    private static byte[] checked(byte[] bytes) {
+        if (bytes.length >= NO_MODEL) {
+            throw new IllegalArgumentException("ID/model too long for the journal");
+        }
+        return bytes;
+    }
+
+    private static void putString(ByteBuffer buf, byte[] bytes) {
+        buf.putShort((short) bytes.length).put(bytes);
+    }
+
+    private void commitLoop() {
+        while (true) {
+            synchronized (this) {
+                while (pending.position() == 0 && !closing && failure == null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // only close() ends the committer
+                    }
+                }
+                // close() writes the last batch itself
+                if (closing || failure != null) {
+                    return;
+                }
+            }
+            synchronized (ioLock) {
+                try {
+                    writePending();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Caller holds ioLock. Swaps the queued entries out, writes them and fsyncs once.
+    private void writePending() throws IOException {
+        ByteBuffer batch;
+        long upTo;
+        synchronized (this) {
+            if (failure != null) {
+                throw failure;
+            }
+            if (pending.position() == 0) {
+                return;
+            }
+            batch = pending;
+            pending = spare != null ? spare : ByteBuffer.allocate(INITIAL_BUFFER);
+            spare = null;
+            upTo = appended;
+            notifyAll();
+        }
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            synchronized (this) {
+                failure = e;
+                notifyAll();
+            }
+            throw e;
+        }
+        synchronized (this) {
+            durable = Math.max(durable, upTo);
+            if (spare == null && batch.capacity() <= MAX_PENDING) {
+                spare = batch.clear();
+            }
+            notifyAll();
+        }
+    }
+
+    private static Path segmentPath(Path directory, long gen) {
+        return directory.resolve(SEGMENT_PREFIX + gen + SEGMENT_SUFFIX);
+    }
+
+    private static List<Long> segmentGenerations(Path directory) throws IOException {
+        List<Long> gens = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path p : files) {
+                String name = p.getFileName().toString();
+                try {
+                    gens.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        gens.sort(null);
+        return gens;
+    }
+
+    private static FileChannel createSegment(Path directory, long gen) throws IOException {
+        FileChannel ch = FileChannel.open(segmentPath(directory, gen),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(gen).flip();
+        while (header.hasRemaining()) {
+            ch.write(header);
+        }
+        ch.force(false);
+        return ch;
+    }
+
+    private static void replaySegment(Path segment, Replay replay) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(segment));
+        if (buf.remaining() < HEADER_SIZE || buf.getInt() != MAGIC) {
+            throw new IOException("Not a fleet journal segment: " + segment);
+        }
+        short version = buf.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported journal version " + version + ": " + segment);
+        }
+        buf.getShort(); // flags, currently unused
+        buf.getLong();  // generation, already known from the file name
+
+        CRC32C crc = new CRC32C();
+        while (buf.remaining() >= Integer.BYTES) {
+            int entryStart = buf.position();
+            int length = buf.getInt();
+            if (length < 1 || length > MAX_ENTRY || buf.remaining() < length + Integer.BYTES) {
+                truncate(segment, entryStart);
+                return;
+            }
+            crc.reset();
+            crc.update(buf.array(), buf.position(), length);
+            int expected = buf.getInt(buf.position() + length);
+            if ((int) crc.getValue() != expected) {
+                truncate(segment, entryStart);
+                return;
+            }
+            ByteBuffer entry = buf.slice(buf.position(), length);
+            buf.position(buf.position() + length + Integer.BYTES);
+            apply(entry, replay);
+        }
+        if (buf.hasRemaining()) {
+            truncate(segment, buf.position());
+        }
+    }
+
+    private static void apply(ByteBuffer entry, Replay replay) throws IOException {
+        byte kind = entry.get();
+        switch (kind) {
+            case UPSERT -> {
+                int tag = entry.get() - 1;
+                VehicleType[] types = VehicleType.values();
+                if (tag < 0 || tag >= types.length) {
+                    throw new IOException("Corrupt journal: unknown type tag " + (tag + 1));
+                }
+                String id = getString(entry);
+                String model = getModel(entry);
+                try {
+                    replay.upsert(FleetSnapshotReader.restore(types[tag], id, model, entry));
+                } catch (InvalidOperationException e) {
+                    System.out.println("⚠️ Error replaying vehicle " + id + ": " + e.getMessage());
+                }
+            }
+            case REMOVE -> replay.remove(getString(entry));
+            case CLEAR -> replay.clear();
+            default -> throw new IOException("Corrupt journal: unknown entry kind " + kind);
+        }
+    }
+
+    private static String getModel(ByteBuffer buf) {
+        if ((buf.getShort(buf.position()) & 0xFFFF) == NO_MODEL) {
+            buf.getShort();
+            return null;
+        }
+        return getString(buf);
+    }
+
+    private static String getString(ByteBuffer buf) {
+        int len = buf.getShort() & 0xFFFF;
+        String s = new String(buf.array(), buf.arrayOffset() + buf.position(), len, StandardCharsets.UTF_8);
+        buf.position(buf.position() + len);
+        return s;
+    }
+
+    // Drops a torn tail so the segment ends on a whole entry
+    private static void truncate(Path segment, long size) throws IOException {
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ch.truncate(size);
+            ch.force(false);
+        }
+    }
+}
@@ -1,308 +1,1212 @@
 package fleet;
 
 import vehicles.Vehicle;
-import vehicles.Car;
-import vehicles.Truck;
-import vehicles.Bus;
-import vehicles.Airplane;
-import vehicles.CargoShip;
+import vehicles.VehicleType;
 
 import interfaces.FuelConsumable;
 import interfaces.Maintainable;
 import interfaces.CargoCarrier;
 import interfaces.PassengerCarrier;
+import interfaces.VehicleObserver;
+import interfaces.FleetEventListener;
+
+import events.FleetEventType;
+
+import metrics.FleetMetrics;
+import metrics.FleetOperation;
 
 import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
 
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
 
-import java.io.BufferedReader;
 import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.PrintWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Scanner;
 
 public class FleetManager {
-    private List<Vehicle> fleet;
+    private static final int LOCK_STRIPES = 256;
+    // Below this a parallel aggregate spends more on splitting and merging than it saves
+    private static final int PARALLEL_AGGREGATE_THRESHOLD = 1 << 14;
+
+    // Concurrent mode swaps every index for a ConcurrentHashMap: reads never block, but
+    // iteration order is no longer insertion order
+    private final boolean concurrent;
+
+    // Primary index: case-normalized ID -> vehicle, iterated in insertion (or last sorted) order
+    private final Map<String, Vehicle> fleet;
+
+    // Secondary indexes, kept in step with the registry by index()/unindex()
+    private static final List<Class<?>> CAPABILITIES =
+            List.of(FuelConsumable.class, CargoCarrier.class, PassengerCarrier.class, Maintainable.class);
+    private final Map<VehicleType, Map<String, Vehicle>> byType;
+    private final Map<String, Vehicle> otherTypes;
+    private final Map<Class<?>, Map<String, Vehicle>> byCapability;
+
+    // Vehicles currently due for maintenance, kept live by the vehicles' observer callbacks
+    private final Map<String, Vehicle> maintenanceDue;
+
+    // Every registered vehicle by cached efficiency, repositioned by changed() however the
+    // vehicle was changed
+    private final EfficiencyIndex byEfficiency = new EfficiencyIndex();
+
+    // Every registered vehicle by journey time per km, for planRoute's time ranking
+    private final PaceIndex byPace = new PaceIndex();
+
+    // Installed as each registered vehicle's observer: carries the registry key, the
+    // vehicle's column row, its share of the running stats and its efficiency and pace ranks,
+    // so callbacks and refreshes need no lookup
+    private final class Entry extends RunningFleetStats.Contribution implements VehicleObserver, FleetColumns.Row {
+        private final String key;
+        private final Vehicle vehicle;
+        private int slot = -1;
+        private EfficiencyIndex.Rank rank;
+        private PaceIndex.Pace pace;
+
+        Entry(String key, Vehicle vehicle) {
+            this.key = key;
+            this.vehicle = vehicle;
+        }
+
+        FleetManager owner() {
+            return FleetManager.this;
+        }
+
+        @Override
+        public void maintenanceStateChanged(Vehicle vehicle, boolean due) {
+            onMaintenanceStateChanged(key, vehicle, due);
+            if (columns != null) {
+                // already held on the manager's own paths; a direct mutation arrives without it
+                Lock lock = lockFor(vehicle);
+                lock.lock();
+                try {
+                    columns.setDue(this, due);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        @Override
+        public void vehicleEvent(Vehicle vehicle, FleetEventType type, double amount, double level) {
+            FleetEventListener l = eventListener;
+            if (l != null) l.onEvent(type, vehicle, amount, level);
+            // The manager's own mutations hold the stripe and refresh once when they are done;
+            // without it, the change came through a reference from findById or a search
+            if (!vehicleLocks[stripeOf(vehicle)].isHeldByCurrentThread()) changedDirectly(vehicle);
+        }
+
+        @Override
+        public int getSlot() {
+            return slot;
+        }
+
+        @Override
+        public void setSlot(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public Vehicle getVehicle() {
+            return vehicle;
+        }
+    }
+
+    // Optional columnar copy of the fleet's numbers, maintained alongside the indexes
+    private final FleetColumns columns;
+
+    // Totals behind getStats() and generateReport(), refreshed wherever a column row is
+    private final RunningFleetStats stats;
+
+    // Receives vehicle and registry events; null (the default) discards them
+    private volatile FleetEventListener eventListener;
+
+    // Operation timings and failure counts; null (the default) records nothing
+    private volatile FleetMetrics metrics;
+
+    // Striped locks: ID stripes guard add/remove of a key, vehicle stripes serialize mutations.
+    // An ID lock may be held while taking a vehicle lock, never the other way round.
+    private final ReentrantLock[] keyLocks;
+    private final ReentrantLock[] vehicleLocks;
+
+    private JourneyEngine journeyEngine = new JourneyEngine();
+    private MappedFleetLoader mappedLoader = new MappedFleetLoader();
+    private Dispatcher dispatcher = new Dispatcher();
+
+    // Write-ahead journal, when one is open; entries are appended under the vehicle's lock
+    private volatile FleetJournal journal;
 
     public FleetManager() {
-        fleet = new ArrayList<>();
+        this(false);
+    }
+
+    public FleetManager(boolean concurrent) {
+        this(concurrent, false);
+    }
+
+    // columnar: also keep a FleetColumns copy of every vehicle's numeric state, which
+    // aggregate() sums instead of calling into each vehicle
+    public FleetManager(boolean concurrent, boolean columnar) {
+        this.concurrent = concurrent;
+        this.columns = columnar ? new FleetColumns() : null;
+        fleet = newIndexMap();
+        byType = new EnumMap<>(VehicleType.class);
+        for (VehicleType t : VehicleType.values()) {
+            byType.put(t, newIndexMap());
+        }
+        otherTypes = newIndexMap();
+        byCapability = new LinkedHashMap<>();
+        for (Class<?> c : CAPABILITIES) {
+            byCapability.put(c, newIndexMap());
+        }
+        maintenanceDue = newIndexMap();
+        keyLocks = newStripes();
+        vehicleLocks = newStripes();
+        stats = new RunningFleetStats(vehicleLocks);
+    }
+
+    private static ReentrantLock[] newStripes() {
+        ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+
+    public void setEventListener(FleetEventListener eventListener) {
+        this.eventListener = eventListener;
+    }
+
+    public FleetEventListener getEventListener() {
+        return eventListener;
+    }
+
+    // Also registers the fleet's size, per-type counts and maintenance backlog as gauges
+    public void setMetrics(FleetMetrics metrics) {
+        if (metrics != null) {
+            metrics.gauge("fleet_vehicles", fleet::size);
+            for (VehicleType t : VehicleType.values()) {
+                Map<String, Vehicle> bucket = byType.get(t);
+                metrics.gauge("fleet_vehicles_by_type{type=\"" + t.getDisplayName().toLowerCase(Locale.ROOT) + "\"}", bucket::size);
+            }
+            metrics.gauge("fleet_maintenance_due", maintenanceDue::size);
+            metrics.gauge("fleet_journal_appended_sequence", () -> {
+                FleetJournal j = journal;
+                return j == null ? 0 : j.appendedSequence();
+            });
+        }
+        this.metrics = metrics;
+    }
+
+    public FleetMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void emit(FleetEventType type, Vehicle v) {
+        FleetEventListener l = eventListener;
+        if (l != null) l.onEvent(type, v, 0, Double.NaN);
+    }
+
+    // Null unless the manager was built columnar
+    public FleetColumns getColumns() {
+        return columns;
+    }
+
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    private Map<String, Vehicle> newIndexMap() {
+        return concurrent ? new ConcurrentHashMap<>() : new LinkedHashMap<>();
+    }
+
+    private static String key(String id) {
+        return id.toLowerCase(Locale.ROOT);
+    }
+
+    private Lock lockFor(String key) {
+        int h = key.hashCode();
+        return keyLocks[(h ^ (h >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    Lock lockFor(Vehicle v) {
+        return vehicleLocks[stripeOf(v)];
+    }
+
+    private static int stripeOf(Vehicle v) {
+        int h = System.identityHashCode(v);
+        return (h ^ (h >>> 16)) & (LOCK_STRIPES - 1);
+    }
+
+    private Map<String, Vehicle> typeBucket(Vehicle v) {
+        VehicleType t = VehicleType.exactly(v);
+        return t == null ? otherTypes : byType.get(t);
+    }
+
+    private void index(String key, Vehicle v) {
+        link(key, v);
+        Entry entry = new Entry(key, v);
+        v.setObserver(entry);
+        stats.add(stripeOf(v), v, entry);
+        entry.rank = byEfficiency.add(key, v);
+        entry.pace = byPace.add(v);
+        if (columns != null) {
+            columns.add(entry, v);
+        }
+    }
+
+    // The map side of index(): type and capability buckets and the maintenance set
+    private void link(String key, Vehicle v) {
+        typeBucket(v).put(key, v);
+        for (Map.Entry<Class<?>, Map<String, Vehicle>> e : byCapability.entrySet()) {
+            if (e.getKey().isInstance(v)) e.getValue().put(key, v);
+        }
+        if (v instanceof Maintainable m && m.needsMaintenance()) {
+            maintenanceDue.put(key, v);
+        }
+    }
+
+    // The vehicle's entry while it is registered here, else null
+    private Entry entryOf(Vehicle v) {
+        return v.getObserver() instanceof Entry e && e.owner() == this ? e : null;
+    }
+
+    private void unindex(String key, Vehicle v) {
+        typeBucket(v).remove(key);
+        for (Map.Entry<Class<?>, Map<String, Vehicle>> e : byCapability.entrySet()) {
+            if (e.getKey().isInstance(v)) e.getValue().remove(key);
+        }
+        maintenanceDue.remove(key);
+        Entry entry = entryOf(v);
+        if (entry != null) {
+            if (columns != null) columns.remove(entry);
+            stats.remove(stripeOf(v), v, entry);
+            byEfficiency.remove(entry.rank);
+            byPace.remove(v, entry.pace);
+            v.setObserver(null);
+        }
+    }
+
+    // Runs under the vehicle's lock, possibly on a journey worker thread
+    private void onMaintenanceStateChanged(String k, Vehicle v, boolean due) {
+        if (concurrent) {
+            updateDue(k, v, due);
+        } else {
+            synchronized (maintenanceDue) {
+                updateDue(k, v, due);
+            }
+        }
+    }
+
+    private void updateDue(String k, Vehicle v, boolean due) {
+        if (due) {
+            maintenanceDue.put(k, v);
+        } else {
+            maintenanceDue.remove(k);
+        }
+    }
+
+    // Not atomic with respect to concurrent writers; used by loadFromFile and re-sorting
+    private void clearFleet() {
+        for (Vehicle v : fleet.values()) {
+            if (entryOf(v) != null) v.setObserver(null);
+        }
+        if (columns != null) columns.clear();
+        stats.clear();
+        byEfficiency.clear();
+        byPace.clear();
+        unlinkAll();
+    }
+
+    private void unlinkAll() {
+        maintenanceDue.clear();
+        fleet.clear();
+        for (Map<String, Vehicle> bucket : byType.values()) bucket.clear();
+        otherTypes.clear();
+        for (Map<String, Vehicle> bucket : byCapability.values()) bucket.clear();
+    }
+
+    // A load replaces the fleet, so the journal records a clear ahead of the loaded vehicles
+    private void clearForLoad() {
+        clearFleet();
+        FleetJournal j = journal;
+        if (j != null) j.clear();
     }
 
     public void addVehicle(Vehicle v) throws InvalidOperationException {
-        for (Vehicle vehicle : fleet) {
-            if (vehicle.getId().equalsIgnoreCase(v.getId())) {
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        try {
+            register(v);
+        } catch (InvalidOperationException e) {
+            if (m != null) m.failed(FleetOperation.ADD_VEHICLE, v, e);
+            throw e;
+        } finally {
+            if (m != null) m.record(FleetOperation.ADD_VEHICLE, v, System.nanoTime() - start);
+        }
+    }
+
+    private void register(Vehicle v) throws InvalidOperationException {
+        String k = key(v.getId());
+        long seq = 0;
+        Lock keyLock = lockFor(k);
+        keyLock.lock();
+        try {
+            if (fleet.containsKey(k)) {
                 throw new InvalidOperationException("Duplicate vehicle ID: " + v.getId());
             }
+            // a vehicle has one observer, so sharing it would silently detach it from the other
+            // manager's stats, ranks, columns and journal
+            if (v.getObserver() instanceof Entry e && e.owner() != this) {
+                throw new InvalidOperationException("Vehicle ID " + v.getId() + " is already registered with another FleetManager");
+            }
+            Lock vehicleLock = lockFor(v);
+            vehicleLock.lock();
+            try {
+                // indexes first, so a vehicle visible in the registry is always fully indexed
+                index(k, v);
+                fleet.put(k, v);
+                try {
+                    seq = changed(v);
+                } catch (RuntimeException | Error e) {
+                    // never journaled, so it must not stay registered either
+                    fleet.remove(k);
+                    unindex(k, v);
+                    throw e;
+                }
+                emit(FleetEventType.VEHICLE_ADDED, v);
+            } finally {
+                vehicleLock.unlock();
+            }
+        } finally {
+            keyLock.unlock();
         }
-        fleet.add(v);
+        commit(seq);
     }
 
     public void removeVehicle(String id) throws InvalidOperationException {
-        boolean removed = fleet.removeIf(v -> v.getId().equals(id));
-        if (!removed) {
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        Vehicle removed = null;
+        try {
+            removed = unregister(id);
+        } catch (InvalidOperationException e) {
+            if (m != null) m.failed(FleetOperation.REMOVE_VEHICLE, null, e);
+            throw e;
+        } finally {
+            if (m != null) m.record(FleetOperation.REMOVE_VEHICLE, removed, System.nanoTime() - start);
+        }
+    }
+
+    private Vehicle unregister(String id) throws InvalidOperationException {
+        if (id == null) {
+            throw new InvalidOperationException("Vehicle ID not found: " + id);
+        }
+        String k = key(id);
+        long seq = 0;
+        Vehicle removed;
+        Lock keyLock = lockFor(k);
+        keyLock.lock();
+        try {
+            removed = fleet.remove(k);
+            if (removed == null) {
+                throw new InvalidOperationException("Vehicle ID not found: " + id);
+            }
+            // waits out any in-flight mutation so its observer callback cannot re-add the vehicle
+            Lock vehicleLock = lockFor(removed);
+            vehicleLock.lock();
+            try {
+                unindex(k, removed);
+                FleetJournal j = journal;
+                if (j != null) seq = j.remove(removed.getId());
+                emit(FleetEventType.VEHICLE_REMOVED, removed);
+            } finally {
+                vehicleLock.unlock();
+            }
+        } finally {
+            keyLock.unlock();
+        }
+        commit(seq);
+        return removed;
+    }
+
+    public Optional<Vehicle> findById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(fleet.get(key(id)));
+    }
+
+    public int size() {
+        return fleet.size();
+    }
+
+    private Vehicle require(String id) throws InvalidOperationException {
+        Vehicle v = id == null ? null : fleet.get(key(id));
+        if (v == null) {
             throw new InvalidOperationException("Vehicle ID not found: " + id);
         }
+        return v;
+    }
+
+    @FunctionalInterface
+    private interface Mutation<T> {
+        void apply(T target) throws InvalidOperationException, OverloadException;
+    }
+
+    // Looks the vehicle up lock-free, then applies the mutation under its stripe lock
+    private <T> void mutate(FleetOperation op, String id, Class<T> capability, String action, Mutation<T> mutation)
+            throws InvalidOperationException, OverloadException {
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        Vehicle v = null;
+        try {
+            v = require(id);
+            if (!capability.isInstance(v)) {
+                throw new InvalidOperationException("Vehicle ID " + v.getId() + " cannot " + action + ".");
+            }
+            long seq = 0;
+            Lock lock = lockFor(v);
+            lock.lock();
+            try {
+                mutation.apply(capability.cast(v));
+            } finally {
+                // logged even when the mutation throws, in case it changed state before failing
+                try {
+                    seq = changed(v);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            commit(seq);
+        } catch (InvalidOperationException | OverloadException e) {
+            if (m != null) m.failed(op, v, e);
+            throw e;
+        } finally {
+            if (m != null) m.record(op, v, System.nanoTime() - start);
+        }
+    }
+
+    // Call with the vehicle's lock held, after any change to it: refreshes its column row,
+    // running stats and efficiency rank and journals its new state. Mutations made through the
+    // manager call it once at the end; every other change reaches it through the vehicle's
+    // events, see Entry.vehicleEvent. Skips vehicles removed since they were looked up, whose journal
+    // entry would otherwise resurrect them on replay.
+    private long changed(Vehicle v) {
+        Entry entry = entryOf(v);
+        if (entry == null) {
+            return 0;
+        }
+        if (columns != null) {
+            columns.update(entry, v);
+        }
+        stats.update(stripeOf(v), v, entry);
+        entry.rank = byEfficiency.update(entry.rank);
+        FleetJournal j = journal;
+        return j == null ? 0 : j.upsert(v);
+    }
+
+    // changed() for a vehicle mutated directly, through a reference from findById or a search:
+    // takes its stripe for the refresh and then waits for the journal like a manager mutation
+    private void changedDirectly(Vehicle v) {
+        long seq;
+        Lock lock = lockFor(v);
+        lock.lock();
+        try {
+            seq = changed(v);
+        } finally {
+            lock.unlock();
+        }
+        commit(seq);
+    }
+
+    // Waits for the entry's group commit when the journal is synchronous, and for an oversized
+    // backlog to drain when it is not; call without locks
+    private void commit(long seq) {
+        FleetJournal j = journal;
+        if (j != null && seq > 0) {
+            j.commit(seq);
+        }
+    }
+
+    // After a bulk operation one wait covers every entry it appended
+    private void commitAll() {
+        FleetJournal j = journal;
+        if (j != null) {
+            j.commit(j.appendedSequence());
+        }
+    }
+
+    public void moveVehicle(String id, double distance) throws InvalidOperationException {
+        try {
+            mutate(FleetOperation.MOVE_VEHICLE, id, Vehicle.class, "move", v -> v.move(distance));
+        } catch (OverloadException e) {
+            throw new InvalidOperationException(e.getMessage());
+        }
+    }
+
+    public void refuel(String id, double amount) throws InvalidOperationException {
+        try {
+            mutate(FleetOperation.REFUEL, id, FuelConsumable.class, "be refueled", f -> f.refuel(amount));
+        } catch (OverloadException e) {
+            throw new InvalidOperationException(e.getMessage());
+        }
+    }
+
+    public void loadCargo(String id, double weight) throws InvalidOperationException, OverloadException {
+        mutate(FleetOperation.LOAD_CARGO, id, CargoCarrier.class, "carry cargo", c -> c.loadCargo(weight));
+    }
+
+    public void unloadCargo(String id, double weight) throws InvalidOperationException, OverloadException {
+        mutate(FleetOperation.UNLOAD_CARGO, id, CargoCarrier.class, "carry cargo", c -> c.unloadCargo(weight));
+    }
+
+    public void boardPassengers(String id, int count) throws InvalidOperationException, OverloadException {
+        mutate(FleetOperation.BOARD_PASSENGERS, id, PassengerCarrier.class, "carry passengers", p -> p.boardPassengers(count));
+    }
+
+    public void disembarkPassengers(String id, int count) throws InvalidOperationException, OverloadException {
+        mutate(FleetOperation.DISEMBARK_PASSENGERS, id, PassengerCarrier.class, "carry passengers", p -> p.disembarkPassengers(count));
+    }
+
+    // Applies a whole batch of mutations, answering with one MutationBatch result code per
+    // operation instead of throwing. Each ID is looked up once and each vehicle locked and
+    // journaled once, however many of the batch's operations it gets; a vehicle's operations
+    // run in batch order, so a refuel ahead of a move funds it. Vehicles are visited in the order
+    // of their first operation, and a failed operation does not stop the ones after it.
+    public byte[] apply(MutationBatch batch) {
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        int n = batch.size();
+        byte[] results = new byte[n];
+
+        // group g is vehicles[g]; its operations are first[g], next[first[g]], ... until -1
+        Map<String, Integer> groupOfId = new HashMap<>();
+        Map<Vehicle, Integer> groupOfVehicle = new IdentityHashMap<>();
+        Vehicle[] vehicles = new Vehicle[Math.min(n, 1024)];
+        int[] first = new int[vehicles.length];
+        int[] last = new int[vehicles.length];
+        int[] next = new int[n];
+        int groups = 0;
+        for (int i = 0; i < n; i++) {
+            String id = batch.getId(i);
+            Integer g = groupOfId.get(id);
+            if (g == null) {
+                Vehicle v = id == null ? null : fleet.get(key(id));
+                if (v == null) {
+                    g = -1;
+                } else {
+                    g = groupOfVehicle.get(v);
+                    if (g == null) {
+                        if (groups == vehicles.length) {
+                            int capacity = Math.min(n, 2 * groups);
+                            vehicles = Arrays.copyOf(vehicles, capacity);
+                            first = Arrays.copyOf(first, capacity);
+                            last = Arrays.copyOf(last, capacity);
+                        }
+                        g = groups++;
+                        vehicles[g] = v;
+                        first[g] = i;
+                        last[g] = i;
+                        groupOfVehicle.put(v, g);
+                    } else {
+                        next[last[g]] = i;
+                        last[g] = i;
+                    }
+                }
+                if (id != null) groupOfId.put(id, g);
+            } else if (g >= 0) {
+                next[last[g]] = i;
+                last[g] = i;
+            }
+            next[i] = -1;
+            if (g < 0) {
+                results[i] = MutationBatch.NOT_FOUND;
+                if (m != null) m.failed(FleetOperation.APPLY_BATCH, null, FleetMetrics.Failure.INVALID_OPERATION);
+            }
+        }
+
+        for (int g = 0; g < groups; g++) {
+            Vehicle v = vehicles[g];
+            Lock lock = lockFor(v);
+            lock.lock();
+            try {
+                for (int i = first[g]; i >= 0; i = next[i]) {
+                    byte result = batch.applyTo(v, i);
+                    results[i] = result;
+                    if (m != null && result != MutationBatch.OK) {
+                        m.failed(FleetOperation.APPLY_BATCH, v, result == MutationBatch.OVERLOAD ? FleetMetrics.Failure.OVERLOAD
+                                : result == MutationBatch.INSUFFICIENT_FUEL ? FleetMetrics.Failure.INSUFFICIENT_FUEL
+                                : FleetMetrics.Failure.INVALID_OPERATION);
+                    }
+                }
+            } finally {
+                try {
+                    changed(v);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        commitAll();
+        if (m != null) m.record(FleetOperation.APPLY_BATCH, System.nanoTime() - start);
+        return results;
     }
 
     public void startAllJourneys(double distance) {
-        for (Vehicle v : fleet) {
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        for (Vehicle v : fleet.values()) {
+            Lock lock = lockFor(v);
+            lock.lock();
             try {
                 v.move(distance);
             } catch (InvalidOperationException e) {
+                if (m != null) m.failed(FleetOperation.START_ALL_JOURNEYS, v, e);
                 System.out.println("Error moving vehicle ID " + v.getId() + ": " + e.getMessage());
+            } finally {
+                try {
+                    changed(v);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        commitAll();
+        if (m != null) m.record(FleetOperation.START_ALL_JOURNEYS, System.nanoTime() - start);
+    }
+
+    public void setJourneyEngine(JourneyEngine journeyEngine) {
+        this.journeyEngine = journeyEngine;
+    }
+
+    // Parallel counterpart of startAllJourneys: failures are collected per ID instead of printed
+    public JourneyResult runJourneys(double distance) {
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        JourneyResult result = journeyEngine.run(new ArrayList<>(fleet.values()), distance, this::lockFor, this::changed);
+        commitAll();
+        if (m != null) {
+            m.record(FleetOperation.RUN_JOURNEYS, System.nanoTime() - start);
+            // the engine reports failures as messages, so every one counts as an invalid operation
+            for (String id : result.getFailures().keySet()) {
+                m.failed(FleetOperation.RUN_JOURNEYS, fleet.get(key(id)), FleetMetrics.Failure.INVALID_OPERATION);
             }
         }
+        return result;
     }
 
     public double getTotalFuelConsumption(double distance) {
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
         double total = 0.0;
-        for (Vehicle v : fleet) {
-            if (v instanceof FuelConsumable) {
+        for (Vehicle v : byCapability.get(FuelConsumable.class).values()) {
+            Lock lock = lockFor(v);
+            lock.lock();
+            try {
+                total += ((FuelConsumable) v).consumeFuel(distance);
+            } catch (Exception e) {
+                if (m != null) m.failed(FleetOperation.TOTAL_FUEL_CONSUMPTION, v, e);
+                System.out.println("Vehicle ID " + v.getId() + ": " + e.getMessage());
+            } finally {
                 try {
-                    total += ((FuelConsumable) v).consumeFuel(distance);
-                } catch (Exception e) {
-                    System.out.println("Vehicle ID " + v.getId() + ": " + e.getMessage());
+                    changed(v);
+                } finally {
+                    lock.unlock();
                 }
             }
         }
+        commitAll();
+        if (m != null) m.record(FleetOperation.TOTAL_FUEL_CONSUMPTION, System.nanoTime() - start);
         return total;
     }
 
+    // Side-effect-free counterpart of getTotalFuelConsumption: snapshots the fuel burners'
+    // efficiencies and tank levels, which any number of what-if distances can then be run against
+    public FuelProjection projectFuel() {
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        FuelProjection projection = new FuelProjection(byCapability.get(FuelConsumable.class).values());
+        if (m != null) m.record(FleetOperation.PROJECT_FUEL, System.nanoTime() - start);
+        return projection;
+    }
+
     public void maintainAll() {
-        for (Vehicle v : fleet) {
-            if (v instanceof Maintainable m && m.needsMaintenance()) {
-                m.performMaintenance();
-            }
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        // performMaintenance() drops each vehicle from the due set, so work on a copy
+        for (Vehicle v : getVehiclesNeedingMaintenance()) {
+            maintain(v);
         }
+        commitAll();
+        if (m != null) m.record(FleetOperation.MAINTAIN_ALL, System.nanoTime() - start);
+    }
+    // Unknown IDs are skipped; the result says whether the vehicle was found, and stayed
+    // registered until it was maintained
+    public boolean maintainone(String id1) {
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        Vehicle v = findById(id1).orElse(null);
+        boolean found = v != null && maintain(v);
+        commitAll();
+        if (m != null) m.record(FleetOperation.MAINTAIN_ONE, v, System.nanoTime() - start);
+        return found;
     }
-    public void maintainone(String id1) {
-        for (Vehicle v : fleet) {
-            if (v instanceof Maintainable m && m.needsMaintenance() && v.getId().equals(id1)) {
+
+    // False, without touching it, for a vehicle removed since it was looked up
+    private boolean maintain(Vehicle v) {
+        Lock lock = lockFor(v);
+        lock.lock();
+        try {
+            if (entryOf(v) == null) {
+                return false;
+            }
+            if (v instanceof Maintainable m && m.needsMaintenance()) {
                 m.performMaintenance();
+                changed(v);
             }
+            return true;
+        } finally {
+            lock.unlock();
         }
     }
 
+    // Answered from the type/capability buckets; only buckets that can hold matches are visited.
+    // Type buckets hold exact classes, so subclasses and other kinds are found by scanning otherTypes.
     public List<Vehicle> searchByType(Class<?> type) {
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        List<Vehicle> result = collectByType(type);
+        if (m != null) m.record(FleetOperation.SEARCH_BY_TYPE, System.nanoTime() - start);
+        return result;
+    }
+
+    private List<Vehicle> collectByType(Class<?> type) {
+        if (type.isAssignableFrom(Vehicle.class)) {
+            return new ArrayList<>(fleet.values());
+        }
+        Map<String, Vehicle> capability = byCapability.get(type);
+        if (capability != null) {
+            return new ArrayList<>(capability.values());
+        }
         List<Vehicle> result = new ArrayList<>();
-        for (Vehicle v : fleet) {
+        for (Map.Entry<VehicleType, Map<String, Vehicle>> e : byType.entrySet()) {
+            Class<?> bucketClass = e.getKey().getVehicleClass();
+            if (type.isAssignableFrom(bucketClass)) {
+                result.addAll(e.getValue().values());
+            }
+        }
+        addInstances(result, otherTypes, type);
+        return result;
+    }
+
+    private static void addInstances(List<Vehicle> result, Map<String, Vehicle> bucket, Class<?> type) {
+        for (Vehicle v : bucket.values()) {
             if (type.isInstance(v)) {
                 result.add(v);
             }
         }
-        return result;
     }
 
+    // Re-links the registry and its buckets in efficiency order, read straight off the
+    // efficiency index, so nothing is compared or recomputed; lookups stay O(1).
+    // A concurrent registry has no order to re-link: read getVehiclesByEfficiency() instead.
     public void sortFleetByEfficiency() {
-        Collections.sort(fleet);
+        if (concurrent) {
+            throw new IllegalStateException("A concurrent fleet keeps no order to sort; use getVehiclesByEfficiency()");
+        }
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        List<EfficiencyIndex.Rank> sorted = new ArrayList<>(fleet.size());
+        for (EfficiencyIndex.Rank r : byEfficiency.ranks()) {
+            sorted.add(r);
+        }
+        unlinkAll();
+        for (EfficiencyIndex.Rank r : sorted) {
+            fleet.put(r.key, r.vehicle);
+            link(r.key, r.vehicle);
+        }
+        if (m != null) m.record(FleetOperation.SORT_BY_EFFICIENCY, System.nanoTime() - start);
     }
 
-    public String generateReport() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("Fleet Report:\n");
-        sb.append("Total Vehicles: ").append(fleet.size()).append("\n");
+    // The whole fleet, least efficient first; ties in registration order
+    public List<Vehicle> getVehiclesByEfficiency() {
+        return byEfficiency.lowest(Integer.MAX_VALUE);
+    }
 
-        sb.append("Count by Type:\n");
-        for (String type : List.of("Car", "Truck", "Bus", "Airplane", "CargoShip")) {
-            long count = fleet.stream().filter(v -> v.getClass().getSimpleName().equals(type)).count();
-            if (count > 0) sb.append(" - ").append(type).append(": ").append(count).append("\n");
-        }
+    // The k most efficient vehicles, best first, in O(log n + k)
+    public List<Vehicle> getMostEfficient(int k) {
+        return byEfficiency.highest(k);
+    }
 
-        double totalEfficiency = 0.0;
-        double totalMileage = 0.0;
-        for (Vehicle v : fleet) {
-            totalEfficiency += v.calculateFuelEfficiency();
-            totalMileage += v.getCurrentMileage();
-        }
+    // The k least efficient vehicles, worst first
+    public List<Vehicle> getLeastEfficient(int k) {
+        return byEfficiency.lowest(k);
+    }
 
-        sb.append(String.format("Average Efficiency: %.2f km/l\n", fleet.isEmpty() ? 0.0 : totalEfficiency / fleet.size()));
-        sb.append(String.format("Total Mileage: %.2f km\n", totalMileage));
+    public String generateReport() {
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        String report = getStats().toAggregate(getVehiclesNeedingMaintenance()).render();
+        if (m != null) m.record(FleetOperation.GENERATE_REPORT, System.nanoTime() - start);
+        return report;
+    }
 
-        sb.append("Vehicles Needing Maintenance:\n");
-        for (Vehicle v : getVehiclesNeedingMaintenance()) {
-            sb.append(" - ").append(v.getClass().getSimpleName())
-                    .append(" (ID: ").append(v.getId()).append(")\n");
-        }
+    // The running totals, read in time independent of the fleet's size. They can differ from
+    // a fresh aggregate() in the last bits of the sums; the report's two decimals absorb that.
+    public FleetStats getStats() {
+        return stats.snapshot(maintenanceDue.size());
+    }
 
-        return sb.toString();
+    // A fresh pass over the fleet for what getStats() keeps running, with the due vehicles in
+    // fleet order. A columnar manager answers from its arrays; otherwise large fleets are
+    // reduced in parallel chunks on the common pool. Like the report, this reads vehicles
+    // without their locks, so under concurrent mutation the totals may mix before and after.
+    public FleetAggregate aggregate() {
+        if (columns != null) {
+            return columns.aggregate();
+        }
+        if (fleet.size() >= PARALLEL_AGGREGATE_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            return Arrays.stream(fleet.values().toArray(new Vehicle[0])).parallel().collect(FleetAggregate.collector());
+        }
+        FleetAggregate a = new FleetAggregate();
+        for (Vehicle v : fleet.values()) {
+            a.accept(v);
+        }
+        return a;
     }
 
     public List<Vehicle> getVehiclesNeedingMaintenance() {
-        List<Vehicle> result = new ArrayList<>();
-        for (Vehicle v : fleet) {
-            if (v instanceof Maintainable m && m.needsMaintenance()) {
-                result.add(v);
+        if (concurrent) {
+            return new ArrayList<>(maintenanceDue.values());
+        }
+        // the due set holds vehicles in the order they became due, so the registry supplies the fleet's order
+        synchronized (maintenanceDue) {
+            int due = maintenanceDue.size();
+            List<Vehicle> result = new ArrayList<>(due);
+            if (due == 0) {
+                return result;
+            }
+            for (Map.Entry<String, Vehicle> e : fleet.entrySet()) {
+                if (maintenanceDue.containsKey(e.getKey())) {
+                    result.add(e.getValue());
+                    if (result.size() == due) break;
+                }
             }
+            return result;
         }
-        return result;
     }
 
-    // Save Fleet to CSV
+    // Save Fleet to CSV via a temp file + atomic rename, so a failed save never truncates filename
     public void saveToFile(String filename) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
-            for (Vehicle v : fleet) {
-                StringBuilder sb = new StringBuilder();
-                if (v instanceof Car c) {
-                    sb.append("Car,")
-                            .append(c.getId()).append(",")
-                            .append(c.getModel()).append(",")
-                            .append(c.getMaxSpeed()).append(",")
-                            .append(c.getCurrentMileage()).append(",")
-                            .append(c.getNumberOfWheels()).append(",")
-                            .append(c.getFuelLevel()).append(",")
-                            .append(c.getPassengerCapacity()).append(",")
-                            .append(c.maintance()).append(",")
-                            .append(c.getCurrentPassengers());
-                } else if (v instanceof Truck t) {
-                    sb.append("Truck,")
-                            .append(t.getId()).append(",")
-                            .append(t.getModel()).append(",")
-                            .append(t.getMaxSpeed()).append(",")
-                            .append(t.getCurrentMileage()).append(",")
-                            .append(t.getNumberOfWheels()).append(",")
-                            .append(t.getFuelLevel()).append(",")
-                            .append(t.getCargoCapacity()).append(",")
-                            .append(t.maintance()).append(",")
-                            .append(t.getCurrentCargo());
-                } else if (v instanceof Bus b) {
-                    sb.append("Bus,")
-                            .append(b.getId()).append(",")
-                            .append(b.getModel()).append(",")
-                            .append(b.getMaxSpeed()).append(",")
-                            .append(b.getCurrentMileage()).append(",")
-                            .append(b.getNumberOfWheels()).append(",")
-                            .append(b.getFuelLevel()).append(",")
-                            .append(b.getPassengerCapacity()).append(",")
-                            .append(b.getCurrentPassengers()).append(",")
-                            .append(b.getCargoCapacity()).append(",")
-                            .append(b.maintance()).append(",")
-                            .append(b.getCurrentCargo());
-                } else if (v instanceof CargoShip c) {
-                    sb.append("CargoShip,")
-                            .append(c.getId()).append(",")
-                            .append(c.getModel()).append(",")
-                            .append(c.getMaxSpeed()).append(",")
-                            .append(c.getCurrentMileage()).append(",")
-                            .append(c.hasSail()).append(",")
-                            .append(c.getFuelLevel()).append(",")
-                            .append(c.getCargoCapacity()).append(",")
-                            .append(c.maintance()).append(",")
-                            .append(c.getCurrentCargo());
-                } else if (v instanceof Airplane a) {
-                    sb.append("Airplane,")
-                            .append(a.getId()).append(",")
-                            .append(a.getModel()).append(",")
-                            .append(a.getMaxSpeed()).append(",")
-                            .append(a.getCurrentMileage()).append(",")
-                            .append(a.getMaxAltitude()).append(",")
-                            .append(a.getFuelLevel()).append(",")
-                            .append(a.getPassengerCapacity()).append(",")
-                            .append(a.maintance()).append(",")
-                            .append(a.getCurrentPassengers());
-                }
-                writer.println(sb.toString());
-            }
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        try {
+            FleetCsvWriter.writeAtomically(Path.of(filename), fleet.values());
             System.out.println("Fleet saved to " + filename);
         } catch (IOException e) {
             System.out.println("Error saving to CSV: " + e.getMessage());
         }
+        if (m != null) m.record(FleetOperation.SAVE_CSV, System.nanoTime() - start);
     }
 
-    // Load Fleet from CSV using factory method inside this class
+    // Load Fleet from CSV, streaming rows straight into restored vehicles
     public void loadFromFile(String filename) {
-        fleet.clear();
-        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        clearForLoad();
+        try (FleetCsvReader reader = new FleetCsvReader(new FileReader(filename))) {
+            while (true) {
                 try {
-                    Vehicle v = createVehicleFromParts(parts);
-                    fleet.add(v);
-                } catch (Exception e) {
-                    System.out.println("⚠️ Error loading vehicle " + (parts.length > 1 ? parts[1] : "") + ": " + e.getMessage());
+                    Vehicle v = reader.next();
+                    if (v == null) break;
+                    addVehicle(v);
+                } catch (InvalidOperationException e) {
+                    System.out.println("⚠️ Error loading vehicle " + reader.currentId() + ": " + e.getMessage());
                 }
             }
             System.out.println("Fleet loaded from " + filename);
         } catch (IOException e) {
             System.out.println("Error reading CSV: " + e.getMessage());
         }
+        if (m != null) m.record(FleetOperation.LOAD_CSV, System.nanoTime() - start);
     }
 
-    // Factory method: recreate vehicle from CSV parts
-    private Vehicle createVehicleFromParts(String[] parts) throws Exception {
-        if (parts == null || parts.length == 0) {
-            throw new IllegalArgumentException("Empty CSV line");
-        }
-
-        String type = parts[0];
-
-        return switch (type) {
-            case "Car" -> {
-                Car car = new Car(parts[1], parts[2], Double.parseDouble(parts[3]), Integer.parseInt(parts[5]));
-                car.setCurrentMileage(Double.parseDouble(parts[4]));
-                car.setmaintance(Double.parseDouble(parts[8]));
-                double fuel = Double.parseDouble(parts[6]);
-                if (fuel > 0) car.refuel(fuel);
-                int passengers = Integer.parseInt(parts[9]);
-                if (passengers > 0) car.boardPassengers(passengers);
-                yield car;
-            }
-            case "Truck" -> {
-                Truck truck = new Truck(parts[1], parts[2], Double.parseDouble(parts[3]), Integer.parseInt(parts[5]));
-                truck.setCurrentMileage(Double.parseDouble(parts[4]));
-                truck.setmaintance(Double.parseDouble(parts[8]));
-                double fuel = Double.parseDouble(parts[6]);
-                if (fuel > 0) truck.refuel(fuel);
-                double cargo = Double.parseDouble(parts[9]);
-                if (cargo > 0) truck.loadCargo(cargo);
-                yield truck;
-            }
-            case "Bus" -> {
-                Bus bus = new Bus(parts[1], parts[2], Double.parseDouble(parts[3]), Integer.parseInt(parts[5]));
-                bus.setCurrentMileage(Double.parseDouble(parts[4]));
-                bus.setmaintance(Double.parseDouble(parts[10]));
-                double fuel = Double.parseDouble(parts[6]);
-                if (fuel > 0) bus.refuel(fuel);
-                int passengers = Integer.parseInt(parts[8]);
-                if (passengers > 0) bus.boardPassengers(passengers);
-                double cargo = Double.parseDouble(parts[11]);
-                if (cargo > 0) bus.loadCargo(cargo);
-                yield bus;
-            }
-            case "CargoShip" -> {
-                CargoShip cs = new CargoShip(parts[1], parts[2], Double.parseDouble(parts[3]), Boolean.parseBoolean(parts[5]));
-                cs.setCurrentMileage(Double.parseDouble(parts[4]));
-                cs.setmaintance(Double.parseDouble(parts[8]));
-                double fuel = Double.parseDouble(parts[6]);
-                if (fuel > 0) cs.refuel(fuel);
-                double cargo = Double.parseDouble(parts[9]);
-                if (cargo > 0) cs.loadCargo(cargo);
-                yield cs;
-            }
-            case "Airplane" -> {
-                Airplane ap = new Airplane(parts[1], parts[2], Double.parseDouble(parts[3]), Double.parseDouble(parts[5]));
-                ap.setCurrentMileage(Double.parseDouble(parts[4]));
-                ap.setmaintance(Double.parseDouble(parts[8]));
-                double fuel = Double.parseDouble(parts[6]);
-                if (fuel > 0) ap.refuel(fuel);
-                int passengers = Integer.parseInt(parts[9]);
-                if (passengers > 0) ap.boardPassengers(passengers);
-                yield ap;
-            }
-            default -> throw new IllegalArgumentException("Unknown vehicle type: " + type);
-        };
+    public void saveSnapshot(String filename) {
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        try {
+            FleetSnapshotWriter.writeAtomically(Path.of(filename), fleet.values());
+            System.out.println("Fleet snapshot saved to " + filename);
+        } catch (IOException e) {
+            System.out.println("Error saving snapshot: " + e.getMessage());
+        }
+        if (m != null) m.record(FleetOperation.SAVE_SNAPSHOT, System.nanoTime() - start);
+    }
+
+    // Load Fleet from a binary snapshot written by saveSnapshot
+    public void loadSnapshot(String filename) {
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        clearForLoad();
+        try (FleetSnapshotReader reader = new FleetSnapshotReader(Path.of(filename))) {
+            while (true) {
+                try {
+                    Vehicle v = reader.next();
+                    if (v == null) break;
+                    addVehicle(v);
+                } catch (InvalidOperationException e) {
+                    System.out.println("⚠️ Error loading vehicle " + reader.currentId() + ": " + e.getMessage());
+                }
+            }
+            System.out.println("Fleet snapshot loaded from " + filename);
+        } catch (IOException e) {
+            System.out.println("Error reading snapshot: " + e.getMessage());
+        }
+        if (m != null) m.record(FleetOperation.LOAD_SNAPSHOT, System.nanoTime() - start);
+    }
+
+    public void openJournal(String directory) throws IOException {
+        openJournal(directory, true);
+    }
+
+    // Recovers the fleet from directory (last snapshot plus the journal after it) and journals
+    // every later mutation there. With syncCommit each mutating call returns only once its
+    // entry is on disk; without it, entries reach disk in the committer's next batch.
+    // The journal is the fleet's source of truth, so it can only be opened on an empty fleet.
+    public void openJournal(String directory, boolean syncCommit) throws IOException {
+        if (journal != null) {
+            throw new IllegalStateException("A journal is already open in " + journal.getDirectory());
+        }
+        if (!fleet.isEmpty()) {
+            throw new IllegalStateException("A journal can only be opened on an empty fleet; it holds " + fleet.size() + " vehicle(s)");
+        }
+        Path dir = Path.of(directory);
+        Files.createDirectories(dir);
+        clearFleet();
+        long fromGeneration = 0;
+        Path snapshot = dir.resolve(FleetJournal.SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            try (FleetSnapshotReader reader = new FleetSnapshotReader(snapshot)) {
+                while (true) {
+                    try {
+                        Vehicle v = reader.next();
+                        if (v == null) break;
+                        addVehicle(v);
+                    } catch (InvalidOperationException e) {
+                        System.out.println("⚠️ Error loading vehicle " + reader.currentId() + ": " + e.getMessage());
+                    }
+                }
+                fromGeneration = reader.getJournalGeneration();
+            }
+        }
+        journal = FleetJournal.recover(dir, fromGeneration, new FleetJournal.Replay() {
+            @Override
+            public void upsert(Vehicle v) {
+                replace(v);
+            }
+
+            @Override
+            public void remove(String id) {
+                String k = key(id);
+                Vehicle removed = fleet.remove(k);
+                if (removed != null) unindex(k, removed);
+            }
+
+            @Override
+            public void clear() {
+                clearFleet();
+            }
+        }, syncCommit);
+    }
+
+    // Replay-only: swaps in the journaled state, keeping the vehicle's place in the registry
+    private void replace(Vehicle v) {
+        String k = key(v.getId());
+        Vehicle old = fleet.get(k);
+        if (old != null) unindex(k, old);
+        index(k, v);
+        fleet.put(k, v);
+    }
+
+    // Rolls the journal into a fresh snapshot. Mutations may continue meanwhile: whatever
+    // the snapshot misses is in the new segment, and replaying full states is idempotent.
+    public void compactJournal() throws IOException {
+        FleetJournal j = journal;
+        if (j == null) {
+            throw new IllegalStateException("No journal is open");
+        }
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        long generation = j.rotate();
+        AtomicFiles.replace(j.snapshotPath(), ch -> {
+            FleetSnapshotWriter writer = new FleetSnapshotWriter(ch, generation);
+            for (Vehicle v : fleet.values()) {
+                Lock lock = lockFor(v);
+                lock.lock();
+                try {
+                    writer.write(v);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            writer.finish();
+        });
+        j.deleteSegmentsBefore(generation);
+        if (m != null) m.record(FleetOperation.COMPACT_JOURNAL, System.nanoTime() - start);
+    }
+
+    public void closeJournal() throws IOException {
+        FleetJournal j = journal;
+        if (j != null) {
+            journal = null;
+            j.close();
+        }
+    }
+
+    public void setMappedLoader(MappedFleetLoader mappedLoader) {
+        this.mappedLoader = mappedLoader;
+    }
+
+    // Load Fleet from CSV by memory-mapping the file and parsing newline-aligned chunks in
+    // parallel. Chunks are merged in file order; a concurrent registry merges them in parallel.
+    // Either way the row that keeps a duplicated ID is its first in the file, and errors are
+    // printed in file order once the merge is done.
+    public void loadFromFileParallel(String filename) {
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        clearForLoad();
+        try {
+            List<MappedFleetLoader.Chunk> chunks = mappedLoader.parse(Path.of(filename));
+            List<List<String>> errors;
+            if (concurrent) {
+                long[] firstRow = new long[chunks.size() + 1];
+                for (int c = 0; c < chunks.size(); c++) {
+                    firstRow[c + 1] = firstRow[c] + chunks.get(c).getVehicles().size();
+                }
+                Map<String, Long> firstById = new ConcurrentHashMap<>();
+                IntStream.range(0, chunks.size()).parallel().forEach(c -> {
+                    List<Vehicle> vehicles = chunks.get(c).getVehicles();
+                    for (int i = 0; i < vehicles.size(); i++) {
+                        firstById.merge(key(vehicles.get(i).getId()), firstRow[c] + i, Math::min);
+                    }
+                });
+                errors = IntStream.range(0, chunks.size()).parallel()
+                        .mapToObj(c -> mergeChunk(chunks.get(c), firstRow[c], firstById))
+                        .toList();
+            } else {
+                errors = chunks.stream().map(c -> mergeChunk(c, 0, null)).toList();
+            }
+            for (List<String> chunkErrors : errors) {
+                for (String error : chunkErrors) {
+                    System.out.println("⚠️ Error loading vehicle " + error);
+                }
+            }
+            System.out.println("Fleet loaded from " + filename);
+        } catch (IOException e) {
+            System.out.println("Error reading CSV: " + e.getMessage());
+        }
+        if (m != null) m.record(FleetOperation.LOAD_CSV_PARALLEL, System.nanoTime() - start);
+    }
+
+    // Adds the chunk's vehicles and returns its errors, parse errors first. firstById, for a
+    // parallel merge, holds the row of each ID's first occurrence; the chunk starts at firstRow.
+    // A later row with the same ID is refused even when it gets here first.
+    private List<String> mergeChunk(MappedFleetLoader.Chunk chunk, long firstRow, Map<String, Long> firstById) {
+        List<String> errors = new ArrayList<>(chunk.getErrors());
+        List<Vehicle> vehicles = chunk.getVehicles();
+        for (int i = 0; i < vehicles.size(); i++) {
+            Vehicle v = vehicles.get(i);
+            try {
+                if (firstById != null && firstById.get(key(v.getId())) != firstRow + i) {
+                    throw new InvalidOperationException("Duplicate vehicle ID: " + v.getId());
+                }
+                addVehicle(v);
+            } catch (InvalidOperationException e) {
+                errors.add(v.getId() + ": " + e.getMessage());
+            }
+        }
+        return errors;
     }
 
 
+    // Programmatic counterpart of planRoute(double): up to query.getLimit() vehicles that meet
+    // the query's constraints, best first. Nothing is printed, asked or moved, and vehicles are
+    // read without their locks. Either ranking walks an index from the best end, the pace index
+    // by time and the efficiency index by fuel, and stops as soon as no vehicle further on could
+    // make the cut or, by time, meet the deadline.
+    public List<RouteOption> planRoute(RouteQuery query) {
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        RoutePlanner planner = new RoutePlanner(query);
+        if (query.getRanking() == RouteQuery.Ranking.FUEL) {
+            // vehicles that burn nothing go first: sail-driven ships, plus any custom type
+            // without a tank, which the registry keeps in otherTypes
+            for (EfficiencyIndex.Rank r : byEfficiency.nonPositive()) {
+                planner.offer(r.vehicle);
+            }
+            for (Vehicle v : otherTypes.values()) {
+                if (!(v instanceof FuelConsumable) && v.calculateFuelEfficiency() > 0) planner.offer(v);
+            }
+            // the cached efficiency is current (see changed()), so the first rank that cannot
+            // beat the options in hand ends the walk. It is the unloaded efficiency, though, so a
+            // query with cargo walks the whole index and lets offer() judge the loaded one.
+            boolean prune = query.getCargo() <= 0;
+            for (EfficiencyIndex.Rank r : byEfficiency.positiveDescending()) {
+                if (prune && planner.settled(query.getDistance() / r.efficiency)) break;
+                if (r.vehicle instanceof FuelConsumable) planner.offer(r.vehicle);
+            }
+        } else {
+            for (Vehicle v : byPace.unpaced()) {
+                planner.offer(v);
+            }
+            for (PaceIndex.Pace p : byPace.fastestFirst()) {
+                double hours = p.minHours(query.getDistance());
+                if (hours > query.getDeadlineHours() || planner.settled(hours)) break;
+                planner.offer(p.vehicle);
+            }
+        }
+        List<RouteOption> result = planner.result();
+        if (m != null) m.record(FleetOperation.PLAN_ROUTE, System.nanoTime() - start);
+        return result;
+    }
+
+    public void setDispatcher(Dispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    // Batch counterpart of planRoute(RouteQuery): places every trip on its own vehicle, keeping
+    // the objective's total low. Like planRoute, nothing is loaded or moved and vehicles are
+    // read without their locks.
+    public DispatchPlan dispatch(List<Trip> trips, RouteQuery.Ranking objective) {
+        FleetMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        DispatchPlan plan = dispatcher.plan(fleet.values(), trips, objective);
+        if (m != null) m.record(FleetOperation.DISPATCH, System.nanoTime() - start);
+        return plan;
+    }
+
     public void planRoute(double distance) {
         System.out.println("=== Route Planning for " + distance + " km ===");
 
         // 1. Display all vehicles with journey details
-        for (Vehicle v : fleet) {
+        for (Vehicle v : fleet.values()) {
             try {
                 double time = v.estimateJourneyTime(distance);
                 double efficiency = v.calculateFuelEfficiency();
@@ -334,13 +1238,7 @@ public class FleetManager {
         System.out.print("Enter the ID of the vehicle to perform this journey: ");
         String chosenId = sc1.nextLine();
 
-        Vehicle chosenVehicle = null;
-        for (Vehicle v : fleet) {
-            if (v.getId().equalsIgnoreCase(chosenId)) {
-                chosenVehicle = v;
-                break;
-            }
-        }
+        Vehicle chosenVehicle = findById(chosenId).orElse(null);
 
         if (chosenVehicle == null) {
             System.out.println("No vehicle with ID " + chosenId + " found!");
@@ -349,7 +1247,7 @@ public class FleetManager {
 
         // 3. Simulate the actual journey
         try {
-            chosenVehicle.move(distance); // updates mileage + fuel internally
+            moveVehicle(chosenVehicle.getId(), distance); // updates mileage + fuel internally
             // updates mileage + fuel internally
             System.out.println("Journey completed with vehicle ID: " + chosenVehicle.getId());
             chosenVehicle.displayInfo();
@@ -369,13 +1267,7 @@ public class FleetManager {
         System.out.print("Enter Vehicle ID: ");
         String id = sc.nextLine();
 
-        Vehicle chosen = null;
-        for (Vehicle v : fleet) {
-            if (v.getId().equalsIgnoreCase(id)) {
-                chosen = v;
-                break;
-            }
-        }
+        Vehicle chosen = findById(id).orElse(null);
 
         if (chosen == null) {
             System.out.println("No vehicle with ID " + id + " found!");
@@ -396,13 +1288,13 @@ public class FleetManager {
                     case 1 -> {
                         System.out.print("Enter cargo weight to load: ");
                         double w = sc.nextDouble();
-                        cargoVehicle.loadCargo(w);
+                        loadCargo(chosen.getId(), w);
                         System.out.println("Loaded successfully.");
                     }
                     case 2 -> {
                         System.out.print("Enter cargo weight to unload: ");
                         double w = sc.nextDouble();
-                        cargoVehicle.unloadCargo(w);
+                        unloadCargo(chosen.getId(), w);
                         System.out.println("Unloaded successfully.");
                     }
                     case 3 -> {
@@ -430,13 +1322,13 @@ public class FleetManager {
                     case 1 -> {
                         System.out.print("Enter number of passengers to board: ");
                         int p = sc.nextInt();
-                        passengerVehicle.boardPassengers(p);
+                        boardPassengers(chosen.getId(), p);
                         System.out.println("Passengers boarded.");
                     }
                     case 2 -> {
                         System.out.print("Enter number of passengers to disembark: ");
                         int p = sc.nextInt();
-                        passengerVehicle.disembarkPassengers(p);
+                        disembarkPassengers(chosen.getId(), p);
                         System.out.println("Passengers disembarked.");
                     }
                     case 3 -> {
@@ -455,26 +1347,13 @@ public class FleetManager {
         }
     }
     public List<Vehicle> searchByTypeName(String typeName) {
-        List<Vehicle> results = new ArrayList<>();
-
-        for (Vehicle v : fleet) {
-            if (typeName.equalsIgnoreCase("Car") && v instanceof Car) {
-                results.add(v);
-            } else if (typeName.equalsIgnoreCase("Truck") && v instanceof Truck) {
-                results.add(v);
-            } else if (typeName.equalsIgnoreCase("Bus") && v instanceof Bus) {
-                results.add(v);
-            } else if (typeName.equalsIgnoreCase("Airplane") && v instanceof Airplane) {
-                results.add(v);
-            } else if (typeName.equalsIgnoreCase("CargoShip") && v instanceof CargoShip) {
-                results.add(v);
-            }
+        VehicleType type = VehicleType.fromName(typeName);
+        if (type == null) {
+            return new ArrayList<>();
         }
-
-        return results;
+        List<Vehicle> result = new ArrayList<>(byType.get(type).values());
+        addInstances(result, otherTypes, type.getVehicleClass());
+        return result;
     }
 
-
-
-
 }
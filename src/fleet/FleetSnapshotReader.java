@@ -0,0 +1,216 @@
+package fleet;
+
+import vehicles.Vehicle;
+import vehicles.Car;
+import vehicles.Truck;
+import vehicles.Bus;
+import vehicles.Airplane;
+import vehicles.CargoShip;
+import vehicles.VehicleType;
+
+import exceptions.InvalidOperationException;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads the binary format described in FleetSnapshotWriter
+public class FleetSnapshotReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final VehicleType[] TYPES = VehicleType.values();
+    // Per-type tail widths, indexed by ordinal
+    private static final int[] TAIL_SIZES = {
+            2 * Integer.BYTES,                   // CAR
+            Integer.BYTES + Double.BYTES,        // TRUCK
+            2 * Integer.BYTES + Double.BYTES,    // BUS
+            2 * Double.BYTES + Integer.BYTES,    // AIRPLANE
+            1 + Double.BYTES                     // CARGO_SHIP
+    };
+
+    private final FileChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+    private final List<String> models = new ArrayList<>();
+    private final long count;
+    private final long journalGeneration;
+    private long read;
+    private String currentId = "";
+
+    public FleetSnapshotReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        buf.flip();
+        try {
+            require(FleetSnapshotWriter.HEADER_SIZE);
+            if (buf.getInt() != FleetSnapshotWriter.MAGIC) {
+                throw new IOException("Not a fleet snapshot: " + file);
+            }
+            short version = buf.getShort();
+            if (version != FleetSnapshotWriter.VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+            buf.getShort(); // flags, currently unused
+            this.count = buf.getLong();
+            this.journalGeneration = buf.getLong();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getJournalGeneration() {
+        return journalGeneration;
+    }
+
+    public String currentId() {
+        return currentId;
+    }
+
+    // Next vehicle, or null after the last record. A record whose values fail validation
+    // throws after it has been consumed, so the caller can report it and keep reading.
+    public Vehicle next() throws IOException, InvalidOperationException {
+        if (read == count) {
+            return null;
+        }
+        read++;
+        require(1 + 2);
+        int tag = buf.get() - 1;
+        if (tag < 0 || tag >= TYPES.length) {
+            throw new IOException("Corrupt snapshot: unknown type tag " + (tag + 1) + " in record " + read);
+        }
+        String id = string();
+        String model = model();
+        currentId = id;
+        require(stateSize(TYPES[tag]));
+        return restore(TYPES[tag], id, model, buf);
+    }
+
+    static int stateSize(VehicleType type) {
+        return 1 + 4 * Double.BYTES + TAIL_SIZES[type.ordinal()];
+    }
+
+    // Rebuilds a vehicle from the state block written by FleetSnapshotWriter.putState;
+    // shared with journal replay
+    static Vehicle restore(VehicleType type, String id, String model, ByteBuffer buf)
+            throws InvalidOperationException {
+        boolean scheduled = (buf.get() & FleetSnapshotWriter.MAINTENANCE_SCHEDULED) != 0;
+        double maxSpeed = buf.getDouble();
+        double mileage = buf.getDouble();
+        double maintance = buf.getDouble();
+        double fuel = buf.getDouble();
+
+        Vehicle v = switch (type) {
+            case CAR -> {
+                Car c = new Car(id, model, maxSpeed, buf.getInt());
+                c.restoreState(fuel, buf.getInt());
+                c.restoreMaintenanceScheduled(scheduled);
+                yield c;
+            }
+            case TRUCK -> {
+                Truck t = new Truck(id, model, maxSpeed, buf.getInt());
+                t.restoreState(fuel, buf.getDouble());
+                t.restoreMaintenanceScheduled(scheduled);
+                yield t;
+            }
+            case BUS -> {
+                Bus b = new Bus(id, model, maxSpeed, buf.getInt());
+                int passengers = buf.getInt();
+                b.restoreState(fuel, passengers, buf.getDouble());
+                b.restoreMaintenanceScheduled(scheduled);
+                yield b;
+            }
+            case AIRPLANE -> {
+                Airplane a = new Airplane(id, model, maxSpeed, buf.getDouble());
+                int passengers = buf.getInt();
+                a.restoreState(fuel, passengers, buf.getDouble());
+                a.restoreMaintenanceScheduled(scheduled);
+                yield a;
+            }
+            case CARGO_SHIP -> {
+                CargoShip s = new CargoShip(id, model, maxSpeed, buf.get() != 0);
+                s.restoreState(fuel, buf.getDouble());
+                s.restoreMaintenanceScheduled(scheduled);
+                yield s;
+            }
+        };
+        v.setCurrentMileage(mileage);
+        v.setmaintance(maintance);
+        return v;
+    }
+
+    // Streams a snapshot back into the CSV format; returns the number of rows written
+    public static long convertToCsv(Path snapshot, Path csv) throws IOException {
+        long[] converted = new long[1];
+        AtomicFiles.replace(csv, ch -> {
+            FleetCsvWriter writer = new FleetCsvWriter(ch);
+            try (FleetSnapshotReader reader = new FleetSnapshotReader(snapshot)) {
+                while (true) {
+                    try {
+                        Vehicle v = reader.next();
+                        if (v == null) break;
+                        writer.write(v);
+                        converted[0]++;
+                    } catch (InvalidOperationException e) {
+                        System.out.println("⚠️ Skipping vehicle " + reader.currentId() + ": " + e.getMessage());
+                    }
+                }
+            }
+            writer.flush();
+        });
+        return converted[0];
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private String model() throws IOException {
+        require(2);
+        int ref = buf.getShort() & 0xFFFF;
+        if (ref == FleetSnapshotWriter.NO_MODEL) {
+            return null;
+        }
+        if (ref < models.size()) {
+            return models.get(ref);
+        }
+        String model = string();
+        if (ref != FleetSnapshotWriter.INLINE_MODEL) {
+            if (ref != models.size()) {
+                throw new IOException("Corrupt snapshot: model reference " + ref + " in record " + read);
+            }
+            models.add(model);
+        }
+        return model;
+    }
+
+    private String string() throws IOException {
+        require(2);
+        int len = buf.getShort() & 0xFFFF;
+        require(len);
+        String s = new String(buf.array(), buf.position(), len, StandardCharsets.UTF_8);
+        buf.position(buf.position() + len);
+        return s;
+    }
+
+    // Makes at least n bytes available; n is always far below the buffer size
+    private void require(int n) throws IOException {
+        if (buf.remaining() >= n) return;
+        buf.compact();
+        while (buf.position() < n) {
+            if (channel.read(buf) < 0) {
+                throw new EOFException("Truncated snapshot");
+            }
+        }
+        buf.flip();
+    }
+}
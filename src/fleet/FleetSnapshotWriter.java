@@ -0,0 +1,188 @@
+package fleet;
+
+import vehicles.Vehicle;
+import vehicles.Car;
+import vehicles.Truck;
+import vehicles.Bus;
+import vehicles.Airplane;
+import vehicles.CargoShip;
+import vehicles.VehicleType;
+
+import exceptions.InvalidOperationException;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+// Binary fleet snapshot, version 1 (big-endian):
+//   header: magic "FLTS" (int), version (short), flags (short), record count (long),
+//           first journal generation not folded into the snapshot (long)
+//   record: type tag (byte, VehicleType ordinal + 1), id (u16 length + UTF-8),
+//           model (u16 table index; a new index is followed by its u16 length + UTF-8,
+//           0xFFFF marks an inline model once the table is full and 0xFFFE a vehicle
+//           without a model), then the state block:
+//           flags (byte; 1 = maintenance scheduled),
+//           maxSpeed, mileage, maintance, fuel (double), then per type:
+//           Car       wheels (int), passengers (int)
+//           Truck     wheels (int), cargo (double)
+//           Bus       wheels (int), passengers (int), cargo (double)
+//           Airplane  maxAltitude (double), passengers (int), cargo (double)
+//           CargoShip hasSail (byte), cargo (double)
+// Capacities are fixed per class and not stored.
+public class FleetSnapshotWriter {
+    public static final int MAGIC = 0x464C5453;
+    public static final short VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    private static final int COUNT_OFFSET = 8;
+
+    static final int INLINE_MODEL = 0xFFFF;
+    static final int NO_MODEL = 0xFFFE;
+
+    static final byte MAINTENANCE_SCHEDULED = 1;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    // Largest state block (Airplane/Bus) plus tag and length prefixes
+    static final int MAX_FIXED_RECORD = 64;
+
+    private final FileChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+    // Fleets reuse a handful of model names, so each is written once and referenced after
+    private final Map<String, Integer> models = new HashMap<>();
+    private long count;
+
+    public FleetSnapshotWriter(FileChannel channel) throws IOException {
+        this(channel, 0L);
+    }
+
+    // journalGeneration: journals from this generation on are replayed over the snapshot
+    public FleetSnapshotWriter(FileChannel channel, long journalGeneration) throws IOException {
+        this.channel = channel;
+        buf.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(0L).putLong(journalGeneration);
+    }
+
+    public static void writeAtomically(Path target, Iterable<Vehicle> vehicles) throws IOException {
+        AtomicFiles.replace(target, ch -> {
+            FleetSnapshotWriter writer = new FleetSnapshotWriter(ch);
+            for (Vehicle v : vehicles) {
+                writer.write(v);
+            }
+            writer.finish();
+        });
+    }
+
+    // Streams a CSV fleet file into a snapshot; returns the number of rows converted.
+    // Rows the CSV reader rejects are skipped.
+    public static long convertFromCsv(Path csv, Path snapshot) throws IOException {
+        long[] converted = new long[1];
+        AtomicFiles.replace(snapshot, ch -> {
+            FleetSnapshotWriter writer = new FleetSnapshotWriter(ch);
+            try (FleetCsvReader reader = new FleetCsvReader(new FileReader(csv.toFile()))) {
+                while (true) {
+                    try {
+                        Vehicle v = reader.next();
+                        if (v == null) break;
+                        writer.write(v);
+                    } catch (InvalidOperationException e) {
+                        System.out.println("⚠️ Skipping vehicle " + reader.currentId() + ": " + e.getMessage());
+                    }
+                }
+            }
+            converted[0] = writer.finish();
+        });
+        return converted[0];
+    }
+
+    public void write(Vehicle v) throws IOException {
+        VehicleType type = VehicleType.of(v);
+        if (type == null) {
+            return;
+        }
+        byte[] id = v.getId().getBytes(StandardCharsets.UTF_8);
+        Integer modelRef = v.getModel() == null ? (Integer) NO_MODEL : models.get(v.getModel());
+        byte[] model = null;
+        if (modelRef == null) {
+            model = v.getModel().getBytes(StandardCharsets.UTF_8);
+            modelRef = models.size() < NO_MODEL ? models.size() : INLINE_MODEL;
+        }
+        if (id.length > 0xFFFF || (model != null && model.length > 0xFFFF)) {
+            throw new IOException("ID/model too long for snapshot: " + v.getId());
+        }
+        ensure(MAX_FIXED_RECORD + id.length + (model == null ? 0 : model.length));
+
+        buf.put((byte) (type.ordinal() + 1));
+        buf.putShort((short) id.length).put(id);
+        buf.putShort((short) (int) modelRef);
+        if (model != null) {
+            buf.putShort((short) model.length).put(model);
+            if (modelRef != INLINE_MODEL) models.put(v.getModel(), modelRef);
+        }
+        putState(buf, type, v);
+        count++;
+    }
+
+    // Writes the fixed-width state block; shared with the journal's upsert entries
+    static void putState(ByteBuffer buf, VehicleType type, Vehicle v) {
+        // needsMaintenance() re-applies the mileage rule, so only the scheduled flag is kept
+        buf.put(OffHeapFleet.isMaintenanceScheduled(v, type) ? MAINTENANCE_SCHEDULED : 0);
+        buf.putDouble(v.getMaxSpeed());
+        buf.putDouble(v.getCurrentMileage());
+        buf.putDouble(v.maintance());
+        switch (type) {
+            case CAR -> {
+                Car c = (Car) v;
+                buf.putDouble(c.getFuelLevel());
+                buf.putInt(c.getNumberOfWheels()).putInt(c.getCurrentPassengers());
+            }
+            case TRUCK -> {
+                Truck t = (Truck) v;
+                buf.putDouble(t.getFuelLevel());
+                buf.putInt(t.getNumberOfWheels()).putDouble(t.getCurrentCargo());
+            }
+            case BUS -> {
+                Bus b = (Bus) v;
+                buf.putDouble(b.getFuelLevel());
+                buf.putInt(b.getNumberOfWheels()).putInt(b.getCurrentPassengers()).putDouble(b.getCurrentCargo());
+            }
+            case AIRPLANE -> {
+                Airplane a = (Airplane) v;
+                buf.putDouble(a.getFuelLevel());
+                buf.putDouble(a.getMaxAltitude()).putInt(a.getCurrentPassengers()).putDouble(a.getCurrentCargo());
+            }
+            case CARGO_SHIP -> {
+                CargoShip s = (CargoShip) v;
+                buf.putDouble(s.getFuelLevel());
+                buf.put((byte) (s.hasSail() ? 1 : 0)).putDouble(s.getCurrentCargo());
+            }
+        }
+    }
+
+    // Flushes the remaining records and patches the record count into the header
+    public long finish() throws IOException {
+        flush();
+        ByteBuffer countField = ByteBuffer.allocate(Long.BYTES).putLong(0, count);
+        channel.write(countField, COUNT_OFFSET);
+        return count;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buf.remaining() < bytes) {
+            flush();
+            if (buf.remaining() < bytes) {
+                throw new IOException("Snapshot record of " + bytes + " bytes exceeds the write buffer");
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+}
@@ -0,0 +1,94 @@
+package fleet;
+
+import vehicles.Vehicle;
+import vehicles.VehicleType;
+
+import java.util.List;
+
+// The fleet's running totals at one moment, as kept by FleetManager on every add, remove and
+// mutation. Unlike FleetAggregate it is read without visiting a single vehicle.
+public final class FleetStats {
+    private static final VehicleType[] TYPES = VehicleType.values();
+
+    private final long[] countByType;
+    private final long vehicleCount;
+    private final double totalEfficiency;
+    private final double totalMileage;
+    private final long fuelVehicleCount;
+    private final double totalFuel;
+    private final double totalCargo;
+    private final double totalCargoCapacity;
+    private final long totalPassengers;
+    private final long totalPassengerCapacity;
+    private final long maintenanceDueCount;
+
+    FleetStats(long[] countByType, long vehicleCount, double totalEfficiency, double totalMileage,
+               long fuelVehicleCount, double totalFuel, double totalCargo, double totalCargoCapacity,
+               long totalPassengers, long totalPassengerCapacity, long maintenanceDueCount) {
+        this.countByType = countByType;
+        this.vehicleCount = vehicleCount;
+        this.totalEfficiency = totalEfficiency;
+        this.totalMileage = totalMileage;
+        this.fuelVehicleCount = fuelVehicleCount;
+        this.totalFuel = totalFuel;
+        this.totalCargo = totalCargo;
+        this.totalCargoCapacity = totalCargoCapacity;
+        this.totalPassengers = totalPassengers;
+        this.totalPassengerCapacity = totalPassengerCapacity;
+        this.maintenanceDueCount = maintenanceDueCount;
+    }
+
+    public long getVehicleCount() {
+        return vehicleCount;
+    }
+
+    public long getCount(VehicleType type) {
+        return countByType[type.ordinal()];
+    }
+
+    public double getAverageEfficiency() {
+        return vehicleCount == 0 ? 0.0 : totalEfficiency / vehicleCount;
+    }
+
+    public double getTotalMileage() {
+        return totalMileage;
+    }
+
+    public long getFuelVehicleCount() {
+        return fuelVehicleCount;
+    }
+
+    public double getTotalFuel() {
+        return totalFuel;
+    }
+
+    public double getTotalCargo() {
+        return totalCargo;
+    }
+
+    public double getCargoUtilisation() {
+        return totalCargoCapacity == 0 ? 0.0 : totalCargo / totalCargoCapacity;
+    }
+
+    public long getTotalPassengers() {
+        return totalPassengers;
+    }
+
+    public double getPassengerUtilisation() {
+        return totalPassengerCapacity == 0 ? 0.0 : (double) totalPassengers / totalPassengerCapacity;
+    }
+
+    public long getMaintenanceDueCount() {
+        return maintenanceDueCount;
+    }
+
+    // The report's aggregate: these totals plus the vehicles now due, which the caller lists
+    FleetAggregate toAggregate(List<Vehicle> needingMaintenance) {
+        FleetAggregate a = new FleetAggregate();
+        for (VehicleType t : TYPES) a.addType(t.ordinal(), countByType[t.ordinal()]);
+        a.addTotals(vehicleCount, totalEfficiency, totalMileage, fuelVehicleCount, totalFuel,
+                totalCargo, totalCargoCapacity, totalPassengers, totalPassengerCapacity);
+        for (Vehicle v : needingMaintenance) a.addNeedingMaintenance(v);
+        return a;
+    }
+}
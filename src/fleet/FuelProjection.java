@@ -0,0 +1,140 @@
+package fleet;
+
+import vehicles.Vehicle;
+import vehicles.WaterVehicle;
+
+import interfaces.FuelConsumable;
+
+import java.util.Collection;
+
+// What-if fuel planning over a snapshot of the fleet's fuel burners: their efficiencies and
+// tank levels are copied into primitive arrays once, and every question after that is a
+// plain loop over them that touches no vehicle. Fuel needed for a distance is
+// distance / efficiency, exactly what consumeFuel deducts for every built-in type.
+// Sail-driven ships burn nothing and are left out.
+//
+// Per-vehicle results are indexed like getId(i). Fleet-wide totals for a single distance
+// come from the precomputed sum of 1 / efficiency, so a whole scenario costs one multiply;
+// they can differ from summing the per-vehicle figures in the last bits.
+public final class FuelProjection {
+    private final String[] ids;
+    private final double[] efficiency;
+    private final double[] fuelLevel;
+    private final int size;
+    private final double inverseEfficiencySum;
+
+    // Reads each vehicle without its lock, like aggregate(); a vehicle mutated meanwhile is
+    // captured before or after
+    FuelProjection(Collection<Vehicle> fuelConsumers) {
+        Vehicle[] vehicles = fuelConsumers.toArray(new Vehicle[0]);
+        int n = 0;
+        ids = new String[vehicles.length];
+        efficiency = new double[vehicles.length];
+        fuelLevel = new double[vehicles.length];
+        for (Vehicle v : vehicles) {
+            if (v instanceof WaterVehicle w && w.hasSail()) continue;
+            ids[n] = v.getId();
+            efficiency[n] = v.calculateFuelEfficiency();
+            fuelLevel[n] = ((FuelConsumable) v).getFuelLevel();
+            n++;
+        }
+        this.size = n;
+        double s0 = 0, s1 = 0;
+        int i = 0;
+        for (; i + 1 < n; i += 2) {
+            s0 += 1.0 / efficiency[i];
+            s1 += 1.0 / efficiency[i + 1];
+        }
+        if (i < n) s0 += 1.0 / efficiency[i];
+        inverseEfficiencySum = s0 + s1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getId(int i) {
+        return ids[checkIndex(i)];
+    }
+
+    public double getEfficiency(int i) {
+        return efficiency[checkIndex(i)];
+    }
+
+    public double getFuelLevel(int i) {
+        return fuelLevel[checkIndex(i)];
+    }
+
+    private int checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for " + size + " vehicles");
+        }
+        return i;
+    }
+
+    // Fuel each vehicle would burn travelling distance
+    public double[] fuelNeeded(double distance) {
+        double[] out = new double[size];
+        for (int i = 0; i < size; i++) {
+            out[i] = distance / efficiency[i];
+        }
+        return out;
+    }
+
+    // Fuel each vehicle would burn travelling its own distance, distances[i] for vehicle i
+    public double[] fuelNeeded(double[] distances) {
+        requireOnePerVehicle(distances);
+        double[] out = new double[size];
+        for (int i = 0; i < size; i++) {
+            out[i] = distances[i] / efficiency[i];
+        }
+        return out;
+    }
+
+    // Fleet-wide fuel if every vehicle travels distance
+    public double totalFuel(double distance) {
+        return distance * inverseEfficiencySum;
+    }
+
+    // Fleet-wide fuel for each scenario: totals[s] is every vehicle travelling distances[s]
+    public double[] totalFuel(double[] distances) {
+        double[] totals = new double[distances.length];
+        for (int s = 0; s < distances.length; s++) {
+            totals[s] = distances[s] * inverseEfficiencySum;
+        }
+        return totals;
+    }
+
+    // Fleet-wide fuel when vehicle i travels distances[i]
+    public double totalFuelPerVehicle(double[] distances) {
+        requireOnePerVehicle(distances);
+        // independent partial sums keep the divides from queueing behind one add chain
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < size; i += 4) {
+            s0 += distances[i] / efficiency[i];
+            s1 += distances[i + 1] / efficiency[i + 1];
+            s2 += distances[i + 2] / efficiency[i + 2];
+            s3 += distances[i + 3] / efficiency[i + 3];
+        }
+        for (; i < size; i++) {
+            s0 += distances[i] / efficiency[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    // Vehicles whose tank cannot cover distance, on which consumeFuel would fail
+    public int countShort(double distance) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += fuelLevel[i] < distance / efficiency[i] ? 1 : 0;
+        }
+        return count;
+    }
+
+    private void requireOnePerVehicle(double[] distances) {
+        if (distances.length != size) {
+            throw new IllegalArgumentException("Expected " + size + " distances, one per vehicle, got " + distances.length);
+        }
+    }
+}
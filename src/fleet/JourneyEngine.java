@@ -0,0 +1,126 @@
+package fleet;
+
+import vehicles.Vehicle;
+
+import interfaces.FuelConsumable;
+
+import exceptions.InvalidOperationException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Moves a fleet in parallel. The vehicle list is cut into contiguous chunks and each
+// vehicle belongs to exactly one chunk, so no vehicle is ever touched by two workers.
+public class JourneyEngine {
+    private static final int MIN_CHUNK = 1024;
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final Executor executor;
+    private final int parallelism;
+
+    public JourneyEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public JourneyEngine(ForkJoinPool pool) {
+        this(pool, pool.getParallelism());
+    }
+
+    public JourneyEngine(Executor executor, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive.");
+        }
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    public JourneyResult run(List<Vehicle> vehicles, double distance) {
+        return run(vehicles, distance, null);
+    }
+
+    public JourneyResult run(List<Vehicle> vehicles, double distance, Function<Vehicle, Lock> locks) {
+        return run(vehicles, distance, locks, null);
+    }
+
+    // locks, when given, supplies the lock that serializes each vehicle against other writers;
+    // afterMove, when given, sees each vehicle after its move attempt while that lock is held
+    public JourneyResult run(List<Vehicle> vehicles, double distance, Function<Vehicle, Lock> locks,
+                             Consumer<Vehicle> afterMove) {
+        Vehicle[] all = vehicles.toArray(new Vehicle[0]);
+        int n = all.length;
+        int chunks = Math.min(parallelism * CHUNKS_PER_WORKER, (n + MIN_CHUNK - 1) / MIN_CHUNK);
+        if (chunks <= 1) {
+            return runChunk(all, 0, n, distance, locks, afterMove).toResult();
+        }
+
+        List<CompletableFuture<Partial>> futures = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int from = (int) ((long) n * c / chunks);
+            int to = (int) ((long) n * (c + 1) / chunks);
+            futures.add(CompletableFuture.supplyAsync(() -> runChunk(all, from, to, distance, locks, afterMove), executor));
+        }
+
+        // Merge in chunk order so failures keep the fleet's iteration order
+        Partial total = new Partial();
+        for (CompletableFuture<Partial> f : futures) {
+            total.merge(f.join());
+        }
+        return total.toResult();
+    }
+
+    private static Partial runChunk(Vehicle[] vehicles, int from, int to, double distance,
+                                    Function<Vehicle, Lock> locks, Consumer<Vehicle> afterMove) {
+        Partial p = new Partial();
+        for (int i = from; i < to; i++) {
+            Vehicle v = vehicles[i];
+            Lock lock = locks == null ? null : locks.apply(v);
+            if (lock != null) lock.lock();
+            boolean moved = false;
+            try {
+                double before = v instanceof FuelConsumable f ? f.getFuelLevel() : 0.0;
+                v.move(distance);
+                moved = true;
+                if (v instanceof FuelConsumable f) {
+                    p.fuelBurned += before - f.getFuelLevel();
+                }
+            } catch (InvalidOperationException | RuntimeException e) {
+                p.failures.put(v.getId(), e.getMessage());
+            } finally {
+                try {
+                    if (afterMove != null) afterMove.accept(v);
+                    if (moved) p.successes++;
+                } catch (RuntimeException e) {
+                    // a failed follow-up is that vehicle's failure, not the whole run's
+                    p.failures.putIfAbsent(v.getId(), e.getMessage());
+                } finally {
+                    if (lock != null) lock.unlock();
+                }
+            }
+        }
+        return p;
+    }
+
+    private static final class Partial {
+        int successes;
+        double fuelBurned;
+        final Map<String, String> failures = new LinkedHashMap<>();
+
+        void merge(Partial other) {
+            successes += other.successes;
+            fuelBurned += other.fuelBurned;
+            failures.putAll(other.failures);
+        }
+
+        JourneyResult toResult() {
+            return new JourneyResult(successes, failures, fuelBurned);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package fleet;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class JourneyResult {
+    private final int successCount;
+    private final Map<String, String> failures;
+    private final double totalFuelBurned;
+
+    public JourneyResult(int successCount, Map<String, String> failures, double totalFuelBurned) {
+        this.successCount = successCount;
+        this.failures = Collections.unmodifiableMap(failures);
+        this.totalFuelBurned = totalFuelBurned;
+    }
+
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    public int getFailureCount() {
+        return failures.size();
+    }
+
+    // Vehicle ID -> reason the journey was refused
+    public Map<String, String> getFailures() {
+        return failures;
+    }
+
+    public double getTotalFuelBurned() {
+        return totalFuelBurned;
+    }
+
+    @Override
+    public String toString() {
+        return "JourneyResult{successes=" + successCount
+                + ", failures=" + failures.size()
+                + ", fuelBurned=" + totalFuelBurned + "}";
+    }
+}
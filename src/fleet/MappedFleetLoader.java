@@ -0,0 +1,192 @@
+package fleet;
+
+import vehicles.Vehicle;
+
+import exceptions.InvalidOperationException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+// Parallel loader for large fleet CSV files. The file is split into newline-aligned
+// byte ranges, each range is memory-mapped on its own (so multi-GB files never need a
+// single >2GB mapping) and parsed on a worker with the same row factory as FleetCsvReader.
+public class MappedFleetLoader {
+    private static final long MIN_CHUNK_BYTES = 1L << 22;
+    private static final long MAX_CHUNK_BYTES = 1L << 28;
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final int MAX_FIELDS = 16;
+
+    private final Executor executor;
+    private final int parallelism;
+
+    public MappedFleetLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public MappedFleetLoader(ForkJoinPool pool) {
+        this(pool, pool.getParallelism());
+    }
+
+    public MappedFleetLoader(Executor executor, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive.");
+        }
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    // Parsed rows of one byte range, in file order
+    public static class Chunk {
+        private final List<Vehicle> vehicles = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+
+        public List<Vehicle> getVehicles() {
+            return Collections.unmodifiableList(vehicles);
+        }
+
+        // "<id>: <reason>" for every row that could not be turned into a vehicle
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+    }
+
+    public List<Chunk> parse(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long target = Math.max(MIN_CHUNK_BYTES,
+                    Math.min(MAX_CHUNK_BYTES, size / ((long) parallelism * CHUNKS_PER_WORKER) + 1));
+
+            List<CompletableFuture<Chunk>> futures = new ArrayList<>();
+            long start = 0;
+            while (start < size) {
+                long end = start + target >= size ? size : nextLineStart(channel, start + target, size);
+                long from = start;
+                futures.add(CompletableFuture.supplyAsync(() -> parseRange(channel, from, end), executor));
+                start = end;
+            }
+
+            List<Chunk> chunks = new ArrayList<>(futures.size());
+            try {
+                for (CompletableFuture<Chunk> f : futures) {
+                    chunks.add(f.join());
+                }
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+                throw e;
+            }
+            return chunks;
+        }
+    }
+
+    private static long nextLineStart(FileChannel channel, long pos, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(8192);
+        while (pos < size) {
+            window.clear();
+            int n = channel.read(window, pos);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                if (window.get(i) == '\n') return pos + i + 1;
+            }
+            pos += n;
+        }
+        return size;
+    }
+
+    private static Chunk parseRange(FileChannel channel, long start, long end) {
+        MappedByteBuffer map;
+        try {
+            map = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new RangeParser(map).parse();
+    }
+
+    // Per-worker parsing state; the line buffer and field offsets are reused for every row
+    private static final class RangeParser {
+        private final MappedByteBuffer map;
+        private final Chunk chunk = new Chunk();
+        private final int[] starts = new int[MAX_FIELDS];
+        private final int[] ends = new int[MAX_FIELDS];
+        private char[] line = new char[256];
+        private int length;
+
+        RangeParser(MappedByteBuffer map) {
+            this.map = map;
+        }
+
+        // Single pass: bytes are widened into the line buffer while scanning for '\n'
+        Chunk parse() {
+            int n = map.limit();
+            int lineStart = 0;
+            boolean ascii = true;
+            length = 0;
+            for (int i = 0; i < n; i++) {
+                byte b = map.get(i);
+                if (b == '\n') {
+                    endLine(lineStart, ascii);
+                    lineStart = i + 1;
+                    ascii = true;
+                    length = 0;
+                    continue;
+                }
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, line.length * 2);
+                }
+                line[length++] = (char) b;
+                ascii &= b >= 0;
+            }
+            endLine(lineStart, ascii);
+            return chunk;
+        }
+
+        private void endLine(int offset, boolean ascii) {
+            if (length > 0 && line[length - 1] == '\r') length--;
+            if (length == 0) return;
+            if (!ascii) {
+                // non-ASCII bytes were widened as garbage; decode the row properly
+                byte[] raw = new byte[length];
+                map.get(offset, raw);
+                String s = new String(raw, StandardCharsets.UTF_8);
+                s.getChars(0, s.length(), line, 0);
+                length = s.length();
+            }
+            parseLine();
+        }
+
+        private void parseLine() {
+            int fields = 0;
+            int fieldStart = 0;
+            for (int i = 0; i <= length; i++) {
+                if (i == length || line[i] == ',') {
+                    if (fields < MAX_FIELDS) {
+                        starts[fields] = fieldStart;
+                        ends[fields] = i;
+                    }
+                    fields++;
+                    fieldStart = i + 1;
+                }
+            }
+            try {
+                chunk.vehicles.add(FleetCsvReader.createVehicle(line, starts, ends, fields));
+            } catch (InvalidOperationException | RuntimeException e) {
+                String id = fields > 1 ? new String(line, starts[1], ends[1] - starts[1]) : "";
+                chunk.errors.add(id + ": " + e.getMessage());
+            }
+        }
+    }
+}
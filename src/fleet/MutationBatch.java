@@ -0,0 +1,192 @@
+package fleet;
+
+import vehicles.Vehicle;
+
+import interfaces.FuelConsumable;
+import interfaces.CargoCarrier;
+import interfaces.PassengerCarrier;
+import interfaces.Maintainable;
+
+import exceptions.InsufficientFuelException;
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+
+import java.util.Arrays;
+
+// Vehicle mutations for FleetManager.apply, held as parallel arrays of vehicle ID, operation
+// code and amount. Codes are bytes so that a large batch, and the result array it gets back,
+// stay compact.
+public final class MutationBatch {
+    // Operation codes. The amount is km, liters, weight or a whole passenger count; MAINTAIN
+    // ignores it.
+    public static final byte MOVE = 0;
+    public static final byte REFUEL = 1;
+    public static final byte LOAD_CARGO = 2;
+    public static final byte UNLOAD_CARGO = 3;
+    public static final byte BOARD_PASSENGERS = 4;
+    public static final byte DISEMBARK_PASSENGERS = 5;
+    public static final byte MAINTAIN = 6;
+
+    // Result codes
+    public static final byte OK = 0;
+    // no vehicle has the ID
+    public static final byte NOT_FOUND = 1;
+    // the vehicle cannot do this at all, like carrying cargo in a car or refuelling a sail ship
+    public static final byte UNSUPPORTED = 2;
+    // negative or NaN, a refuel of nothing, or a fractional passenger count
+    public static final byte BAD_AMOUNT = 3;
+    public static final byte INSUFFICIENT_FUEL = 4;
+    // over cargo or seat capacity
+    public static final byte OVERLOAD = 5;
+    // more unloaded or disembarked than aboard, or any other refusal from the vehicle
+    public static final byte INVALID = 6;
+
+    private static final String[] OP_NAMES = {
+            "MOVE", "REFUEL", "LOAD_CARGO", "UNLOAD_CARGO", "BOARD_PASSENGERS", "DISEMBARK_PASSENGERS", "MAINTAIN"};
+    private static final String[] RESULT_NAMES = {
+            "OK", "NOT_FOUND", "UNSUPPORTED", "BAD_AMOUNT", "INSUFFICIENT_FUEL", "OVERLOAD", "INVALID"};
+
+    private String[] ids;
+    private byte[] ops;
+    private double[] amounts;
+    private int size;
+
+    public MutationBatch() {
+        this(16);
+    }
+
+    public MutationBatch(int capacity) {
+        ids = new String[Math.max(1, capacity)];
+        ops = new byte[ids.length];
+        amounts = new double[ids.length];
+    }
+
+    // Wraps the arrays as they are, without copying; operation i is (ids[i], ops[i], amounts[i])
+    public static MutationBatch of(String[] ids, byte[] ops, double[] amounts) {
+        if (ids.length != ops.length || ids.length != amounts.length) {
+            throw new IllegalArgumentException("IDs, operations and amounts must have the same length.");
+        }
+        for (byte op : ops) {
+            checkOp(op);
+        }
+        MutationBatch batch = new MutationBatch(0);
+        batch.ids = ids;
+        batch.ops = ops;
+        batch.amounts = amounts;
+        batch.size = ids.length;
+        return batch;
+    }
+
+    public MutationBatch add(String id, byte op, double amount) {
+        checkOp(op);
+        if (size == ids.length) {
+            int capacity = 2 * size;
+            ids = Arrays.copyOf(ids, capacity);
+            ops = Arrays.copyOf(ops, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+        ids[size] = id;
+        ops[size] = op;
+        amounts[size] = amount;
+        size++;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getId(int i) {
+        return ids[checkIndex(i)];
+    }
+
+    public byte getOp(int i) {
+        return ops[checkIndex(i)];
+    }
+
+    public double getAmount(int i) {
+        return amounts[checkIndex(i)];
+    }
+
+    public static String opName(byte op) {
+        return op >= 0 && op < OP_NAMES.length ? OP_NAMES[op] : "UNKNOWN(" + op + ")";
+    }
+
+    public static String resultName(byte result) {
+        return result >= 0 && result < RESULT_NAMES.length ? RESULT_NAMES[result] : "UNKNOWN(" + result + ")";
+    }
+
+    private static void checkOp(byte op) {
+        if (op < 0 || op >= OP_NAMES.length) {
+            throw new IllegalArgumentException("Unknown operation code: " + op);
+        }
+    }
+
+    private int checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for " + size + " operations");
+        }
+        return i;
+    }
+
+    // Applies operation i to v, which the caller has locked. The built-in vehicles' refusals are
+    // checked up front, so the common failures cost a comparison instead of a thrown exception;
+    // whatever a vehicle still throws is mapped to its code.
+    byte applyTo(Vehicle v, int i) {
+        byte op = ops[i];
+        double amount = amounts[i];
+        if (op != MAINTAIN && !(amount >= 0)) return BAD_AMOUNT;
+        try {
+            switch (op) {
+                case MOVE -> {
+                    if (RoutePlanner.burnsFuel(v)
+                            && ((FuelConsumable) v).getFuelLevel() < amount / v.calculateFuelEfficiency()) {
+                        return INSUFFICIENT_FUEL;
+                    }
+                    v.move(amount);
+                }
+                case REFUEL -> {
+                    if (!RoutePlanner.burnsFuel(v)) return UNSUPPORTED;
+                    if (amount == 0) return BAD_AMOUNT;
+                    ((FuelConsumable) v).refuel(amount);
+                }
+                case LOAD_CARGO -> {
+                    if (!(v instanceof CargoCarrier c)) return UNSUPPORTED;
+                    if (c.getCurrentCargo() + amount > c.getCargoCapacity()) return OVERLOAD;
+                    c.loadCargo(amount);
+                }
+                case UNLOAD_CARGO -> {
+                    if (!(v instanceof CargoCarrier c)) return UNSUPPORTED;
+                    if (amount > c.getCurrentCargo()) return INVALID;
+                    c.unloadCargo(amount);
+                }
+                case BOARD_PASSENGERS -> {
+                    if (!(v instanceof PassengerCarrier p)) return UNSUPPORTED;
+                    int count = (int) amount;
+                    if (count != amount) return BAD_AMOUNT;
+                    if (p.getCurrentPassengers() + count > p.getPassengerCapacity()) return OVERLOAD;
+                    p.boardPassengers(count);
+                }
+                case DISEMBARK_PASSENGERS -> {
+                    if (!(v instanceof PassengerCarrier p)) return UNSUPPORTED;
+                    int count = (int) amount;
+                    if (count != amount) return BAD_AMOUNT;
+                    if (count > p.getCurrentPassengers()) return INVALID;
+                    p.disembarkPassengers(count);
+                }
+                case MAINTAIN -> {
+                    if (!(v instanceof Maintainable m)) return UNSUPPORTED;
+                    if (m.needsMaintenance()) m.performMaintenance();
+                }
+                default -> {
+                    return UNSUPPORTED;
+                }
+            }
+            return OK;
+        } catch (OverloadException e) {
+            return OVERLOAD;
+        } catch (InvalidOperationException e) {
+            return e.getCause() instanceof InsufficientFuelException ? INSUFFICIENT_FUEL : INVALID;
+        }
+    }
+}
@@ -0,0 +1,654 @@
+package fleet;
+
+import vehicles.Vehicle;
+import vehicles.Car;
+import vehicles.Truck;
+import vehicles.Bus;
+import vehicles.Airplane;
+import vehicles.CargoShip;
+import vehicles.VehicleType;
+
+import interfaces.FuelConsumable;
+import interfaces.CargoCarrier;
+import interfaces.PassengerCarrier;
+import interfaces.Maintainable;
+
+import exceptions.InvalidOperationException;
+
+import events.FleetEventType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Fleet storage for very large fleets: each vehicle's state is a fixed-width slot in direct
+// (off-heap) buffers, and the ID bytes live in an off-heap arena. The GC sees a handful of
+// buffers and one int[] hash index instead of several objects per vehicle.
+//
+// Vehicles come back as flyweight views: subclasses of Car, Truck, ... that read and write
+// their slot through the vehicles' raw state accessors, so FuelConsumable, CargoCarrier and
+// the other capability APIs work on them unchanged. A view is only a cursor; it holds no
+// state and may be dropped or re-fetched freely. Views are not observed and print nothing, so
+// their mutations are silent. A view is tied to its vehicle, not just its slot: every slot carries a generation
+// that remove() bumps, and a view from before the removal throws IllegalStateException on
+// any use, even once the slot holds another vehicle. Removed IDs leave garbage in the ID
+// arena, which is compacted once the garbage outweighs the live IDs, so add/remove churn
+// does not grow it without bound. Like a non-concurrent FleetManager this class is for one
+// thread at a time.
+//
+// Slot layout (native byte order, 80 bytes):
+//   0 type (byte, VehicleType ordinal + 1, 0 = free)   1 flags (byte: sail, scheduled maintenance)
+//   2 ID length (u16)   4 passengers (int)   8 wheels (int)   12 key hash (int)
+//   16 maxSpeed   24 mileage   32 maintance   40 fuel   48 cargo   56 maxAltitude (double)
+//   64 ID arena offset (long)   72 model index (int)   76 generation (int)
+public class OffHeapFleet {
+    static final int SLOT_SIZE = 80;
+    private static final int TYPE = 0;
+    private static final int FLAGS = 1;
+    private static final int ID_LENGTH = 2;
+    private static final int PASSENGERS = 4;
+    private static final int WHEELS = 8;
+    private static final int KEY_HASH = 12;
+    private static final int MAX_SPEED = 16;
+    private static final int MILEAGE = 24;
+    private static final int MAINTANCE = 32;
+    private static final int FUEL = 40;
+    private static final int CARGO = 48;
+    private static final int ALTITUDE = 56;
+    private static final int ID_OFFSET = 64;
+    private static final int MODEL = 72;
+    private static final int GENERATION = 76;
+
+    private static final byte SAIL = 1;
+    private static final byte MAINTENANCE_FLAG = 2;
+
+    // 1M slots (80 MB) per slot buffer, 64 MB per arena buffer: both stay far below the
+    // 2 GB limit of a single ByteBuffer however large the fleet grows
+    private static final int SLOT_SHIFT = 20;
+    private static final int SLOTS_PER_CHUNK = 1 << SLOT_SHIFT;
+    private static final int ARENA_SHIFT = 26;
+    private static final int ARENA_CHUNK = 1 << ARENA_SHIFT;
+    // Below this much garbage compacting the arena is not worth a pass over the slots
+    private static final long ARENA_COMPACT_MIN = 1 << 20;
+
+    private static final VehicleType[] TYPES = VehicleType.values();
+
+    private ByteBuffer[] slotChunks = new ByteBuffer[4];
+    private ByteBuffer[] arenaChunks = new ByteBuffer[4];
+    private int slotCount;
+    private long arenaEnd;
+    // Arena bytes of removed IDs
+    private long arenaGarbage;
+    private int size;
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+
+    // Open addressing with linear probing: slot + 1, or 0 for an empty bucket
+    private int[] table;
+    private int mask;
+
+    // Model names repeat across the fleet, so slots store an index into this table
+    private final List<String> models = new ArrayList<>();
+    private final Map<String, Integer> modelIndex = new HashMap<>();
+
+    public OffHeapFleet() {
+        this(1024);
+    }
+
+    public OffHeapFleet(int expectedVehicles) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedVehicles) * 2 - 1) << 1;
+        table = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Direct memory held by slots and the ID arena
+    public long offHeapBytes() {
+        long total = 0;
+        for (ByteBuffer b : slotChunks) if (b != null) total += b.capacity();
+        for (ByteBuffer b : arenaChunks) if (b != null) total += b.capacity();
+        return total;
+    }
+
+    // Copies v's state into a new slot and returns the view onto it
+    public Vehicle add(Vehicle v) throws InvalidOperationException {
+        VehicleType type = VehicleType.of(v);
+        if (type == null) {
+            throw new InvalidOperationException("Unsupported vehicle type for off-heap storage: " + v.getClass().getSimpleName());
+        }
+        String k = key(v.getId());
+        int hash = hash(k);
+        if (find(k, hash) >= 0) {
+            throw new InvalidOperationException("Duplicate vehicle ID: " + v.getId());
+        }
+        byte[] id = v.getId().getBytes(StandardCharsets.UTF_8);
+        if (id.length > 0xFFFF) {
+            throw new InvalidOperationException("Vehicle ID too long: " + v.getId().length() + " chars");
+        }
+
+        int slot = allocateSlot();
+        ByteBuffer b = slotChunks[slot >>> SLOT_SHIFT];
+        int base = (slot & (SLOTS_PER_CHUNK - 1)) * SLOT_SIZE;
+        b.put(base + TYPE, (byte) (type.ordinal() + 1));
+        b.putShort(base + ID_LENGTH, (short) id.length);
+        b.putInt(base + KEY_HASH, hash);
+        b.putLong(base + ID_OFFSET, storeId(id));
+        b.putInt(base + MODEL, modelIndex(v.getModel()));
+        b.putDouble(base + MAX_SPEED, v.getMaxSpeed());
+        b.putDouble(base + MILEAGE, v.getCurrentMileage());
+        b.putDouble(base + MAINTANCE, v.maintance());
+        b.putDouble(base + FUEL, v instanceof FuelConsumable f ? f.getFuelLevel() : 0.0);
+        b.putDouble(base + CARGO, v instanceof CargoCarrier c ? c.getCurrentCargo() : 0.0);
+        b.putInt(base + PASSENGERS, v instanceof PassengerCarrier p ? p.getCurrentPassengers() : 0);
+        b.putInt(base + WHEELS, v instanceof vehicles.LandVehicle l ? l.getNumberOfWheels() : 0);
+        b.putDouble(base + ALTITUDE, v instanceof vehicles.AirVehicle a ? a.getMaxAltitude() : 0.0);
+        // needsMaintenance() is the flag or the mileage rule, and the view re-applies the rule,
+        // so only the flag itself is stored
+        byte flags = 0;
+        if (v instanceof vehicles.WaterVehicle w && w.hasSail()) flags |= SAIL;
+        if (isMaintenanceScheduled(v, type)) flags |= MAINTENANCE_FLAG;
+        b.put(base + FLAGS, flags);
+
+        insert(slot, hash);
+        size++;
+        return view(slot);
+    }
+
+    public Vehicle get(String id) {
+        if (id == null) return null;
+        String k = key(id);
+        int bucket = find(k, hash(k));
+        return bucket < 0 ? null : view(table[bucket] - 1);
+    }
+
+    public boolean remove(String id) {
+        if (id == null) return false;
+        String k = key(id);
+        int bucket = find(k, hash(k));
+        if (bucket < 0) {
+            return false;
+        }
+        int slot = table[bucket] - 1;
+        deleteBucket(bucket);
+        ByteBuffer b = slotBuffer(slot);
+        int base = base(slot);
+        b.put(base + TYPE, (byte) 0);
+        // the totals sum every slot, free ones included
+        b.putDouble(base + MILEAGE, 0.0);
+        b.putDouble(base + FUEL, 0.0);
+        b.putDouble(base + CARGO, 0.0);
+        // outstanding views of the removed vehicle stop working here
+        b.putInt(base + GENERATION, b.getInt(base + GENERATION) + 1);
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+        size--;
+        arenaGarbage += b.getShort(base + ID_LENGTH) & 0xFFFF;
+        if (arenaGarbage > ARENA_COMPACT_MIN && arenaGarbage * 2 > arenaEnd) {
+            compactArena();
+        }
+        return true;
+    }
+
+    static boolean isMaintenanceScheduled(Vehicle v, VehicleType type) {
+        return switch (type) {
+            case CAR -> ((Car) v).isMaintenanceScheduled();
+            case TRUCK -> ((Truck) v).isMaintenanceScheduled();
+            case BUS -> ((Bus) v).isMaintenanceScheduled();
+            case AIRPLANE -> ((Airplane) v).isMaintenanceScheduled();
+            case CARGO_SHIP -> ((CargoShip) v).isMaintenanceScheduled();
+        };
+    }
+
+    // Visits every vehicle. One view per type is re-pointed from slot to slot, so the
+    // vehicle passed to action must not be kept beyond the call.
+    public void forEach(Consumer<Vehicle> action) {
+        SlotView[] cursors = new SlotView[TYPES.length];
+        for (int slot = 0; slot < slotCount; slot++) {
+            int t = slotBuffer(slot).get(base(slot) + TYPE) - 1;
+            if (t < 0) continue;
+            SlotView cursor = cursors[t];
+            if (cursor == null) {
+                cursor = cursors[t] = newView(TYPES[t], slot);
+            } else {
+                cursor.moveTo(slot);
+            }
+            action.accept((Vehicle) cursor);
+        }
+    }
+
+    public double totalMileage() {
+        return sumOf(MILEAGE);
+    }
+
+    public double totalFuel() {
+        return sumOf(FUEL);
+    }
+
+    public double totalCargo() {
+        return sumOf(CARGO);
+    }
+
+    public int countByType(VehicleType type) {
+        byte code = (byte) (type.ordinal() + 1);
+        int count = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slotBuffer(slot).get(base(slot) + TYPE) == code) count++;
+        }
+        return count;
+    }
+
+    // Streams a fleet snapshot into the store; each decoded vehicle is garbage right after
+    // its state is copied. Returns the number of vehicles added.
+    public long loadSnapshot(Path snapshot) throws IOException {
+        long added = 0;
+        try (FleetSnapshotReader reader = new FleetSnapshotReader(snapshot)) {
+            while (true) {
+                try {
+                    Vehicle v = reader.next();
+                    if (v == null) break;
+                    add(v);
+                    added++;
+                } catch (InvalidOperationException e) {
+                    System.out.println("⚠️ Error loading vehicle " + reader.currentId() + ": " + e.getMessage());
+                }
+            }
+        }
+        return added;
+    }
+
+    // remove() zeroes the summed fields, so free slots add nothing and need no type check
+    private double sumOf(int field) {
+        double total = 0.0;
+        for (int c = 0; c * SLOTS_PER_CHUNK < slotCount; c++) {
+            ByteBuffer b = slotChunks[c];
+            int n = Math.min(SLOTS_PER_CHUNK, slotCount - c * SLOTS_PER_CHUNK);
+            for (int i = 0, off = field; i < n; i++, off += SLOT_SIZE) {
+                total += b.getDouble(off);
+            }
+        }
+        return total;
+    }
+
+    private static String key(String id) {
+        return id.toLowerCase(Locale.ROOT);
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private ByteBuffer slotBuffer(int slot) {
+        return slotChunks[slot >>> SLOT_SHIFT];
+    }
+
+    private static int base(int slot) {
+        return (slot & (SLOTS_PER_CHUNK - 1)) * SLOT_SIZE;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            int slot = freeSlots[--freeCount];
+            // a reused slot must not inherit the previous vehicle's values, but keeps counting
+            // generations so views of that vehicle stay dead
+            ByteBuffer b = slotBuffer(slot);
+            int base = base(slot);
+            int generation = b.getInt(base + GENERATION);
+            for (int i = 0; i < SLOT_SIZE; i += Long.BYTES) b.putLong(base + i, 0L);
+            b.putInt(base + GENERATION, generation);
+            return slot;
+        }
+        int slot = slotCount++;
+        int chunk = slot >>> SLOT_SHIFT;
+        if (chunk == slotChunks.length) slotChunks = Arrays.copyOf(slotChunks, chunk * 2);
+        if (slotChunks[chunk] == null) {
+            slotChunks[chunk] = ByteBuffer.allocateDirect(SLOTS_PER_CHUNK * SLOT_SIZE).order(ByteOrder.nativeOrder());
+        }
+        return slot;
+    }
+
+    // IDs never straddle two arena buffers
+    private long storeId(byte[] id) {
+        long offset = arenaEnd;
+        if ((offset & (ARENA_CHUNK - 1)) + id.length > ARENA_CHUNK) {
+            offset = ((offset >>> ARENA_SHIFT) + 1) << ARENA_SHIFT;
+        }
+        int chunk = (int) (offset >>> ARENA_SHIFT);
+        if (chunk >= arenaChunks.length) arenaChunks = Arrays.copyOf(arenaChunks, chunk * 2);
+        if (arenaChunks[chunk] == null) arenaChunks[chunk] = ByteBuffer.allocateDirect(ARENA_CHUNK);
+        arenaChunks[chunk].put((int) (offset & (ARENA_CHUNK - 1)), id);
+        arenaEnd = offset + id.length;
+        return offset;
+    }
+
+    private String readId(int slot) {
+        return new String(idBytes(arenaChunks, slot), StandardCharsets.UTF_8);
+    }
+
+    private byte[] idBytes(ByteBuffer[] arena, int slot) {
+        ByteBuffer b = slotBuffer(slot);
+        int base = base(slot);
+        int len = b.getShort(base + ID_LENGTH) & 0xFFFF;
+        long offset = b.getLong(base + ID_OFFSET);
+        byte[] bytes = new byte[len];
+        arena[(int) (offset >>> ARENA_SHIFT)].get((int) (offset & (ARENA_CHUNK - 1)), bytes);
+        return bytes;
+    }
+
+    // Copies the live IDs into fresh arena buffers in slot order; the old buffers, garbage
+    // included, go to the GC
+    private void compactArena() {
+        ByteBuffer[] old = arenaChunks;
+        arenaChunks = new ByteBuffer[4];
+        arenaEnd = 0;
+        arenaGarbage = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            ByteBuffer b = slotBuffer(slot);
+            int base = base(slot);
+            if (b.get(base + TYPE) != 0) {
+                b.putLong(base + ID_OFFSET, storeId(idBytes(old, slot)));
+            }
+        }
+    }
+
+    private int modelIndex(String model) {
+        Integer index = modelIndex.get(model);
+        if (index == null) {
+            index = models.size();
+            models.add(model);
+            modelIndex.put(model, index);
+        }
+        return index;
+    }
+
+    // Bucket holding key, or -1. IDs are decoded only when the stored hash matches.
+    private int find(String key, int hash) {
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            int e = table[i];
+            if (e == 0) return -1;
+            int slot = e - 1;
+            ByteBuffer b = slotBuffer(slot);
+            if (b.getInt(base(slot) + KEY_HASH) == hash && key(readId(slot)).equals(key)) return i;
+        }
+    }
+
+    private void insert(int slot, int hash) {
+        if ((size + 1) * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        int i = hash & mask;
+        while (table[i] != 0) i = (i + 1) & mask;
+        table[i] = slot + 1;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = table;
+        table = new int[capacity];
+        mask = capacity - 1;
+        for (int e : old) {
+            if (e == 0) continue;
+            int slot = e - 1;
+            int i = slotBuffer(slot).getInt(base(slot) + KEY_HASH) & mask;
+            while (table[i] != 0) i = (i + 1) & mask;
+            table[i] = e;
+        }
+    }
+
+    // Backward-shift deletion: later entries of the probe run move up, so no tombstones
+    private void deleteBucket(int hole) {
+        table[hole] = 0;
+        for (int j = (hole + 1) & mask; table[j] != 0; j = (j + 1) & mask) {
+            int slot = table[j] - 1;
+            int home = slotBuffer(slot).getInt(base(slot) + KEY_HASH) & mask;
+            // move j into the hole unless its home lies cyclically in (hole, j]
+            boolean stays = hole <= j ? (home > hole && home <= j) : (home > hole || home <= j);
+            if (!stays) {
+                table[hole] = table[j];
+                table[j] = 0;
+                hole = j;
+            }
+        }
+    }
+
+    private Vehicle view(int slot) {
+        return (Vehicle) newView(TYPES[slotBuffer(slot).get(base(slot) + TYPE) - 1], slot);
+    }
+
+    private SlotView newView(VehicleType type, int slot) {
+        try {
+            return switch (type) {
+                case CAR -> new CarView(this, slot);
+                case TRUCK -> new TruckView(this, slot);
+                case BUS -> new BusView(this, slot);
+                case AIRPLANE -> new AirplaneView(this, slot);
+                case CARGO_SHIP -> new CargoShipView(this, slot);
+            };
+        } catch (InvalidOperationException e) {
+            // the placeholder constructor arguments below are always valid
+            throw new IllegalStateException(e);
+        }
+    }
+
+    int generation(int slot) {
+        return slotBuffer(slot).getInt(base(slot) + GENERATION);
+    }
+
+    // Slot accessors shared by the views; generation is the one the view was made for
+    private ByteBuffer live(int slot, int generation) {
+        ByteBuffer b = slotBuffer(slot);
+        if (b.getInt(base(slot) + GENERATION) != generation) {
+            throw new IllegalStateException("Vehicle view used after its vehicle was removed from the off-heap fleet");
+        }
+        return b;
+    }
+
+    double getDouble(int slot, int generation, int field) {
+        return live(slot, generation).getDouble(base(slot) + field);
+    }
+
+    void putDouble(int slot, int generation, int field, double value) {
+        live(slot, generation).putDouble(base(slot) + field, value);
+    }
+
+    int getInt(int slot, int generation, int field) {
+        return live(slot, generation).getInt(base(slot) + field);
+    }
+
+    void putInt(int slot, int generation, int field, int value) {
+        live(slot, generation).putInt(base(slot) + field, value);
+    }
+
+    boolean getFlag(int slot, int generation, byte flag) {
+        return (live(slot, generation).get(base(slot) + FLAGS) & flag) != 0;
+    }
+
+    void putFlag(int slot, int generation, byte flag, boolean on) {
+        ByteBuffer b = live(slot, generation);
+        int at = base(slot) + FLAGS;
+        byte flags = b.get(at);
+        b.put(at, (byte) (on ? flags | flag : flags & ~flag));
+    }
+
+    String id(int slot, int generation) {
+        live(slot, generation);
+        return readId(slot);
+    }
+
+    String model(int slot, int generation) {
+        return models.get(live(slot, generation).getInt(base(slot) + MODEL));
+    }
+
+    private interface SlotView {
+        void moveTo(int slot);
+    }
+
+    // Placeholder arguments satisfy the vehicle constructors' checks; every value they set
+    // is shadowed by the overrides below
+    private static final String VIEW_ID = "off-heap";
+
+    private static final class CarView extends Car implements SlotView {
+        private final OffHeapFleet store;
+        private int slot;
+        private int generation;
+
+        CarView(OffHeapFleet store, int slot) throws InvalidOperationException {
+            super(VIEW_ID, null, 0, 4);
+            this.store = store;
+            this.slot = slot;
+            this.generation = store.generation(slot);
+        }
+
+        @Override public void moveTo(int slot) { this.slot = slot; this.generation = store.generation(slot); }
+        @Override protected void emit(FleetEventType type, double amount, double level) { }
+        @Override public String getId() { return store.id(slot, generation); }
+        @Override public String getModel() { return store.model(slot, generation); }
+        @Override public double getMaxSpeed() { return store.getDouble(slot, generation, MAX_SPEED); }
+        @Override public int getNumberOfWheels() { return store.getInt(slot, generation, WHEELS); }
+        @Override protected double readMileage() { return store.getDouble(slot, generation, MILEAGE); }
+        @Override protected void writeMileage(double mileage) { store.putDouble(slot, generation, MILEAGE, mileage); }
+        @Override protected double readMaintance() { return store.getDouble(slot, generation, MAINTANCE); }
+        @Override protected void writeMaintance(double maintance) { store.putDouble(slot, generation, MAINTANCE, maintance); }
+        @Override protected double readFuel() { return store.getDouble(slot, generation, FUEL); }
+        @Override protected void writeFuel(double fuel) { store.putDouble(slot, generation, FUEL, fuel); }
+        @Override protected int readPassengers() { return store.getInt(slot, generation, PASSENGERS); }
+        @Override protected void writePassengers(int passengers) { store.putInt(slot, generation, PASSENGERS, passengers); }
+        @Override protected boolean readMaintenanceFlag() { return store.getFlag(slot, generation, MAINTENANCE_FLAG); }
+        @Override protected void writeMaintenanceFlag(boolean due) { store.putFlag(slot, generation, MAINTENANCE_FLAG, due); }
+    }
+
+    private static final class TruckView extends Truck implements SlotView {
+        private final OffHeapFleet store;
+        private int slot;
+        private int generation;
+
+        TruckView(OffHeapFleet store, int slot) throws InvalidOperationException {
+            super(VIEW_ID, null, 0, 6);
+            this.store = store;
+            this.slot = slot;
+            this.generation = store.generation(slot);
+        }
+
+        @Override public void moveTo(int slot) { this.slot = slot; this.generation = store.generation(slot); }
+        @Override protected void emit(FleetEventType type, double amount, double level) { }
+        @Override public String getId() { return store.id(slot, generation); }
+        @Override public String getModel() { return store.model(slot, generation); }
+        @Override public double getMaxSpeed() { return store.getDouble(slot, generation, MAX_SPEED); }
+        @Override public int getNumberOfWheels() { return store.getInt(slot, generation, WHEELS); }
+        @Override protected double readMileage() { return store.getDouble(slot, generation, MILEAGE); }
+        @Override protected void writeMileage(double mileage) { store.putDouble(slot, generation, MILEAGE, mileage); }
+        @Override protected double readMaintance() { return store.getDouble(slot, generation, MAINTANCE); }
+        @Override protected void writeMaintance(double maintance) { store.putDouble(slot, generation, MAINTANCE, maintance); }
+        @Override protected double readFuel() { return store.getDouble(slot, generation, FUEL); }
+        @Override protected void writeFuel(double fuel) { store.putDouble(slot, generation, FUEL, fuel); }
+        @Override protected double readCargo() { return store.getDouble(slot, generation, CARGO); }
+        @Override protected void writeCargo(double cargo) { store.putDouble(slot, generation, CARGO, cargo); }
+        @Override protected boolean readMaintenanceFlag() { return store.getFlag(slot, generation, MAINTENANCE_FLAG); }
+        @Override protected void writeMaintenanceFlag(boolean due) { store.putFlag(slot, generation, MAINTENANCE_FLAG, due); }
+    }
+
+    private static final class BusView extends Bus implements SlotView {
+        private final OffHeapFleet store;
+        private int slot;
+        private int generation;
+
+        BusView(OffHeapFleet store, int slot) throws InvalidOperationException {
+            super(VIEW_ID, null, 0, 6);
+            this.store = store;
+            this.slot = slot;
+            this.generation = store.generation(slot);
+        }
+
+        @Override public void moveTo(int slot) { this.slot = slot; this.generation = store.generation(slot); }
+        @Override protected void emit(FleetEventType type, double amount, double level) { }
+        @Override public String getId() { return store.id(slot, generation); }
+        @Override public String getModel() { return store.model(slot, generation); }
+        @Override public double getMaxSpeed() { return store.getDouble(slot, generation, MAX_SPEED); }
+        @Override public int getNumberOfWheels() { return store.getInt(slot, generation, WHEELS); }
+        @Override protected double readMileage() { return store.getDouble(slot, generation, MILEAGE); }
+        @Override protected void writeMileage(double mileage) { store.putDouble(slot, generation, MILEAGE, mileage); }
+        @Override protected double readMaintance() { return store.getDouble(slot, generation, MAINTANCE); }
+        @Override protected void writeMaintance(double maintance) { store.putDouble(slot, generation, MAINTANCE, maintance); }
+        @Override protected double readFuel() { return store.getDouble(slot, generation, FUEL); }
+        @Override protected void writeFuel(double fuel) { store.putDouble(slot, generation, FUEL, fuel); }
+        @Override protected int readPassengers() { return store.getInt(slot, generation, PASSENGERS); }
+        @Override protected void writePassengers(int passengers) { store.putInt(slot, generation, PASSENGERS, passengers); }
+        @Override protected double readCargo() { return store.getDouble(slot, generation, CARGO); }
+        @Override protected void writeCargo(double cargo) { store.putDouble(slot, generation, CARGO, cargo); }
+        @Override protected boolean readMaintenanceFlag() { return store.getFlag(slot, generation, MAINTENANCE_FLAG); }
+        @Override protected void writeMaintenanceFlag(boolean due) { store.putFlag(slot, generation, MAINTENANCE_FLAG, due); }
+    }
+
+    private static final class AirplaneView extends Airplane implements SlotView {
+        private final OffHeapFleet store;
+        private int slot;
+        private int generation;
+
+        AirplaneView(OffHeapFleet store, int slot) throws InvalidOperationException {
+            super(VIEW_ID, null, 0, 1);
+            this.store = store;
+            this.slot = slot;
+            this.generation = store.generation(slot);
+        }
+
+        @Override public void moveTo(int slot) { this.slot = slot; this.generation = store.generation(slot); }
+        @Override protected void emit(FleetEventType type, double amount, double level) { }
+        @Override public String getId() { return store.id(slot, generation); }
+        @Override public String getModel() { return store.model(slot, generation); }
+        @Override public double getMaxSpeed() { return store.getDouble(slot, generation, MAX_SPEED); }
+        @Override public double getMaxAltitude() { return store.getDouble(slot, generation, ALTITUDE); }
+        @Override protected double readMileage() { return store.getDouble(slot, generation, MILEAGE); }
+        @Override protected void writeMileage(double mileage) { store.putDouble(slot, generation, MILEAGE, mileage); }
+        @Override protected double readMaintance() { return store.getDouble(slot, generation, MAINTANCE); }
+        @Override protected void writeMaintance(double maintance) { store.putDouble(slot, generation, MAINTANCE, maintance); }
+        @Override protected double readFuel() { return store.getDouble(slot, generation, FUEL); }
+        @Override protected void writeFuel(double fuel) { store.putDouble(slot, generation, FUEL, fuel); }
+        @Override protected int readPassengers() { return store.getInt(slot, generation, PASSENGERS); }
+        @Override protected void writePassengers(int passengers) { store.putInt(slot, generation, PASSENGERS, passengers); }
+        @Override protected double readCargo() { return store.getDouble(slot, generation, CARGO); }
+        @Override protected void writeCargo(double cargo) { store.putDouble(slot, generation, CARGO, cargo); }
+        @Override protected boolean readMaintenanceFlag() { return store.getFlag(slot, generation, MAINTENANCE_FLAG); }
+        @Override protected void writeMaintenanceFlag(boolean due) { store.putFlag(slot, generation, MAINTENANCE_FLAG, due); }
+    }
+
+    private static final class CargoShipView extends CargoShip implements SlotView {
+        private final OffHeapFleet store;
+        private int slot;
+        private int generation;
+
+        CargoShipView(OffHeapFleet store, int slot) throws InvalidOperationException {
+            super(VIEW_ID, null, 0, false);
+            this.store = store;
+            this.slot = slot;
+            this.generation = store.generation(slot);
+        }
+
+        @Override public void moveTo(int slot) { this.slot = slot; this.generation = store.generation(slot); }
+        @Override protected void emit(FleetEventType type, double amount, double level) { }
+        @Override public String getId() { return store.id(slot, generation); }
+        @Override public String getModel() { return store.model(slot, generation); }
+        @Override public double getMaxSpeed() { return store.getDouble(slot, generation, MAX_SPEED); }
+        @Override public boolean hasSail() { return store.getFlag(slot, generation, SAIL); }
+        @Override protected double readMileage() { return store.getDouble(slot, generation, MILEAGE); }
+        @Override protected void writeMileage(double mileage) { store.putDouble(slot, generation, MILEAGE, mileage); }
+        @Override protected double readMaintance() { return store.getDouble(slot, generation, MAINTANCE); }
+        @Override protected void writeMaintance(double maintance) { store.putDouble(slot, generation, MAINTANCE, maintance); }
+        @Override protected double readFuel() { return store.getDouble(slot, generation, FUEL); }
+        @Override protected void writeFuel(double fuel) { store.putDouble(slot, generation, FUEL, fuel); }
+        @Override protected double readCargo() { return store.getDouble(slot, generation, CARGO); }
+        @Override protected void writeCargo(double cargo) { store.putDouble(slot, generation, CARGO, cargo); }
+        @Override protected boolean readMaintenanceFlag() { return store.getFlag(slot, generation, MAINTENANCE_FLAG); }
+        @Override protected void writeMaintenanceFlag(boolean due) { store.putFlag(slot, generation, MAINTENANCE_FLAG, due); }
+    }
+}
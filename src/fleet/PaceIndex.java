@@ -0,0 +1,85 @@
+package fleet;
+
+import vehicles.Vehicle;
+import vehicles.Car;
+import vehicles.Truck;
+import vehicles.Bus;
+import vehicles.Airplane;
+import vehicles.CargoShip;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Registered vehicles by journey time per km, fastest first. A built-in vehicle estimates
+// distance / maxSpeed times a fixed factor for its medium, and its maxSpeed never changes, so
+// its pace is taken once at registration and ranks it correctly for every distance. Any other
+// class, subclasses included, may estimate differently; those are kept apart for callers to
+// check one by one.
+final class PaceIndex {
+    private static final Set<Class<?>> LINEAR = Set.of(Car.class, Truck.class, Bus.class, Airplane.class, CargoShip.class);
+
+    // distance * pace can round differently from estimateJourneyTime(distance) by a few ulps
+    private static final double ROUNDING_ALLOWANCE = 1e-12;
+
+    static final class Pace implements Comparable<Pace> {
+        final double hoursPerKm;
+        final long order;
+        final Vehicle vehicle;
+
+        Pace(double hoursPerKm, long order, Vehicle vehicle) {
+            this.hoursPerKm = hoursPerKm;
+            this.order = order;
+            this.vehicle = vehicle;
+        }
+
+        // Never above vehicle.estimateJourneyTime(distance)
+        double minHours(double distance) {
+            return distance * hoursPerKm * (1 - ROUNDING_ALLOWANCE);
+        }
+
+        @Override
+        public int compareTo(Pace other) {
+            int c = Double.compare(hoursPerKm, other.hoursPerKm);
+            return c != 0 ? c : Long.compare(order, other.order);
+        }
+    }
+
+    private final ConcurrentSkipListSet<Pace> paces = new ConcurrentSkipListSet<>();
+    private final Set<Vehicle> unpaced = ConcurrentHashMap.newKeySet();
+    private final AtomicLong nextOrder = new AtomicLong();
+
+    // Null for a vehicle kept among the unpaced
+    Pace add(Vehicle v) {
+        if (!LINEAR.contains(v.getClass())) {
+            unpaced.add(v);
+            return null;
+        }
+        Pace p = new Pace(v.estimateJourneyTime(1.0), nextOrder.getAndIncrement(), v);
+        paces.add(p);
+        return p;
+    }
+
+    void remove(Vehicle v, Pace p) {
+        if (p == null) {
+            unpaced.remove(v);
+        } else {
+            paces.remove(p);
+        }
+    }
+
+    void clear() {
+        paces.clear();
+        unpaced.clear();
+    }
+
+    Iterable<Pace> fastestFirst() {
+        return paces;
+    }
+
+    Collection<Vehicle> unpaced() {
+        return unpaced;
+    }
+}
@@ -0,0 +1,44 @@
+package fleet;
+
+import vehicles.Vehicle;
+
+// One feasible vehicle for a RouteQuery, with the figures it was ranked on
+public class RouteOption {
+    private final Vehicle vehicle;
+    private final double hours;
+    private final double fuelNeeded;
+    private final double fuelRemaining;
+    // Position in the planner's scan; the earlier of two equally good options ranks first
+    final long order;
+
+    RouteOption(Vehicle vehicle, double hours, double fuelNeeded, double fuelRemaining, long order) {
+        this.vehicle = vehicle;
+        this.hours = hours;
+        this.fuelNeeded = fuelNeeded;
+        this.fuelRemaining = fuelRemaining;
+        this.order = order;
+    }
+
+    public Vehicle getVehicle() {
+        return vehicle;
+    }
+
+    public double getHours() {
+        return hours;
+    }
+
+    public double getFuelNeeded() {
+        return fuelNeeded;
+    }
+
+    // Fuel left on arrival; NaN for a vehicle that carries no fuel
+    public double getFuelRemaining() {
+        return fuelRemaining;
+    }
+
+    @Override
+    public String toString() {
+        return vehicle.getClass().getSimpleName() + " (ID: " + vehicle.getId() + "): "
+                + hours + " h, " + fuelNeeded + " L";
+    }
+}
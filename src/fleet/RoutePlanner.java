@@ -0,0 +1,98 @@
+package fleet;
+
+import vehicles.Truck;
+import vehicles.Vehicle;
+import vehicles.WaterVehicle;
+
+import interfaces.FuelConsumable;
+import interfaces.CargoCarrier;
+import interfaces.PassengerCarrier;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Picks a RouteQuery's best vehicles out of whatever candidates it is offered. Only the best
+// limit() so far are kept, in a heap with the worst on top, so n candidates cost O(n log k);
+// a candidate that cannot beat the worst one kept is dropped before its constraints are checked.
+// Of two equally good candidates the one offered first wins.
+final class RoutePlanner {
+    private final double distance;
+    private final double deadline;
+    private final double fuelMargin;
+    private final double cargo;
+    private final int passengers;
+    private final boolean byFuel;
+    private final int limit;
+    private final PriorityQueue<RouteOption> kept;
+    private long offered;
+
+    RoutePlanner(RouteQuery query) {
+        distance = query.getDistance();
+        deadline = query.getDeadlineHours();
+        fuelMargin = query.getFuelMargin();
+        cargo = query.getCargo();
+        passengers = query.getPassengers();
+        byFuel = query.getRanking() == RouteQuery.Ranking.FUEL;
+        limit = query.getLimit();
+        Comparator<RouteOption> best = Comparator.comparingDouble(this::score);
+        kept = new PriorityQueue<>(Math.min(limit, 1024) + 1, best.thenComparingLong(o -> o.order).reversed());
+    }
+
+    void offer(Vehicle v) {
+        long order = offered++;
+        double hours;
+        double fuel;
+        boolean burnsFuel;
+        // the cheaper score check runs first; most candidates of a long scan stop there
+        if (byFuel) {
+            burnsFuel = burnsFuel(v);
+            fuel = burnsFuel ? distance / loadedEfficiency(v, cargo) : 0.0;
+            if (settled(fuel)) return;
+            hours = v.estimateJourneyTime(distance);
+        } else {
+            hours = v.estimateJourneyTime(distance);
+            if (settled(hours)) return;
+            burnsFuel = burnsFuel(v);
+            fuel = burnsFuel ? distance / loadedEfficiency(v, cargo) : 0.0;
+        }
+        if (hours > deadline) return;
+        double remaining = Double.NaN;
+        if (burnsFuel) {
+            remaining = ((FuelConsumable) v).getFuelLevel() - fuel;
+            if (!(remaining >= fuelMargin)) return;
+        }
+        if (cargo > 0 && !(v instanceof CargoCarrier c && c.getCargoCapacity() - c.getCurrentCargo() >= cargo)) return;
+        if (passengers > 0 && !(v instanceof PassengerCarrier p && p.getPassengerCapacity() - p.getCurrentPassengers() >= passengers)) return;
+        kept.add(new RouteOption(v, hours, fuel, remaining, order));
+        if (kept.size() > limit) kept.poll();
+    }
+
+    // Efficiency once cargo more kg are aboard; a truck burns more when loaded past half capacity
+    static double loadedEfficiency(Vehicle v, double cargo) {
+        if (cargo > 0 && v instanceof Truck t) return t.calculateFuelEfficiency(t.getCurrentCargo() + cargo);
+        return v.calculateFuelEfficiency();
+    }
+
+    static boolean burnsFuel(Vehicle v) {
+        return v instanceof FuelConsumable && !(v instanceof WaterVehicle w && w.hasSail());
+    }
+
+    // True once limit options are kept and a candidate scoring score, offered from now on,
+    // could not get in. A scan in score order can stop here.
+    boolean settled(double score) {
+        return kept.size() >= limit && score >= score(kept.peek());
+    }
+
+    // Best first
+    List<RouteOption> result() {
+        List<RouteOption> result = new ArrayList<>(kept);
+        result.sort(Comparator.comparingDouble(this::score).thenComparingLong(o -> o.order));
+        return result;
+    }
+
+    private double score(RouteOption o) {
+        return byFuel ? o.getFuelNeeded() : o.getHours();
+    }
+}
@@ -0,0 +1,103 @@
+package fleet;
+
+// A route planning request for FleetManager.planRoute: the distance plus any constraints a
+// vehicle must meet, how feasible vehicles are ranked, and how many to return. Setters chain;
+// a constraint that is never set does not apply.
+public class RouteQuery {
+    public enum Ranking {
+        // shortest estimateJourneyTime first
+        TIME,
+        // least fuel burned first; sail-driven ships burn none
+        FUEL
+    }
+
+    private final double distance;
+    private double deadlineHours = Double.POSITIVE_INFINITY;
+    private double fuelMargin = 0.0;
+    private double cargo = 0.0;
+    private int passengers = 0;
+    private Ranking ranking = Ranking.TIME;
+    private int limit = 10;
+
+    public RouteQuery(double distance) {
+        if (!(distance > 0)) {
+            throw new IllegalArgumentException("Distance must be positive.");
+        }
+        this.distance = distance;
+    }
+
+    // Latest acceptable journey time
+    public RouteQuery deadline(double hours) {
+        this.deadlineHours = hours;
+        return this;
+    }
+
+    // Fuel that must be left in the tank on arrival; vehicles that burn no fuel always pass
+    public RouteQuery fuelMargin(double liters) {
+        if (liters < 0) {
+            throw new IllegalArgumentException("Fuel margin cannot be negative.");
+        }
+        this.fuelMargin = liters;
+        return this;
+    }
+
+    // Free cargo capacity the vehicle must have on top of its current load
+    public RouteQuery cargo(double weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Cargo weight cannot be negative.");
+        }
+        this.cargo = weight;
+        return this;
+    }
+
+    // Free seats the vehicle must have on top of the passengers already aboard
+    public RouteQuery passengers(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Passenger count cannot be negative.");
+        }
+        this.passengers = count;
+        return this;
+    }
+
+    public RouteQuery rankBy(Ranking ranking) {
+        this.ranking = ranking;
+        return this;
+    }
+
+    // At most this many vehicles are returned
+    public RouteQuery limit(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+        this.limit = k;
+        return this;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public double getDeadlineHours() {
+        return deadlineHours;
+    }
+
+    public double getFuelMargin() {
+        return fuelMargin;
+    }
+
+    public double getCargo() {
+        return cargo;
+    }
+
+    public int getPassengers() {
+        return passengers;
+    }
+
+    public Ranking getRanking() {
+        return ranking;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
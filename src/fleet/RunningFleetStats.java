@@ -0,0 +1,302 @@
+package fleet;
+
+import vehicles.Vehicle;
+import vehicles.VehicleType;
+import vehicles.Car;
+import vehicles.Truck;
+import vehicles.Bus;
+import vehicles.Airplane;
+import vehicles.CargoShip;
+
+import interfaces.FuelConsumable;
+import interfaces.CargoCarrier;
+import interfaces.PassengerCarrier;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+
+// FleetManager's running totals, striped like its vehicle locks: a vehicle's contribution
+// lives in the cell of its lock stripe and is only changed with that lock held, so a cell
+// has one writer at a time. Readers copy a cell under its version number, seqlock style,
+// and retry if a write overlapped; they never block a writer or each other.
+//
+// Each vehicle remembers what it last contributed; a refresh adds the new values and takes
+// the old ones back out. The sums are compensated (Kahan-Babuska-Neumaier), so the running
+// total stays within rounding of a fresh sum however many refreshes it has seen.
+final class RunningFleetStats {
+    private static final int TYPES = VehicleType.values().length;
+
+    private static final byte FUEL = 1;
+    private static final byte CARGO = 2;
+    private static final byte PASSENGERS = 4;
+
+    // counts[]: one per type, then these
+    private static final int VEHICLES = TYPES;
+    private static final int FUEL_VEHICLES = TYPES + 1;
+    private static final int PASSENGER_TOTAL = TYPES + 2;
+    private static final int PASSENGER_CAPACITY = TYPES + 3;
+    private static final int COUNTS = TYPES + 4;
+
+    // sums[]: a (total, compensation) pair per field
+    private static final int EFFICIENCY = 0;
+    private static final int MILEAGE = 2;
+    private static final int FUEL_TOTAL = 4;
+    private static final int CARGO_TOTAL = 6;
+    private static final int CARGO_CAPACITY = 8;
+    private static final int SUMS = 10;
+
+    // What a registered vehicle last put into the totals; FleetManager's entries carry one
+    static class Contribution {
+        private VehicleType type;
+        private byte capabilities;
+        private double efficiency;
+        private double mileage;
+        private double fuel;
+        private double cargo;
+        private int passengers;
+    }
+
+    // version is odd while a write is in progress
+    private static final class Cell {
+        volatile long version;
+        final long[] counts = new long[COUNTS];
+        final double[] sums = new double[SUMS];
+
+        void beginWrite() {
+            VERSION.setOpaque(this, (long) VERSION.getOpaque(this) + 1);
+            VarHandle.storeStoreFence();
+        }
+
+        void endWrite() {
+            VERSION.setRelease(this, (long) VERSION.getOpaque(this) + 1);
+        }
+
+        // Copies the cell into n and s, consistently
+        void read(long[] n, double[] s) {
+            for (int spins = 0; ; spins++) {
+                long before = (long) VERSION.getAcquire(this);
+                if ((before & 1) == 0) {
+                    System.arraycopy(counts, 0, n, 0, COUNTS);
+                    System.arraycopy(sums, 0, s, 0, SUMS);
+                    VarHandle.loadLoadFence();
+                    if ((long) VERSION.getOpaque(this) == before) {
+                        return;
+                    }
+                }
+                // the writer may have been descheduled mid-write; let it finish
+                if (spins < 64) Thread.onSpinWait();
+                else Thread.yield();
+            }
+        }
+    }
+
+    private static final VarHandle VERSION;
+
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(Cell.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Cell[] cells;
+    private final Lock[] stripeLocks;
+
+    // stripeLocks: FleetManager's vehicle locks, one per cell
+    RunningFleetStats(Lock[] stripeLocks) {
+        this.stripeLocks = stripeLocks;
+        cells = new Cell[stripeLocks.length];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new Cell();
+        }
+    }
+
+    // add and remove also run from re-sorting and journal replay, which hold no vehicle
+    // locks, so they take the stripe themselves; the locks are reentrant
+    void add(int stripe, Vehicle v, Contribution c) {
+        c.type = VehicleType.exactly(v);
+        c.capabilities = capabilitiesOf(v);
+        read(v, c);
+        write(stripe, v, c, 1);
+    }
+
+    void remove(int stripe, Vehicle v, Contribution c) {
+        write(stripe, v, c, -1);
+    }
+
+    private void write(int stripe, Vehicle v, Contribution c, int sign) {
+        Lock lock = stripeLocks[stripe];
+        lock.lock();
+        try {
+            Cell cell = cells[stripe];
+            cell.beginWrite();
+            apply(cell, v, c, sign);
+            cell.endWrite();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the stripe's lock: it runs after every mutation, where the lock is held anyway
+    void update(int stripe, Vehicle v, Contribution c) {
+        double efficiency = v.calculateFuelEfficiency();
+        double mileage = v.getCurrentMileage();
+        double fuel = fuelOf(v, c);
+        double cargo = cargoOf(v, c);
+        int passengers = passengersOf(v, c);
+        Cell cell = cells[stripe];
+        cell.beginWrite();
+        try {
+            double[] s = cell.sums;
+            if (efficiency != c.efficiency) {
+                add(s, EFFICIENCY, efficiency);
+                add(s, EFFICIENCY, -c.efficiency);
+                c.efficiency = efficiency;
+            }
+            if (mileage != c.mileage) {
+                add(s, MILEAGE, mileage);
+                add(s, MILEAGE, -c.mileage);
+                c.mileage = mileage;
+            }
+            if (fuel != c.fuel) {
+                add(s, FUEL_TOTAL, fuel);
+                add(s, FUEL_TOTAL, -c.fuel);
+                c.fuel = fuel;
+            }
+            if (cargo != c.cargo) {
+                add(s, CARGO_TOTAL, cargo);
+                add(s, CARGO_TOTAL, -c.cargo);
+                c.cargo = cargo;
+            }
+            cell.counts[PASSENGER_TOTAL] += passengers - c.passengers;
+            c.passengers = passengers;
+        } finally {
+            cell.endWrite();
+        }
+    }
+
+    // Adds (sign 1) or takes back (sign -1) everything c records for v
+    private static void apply(Cell cell, Vehicle v, Contribution c, int sign) {
+        long[] n = cell.counts;
+        double[] s = cell.sums;
+        n[VEHICLES] += sign;
+        if (c.type != null) n[c.type.ordinal()] += sign;
+        if ((c.capabilities & FUEL) != 0) n[FUEL_VEHICLES] += sign;
+        if ((c.capabilities & CARGO) != 0) add(s, CARGO_CAPACITY, sign * ((CargoCarrier) v).getCargoCapacity());
+        if ((c.capabilities & PASSENGERS) != 0) n[PASSENGER_CAPACITY] += sign * ((PassengerCarrier) v).getPassengerCapacity();
+        n[PASSENGER_TOTAL] += sign * c.passengers;
+        add(s, EFFICIENCY, sign * c.efficiency);
+        add(s, MILEAGE, sign * c.mileage);
+        add(s, FUEL_TOTAL, sign * c.fuel);
+        add(s, CARGO_TOTAL, sign * c.cargo);
+    }
+
+    private static void read(Vehicle v, Contribution c) {
+        c.efficiency = v.calculateFuelEfficiency();
+        c.mileage = v.getCurrentMileage();
+        c.fuel = fuelOf(v, c);
+        c.cargo = cargoOf(v, c);
+        c.passengers = passengersOf(v, c);
+    }
+
+    // Known types are cast to their class, which the JIT checks against one word of the
+    // header; a cast to a capability interface searches the class's secondary supertypes
+    private static double fuelOf(Vehicle v, Contribution c) {
+        if (c.type == null) {
+            return (c.capabilities & FUEL) != 0 ? ((FuelConsumable) v).getFuelLevel() : 0.0;
+        }
+        return switch (c.type) {
+            case CAR -> ((Car) v).getFuelLevel();
+            case TRUCK -> ((Truck) v).getFuelLevel();
+            case BUS -> ((Bus) v).getFuelLevel();
+            case AIRPLANE -> ((Airplane) v).getFuelLevel();
+            case CARGO_SHIP -> ((CargoShip) v).getFuelLevel();
+        };
+    }
+
+    private static double cargoOf(Vehicle v, Contribution c) {
+        if (c.type == null) {
+            return (c.capabilities & CARGO) != 0 ? ((CargoCarrier) v).getCurrentCargo() : 0.0;
+        }
+        return switch (c.type) {
+            case CAR -> 0.0;
+            case TRUCK -> ((Truck) v).getCurrentCargo();
+            case BUS -> ((Bus) v).getCurrentCargo();
+            case AIRPLANE -> ((Airplane) v).getCurrentCargo();
+            case CARGO_SHIP -> ((CargoShip) v).getCurrentCargo();
+        };
+    }
+
+    private static int passengersOf(Vehicle v, Contribution c) {
+        if (c.type == null) {
+            return (c.capabilities & PASSENGERS) != 0 ? ((PassengerCarrier) v).getCurrentPassengers() : 0;
+        }
+        return switch (c.type) {
+            case CAR -> ((Car) v).getCurrentPassengers();
+            case BUS -> ((Bus) v).getCurrentPassengers();
+            case AIRPLANE -> ((Airplane) v).getCurrentPassengers();
+            case TRUCK, CARGO_SHIP -> 0;
+        };
+    }
+
+    private static byte capabilitiesOf(Vehicle v) {
+        int bits = 0;
+        if (v instanceof FuelConsumable) bits |= FUEL;
+        if (v instanceof CargoCarrier) bits |= CARGO;
+        if (v instanceof PassengerCarrier) bits |= PASSENGERS;
+        return (byte) bits;
+    }
+
+    // Compensated add of x into the (total, compensation) pair at s[i]
+    private static void add(double[] s, int i, double x) {
+        double sum = s[i];
+        double t = sum + x;
+        s[i + 1] += Math.abs(sum) >= Math.abs(x) ? (sum - t) + x : (x - t) + sum;
+        s[i] = t;
+    }
+
+    // Cost depends on the stripe count only. Each cell is read consistently, but cells are
+    // read one after another, so concurrent writers may leave some changes half-counted.
+    FleetStats snapshot(long maintenanceDue) {
+        long[] counts = new long[COUNTS];
+        double[] sums = new double[SUMS];
+        long[] n = new long[COUNTS];
+        double[] s = new double[SUMS];
+        for (Cell cell : cells) {
+            cell.read(n, s);
+            for (int i = 0; i < COUNTS; i++) counts[i] += n[i];
+            for (int i = 0; i < SUMS; i += 2) {
+                add(sums, i, s[i]);
+                add(sums, i, s[i + 1]);
+            }
+        }
+        return new FleetStats(Arrays.copyOf(counts, TYPES), counts[VEHICLES],
+                value(sums, EFFICIENCY), value(sums, MILEAGE), counts[FUEL_VEHICLES], value(sums, FUEL_TOTAL),
+                value(sums, CARGO_TOTAL), value(sums, CARGO_CAPACITY), counts[PASSENGER_TOTAL],
+                counts[PASSENGER_CAPACITY], maintenanceDue);
+    }
+
+    private static double value(double[] s, int i) {
+        return s[i] + s[i + 1];
+    }
+
+    // Not atomic with respect to concurrent writers, like the registry clear it goes with
+    void clear() {
+        for (int i = 0; i < cells.length; i++) {
+            Lock lock = stripeLocks[i];
+            lock.lock();
+            try {
+                Cell cell = cells[i];
+                cell.beginWrite();
+                Arrays.fill(cell.counts, 0);
+                Arrays.fill(cell.sums, 0.0);
+                cell.endWrite();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package fleet;
+
+// One trip for Dispatcher to place: how far, and the cargo and passengers it carries
+public class Trip {
+    private final double distance;
+    private final double cargo;
+    private final int passengers;
+
+    public Trip(double distance, double cargo, int passengers) {
+        if (!(distance > 0)) {
+            throw new IllegalArgumentException("Distance must be positive.");
+        }
+        if (cargo < 0) {
+            throw new IllegalArgumentException("Cargo weight cannot be negative.");
+        }
+        if (passengers < 0) {
+            throw new IllegalArgumentException("Passenger count cannot be negative.");
+        }
+        this.distance = distance;
+        this.cargo = cargo;
+        this.passengers = passengers;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public double getCargo() {
+        return cargo;
+    }
+
+    public int getPassengers() {
+        return passengers;
+    }
+
+    @Override
+    public String toString() {
+        return "Trip{distance=" + distance + ", cargo=" + cargo + ", passengers=" + passengers + "}";
+    }
+}
@@ -0,0 +1,15 @@
+package interfaces;
+
+import events.FleetEventType;
+import vehicles.Vehicle;
+
+// Receives the events vehicles and FleetManager emit. Arguments are primitives so emitting
+// never allocates; amount is the distance, liters, kg or passenger count the operation moved,
+// level the resulting fuel, cargo or passenger level (NaN when the event has neither).
+public interface FleetEventListener {
+    void onEvent(FleetEventType type, Vehicle vehicle, double amount, double level);
+
+    // Called by batching dispatchers after each run of events
+    default void onBatchEnd() {
+    }
+}
@@ -0,0 +1,15 @@
+package interfaces;
+
+import events.FleetEventType;
+import vehicles.Vehicle;
+
+public interface VehicleObserver {
+    // Hears everything and does nothing; keeps a vehicle that has no manager from printing
+    VehicleObserver QUIET = (vehicle, due) -> { };
+
+    void maintenanceStateChanged(Vehicle vehicle, boolean due);
+
+    // Mutation events, reported in place of console output; see FleetEventListener
+    default void vehicleEvent(Vehicle vehicle, FleetEventType type, double amount, double level) {
+    }
+}
@@ -1,29 +1,40 @@
 package main;
 
 import fleet.FleetManager;
+import events.ConsoleEventListener;
 import vehicles.*;
 import interfaces.FuelConsumable;
 import interfaces.Maintainable;
 import exceptions.InvalidOperationException;
+import server.FleetClient;
+import server.FleetServer;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.util.Scanner;
 import java.util.List;
 
+// The interactive menu by default. With --serve <port> it serves the demo fleet to concurrent
+// clients instead, which needs JDK 21 (see FleetServer); with --connect <port> it is a console
+// client of such a server.
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length == 2 && args[0].equals("--serve")) {
+            serve(Integer.parseInt(args[1]));
+            return;
+        }
+        if (args.length == 2 && args[0].equals("--connect")) {
+            connect(Integer.parseInt(args[1]));
+            return;
+        }
+
         FleetManager manager = new FleetManager();
+        // synchronous, so vehicle messages stay interleaved with the menu prompts
+        manager.setEventListener(new ConsoleEventListener());
         Scanner scanner = new Scanner(System.in);
 
-        // Demo: create sample vehicles and add to fleet
-        try {
-            manager.addVehicle(new Car("C001", "Toyota", 120.0, 4));
-            manager.addVehicle(new Truck("T001", "Volvo", 100.0, 6));
-            manager.addVehicle(new Bus("B001", "Mercedes", 80.0, 6));
-            manager.addVehicle(new Airplane("A001", "Boeing", 800.0, 10000.0));
-            manager.addVehicle(new CargoShip("S001", "Titanic", 50.0, true));
-        } catch (InvalidOperationException e) {
-            System.out.println("Error adding demo vehicles: " + e.getMessage());
-        }
+        addDemoVehicles(manager);
 
         boolean exit = false;
 
@@ -74,13 +85,12 @@ public class Main {
                         System.out.print("Enter fuel amount to refuel all: ");
                         double amount = scanner.nextDouble();
                         scanner.nextLine();
-                        for (Vehicle v : manager.searchByType(Vehicle.class)) {
-                            if (v instanceof FuelConsumable f) {
-                                try {
-                                    f.refuel(amount);
-                                } catch (InvalidOperationException e) {
-                                    System.out.println(e.getMessage());
-                                }
+                        // through the manager, so each refuel is locked and journaled
+                        for (Vehicle v : manager.searchByType(FuelConsumable.class)) {
+                            try {
+                                manager.refuel(v.getId(), amount);
+                            } catch (InvalidOperationException e) {
+                                System.out.println(e.getMessage());
                             }
                         }
                     }
@@ -163,6 +173,43 @@ public class Main {
         scanner.close();
     }
 
+    // Demo: create sample vehicles and add to fleet
+    private static void addDemoVehicles(FleetManager manager) {
+        try {
+            manager.addVehicle(new Car("C001", "Toyota", 120.0, 4));
+            manager.addVehicle(new Truck("T001", "Volvo", 100.0, 6));
+            manager.addVehicle(new Bus("B001", "Mercedes", 80.0, 6));
+            manager.addVehicle(new Airplane("A001", "Boeing", 800.0, 10000.0));
+            manager.addVehicle(new CargoShip("S001", "Titanic", 50.0, true));
+        } catch (InvalidOperationException e) {
+            System.out.println("Error adding demo vehicles: " + e.getMessage());
+        }
+    }
+
+    // Runs until Enter or end of input on the console
+    private static void serve(int port) throws IOException {
+        FleetManager manager = new FleetManager(true);
+        addDemoVehicles(manager);
+        try (FleetServer server = new FleetServer(manager, port)) {
+            System.out.println("Serving the fleet on 127.0.0.1:" + server.getPort() + ". Press Enter to stop.");
+            new BufferedReader(new InputStreamReader(System.in)).readLine();
+        }
+    }
+
+    // Sends each console line as a request and prints the answer, until QUIT or end of input
+    private static void connect(int port) throws IOException {
+        BufferedReader console = new BufferedReader(new InputStreamReader(System.in));
+        try (FleetClient client = new FleetClient(port)) {
+            System.out.println("Connected to 127.0.0.1:" + port + ". Commands: ADD, REMOVE, MOVE, REFUEL, LOAD, UNLOAD, "
+                    + "BOARD, DISEMBARK, MAINTAIN, REPORT, QUIT.");
+            String line;
+            while ((line = console.readLine()) != null && !line.trim().equalsIgnoreCase("QUIT")) {
+                if (line.isBlank()) continue;
+                System.out.println(client.send(line));
+            }
+        }
+    }
+
     private static void addVehicleCLI(FleetManager manager, Scanner scanner) {
         System.out.print("Enter vehicle type (Car/Truck/Bus/Airplane/CargoShip): ");
         String type = scanner.nextLine();
@@ -0,0 +1,295 @@
+package metrics;
+
+import vehicles.Vehicle;
+import vehicles.VehicleType;
+
+import exceptions.InsufficientFuelException;
+import exceptions.OverloadException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+// Latency histograms and failure counters per FleetManager operation and vehicle type, plus
+// named counters and gauges. Every table is allocated up front, so recording never locks or
+// allocates; only registering a counter or gauge touches a map.
+//
+// Exports are Prometheus' text exposition format (toText) and a JSON document (toJson). Both
+// are built from snapshots, so they are consistent per histogram but not across histograms.
+public class FleetMetrics {
+    public enum Failure {
+        INVALID_OPERATION, OVERLOAD, INSUFFICIENT_FUEL;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        // Vehicles report an empty tank from move() as an InvalidOperationException caused by
+        // the InsufficientFuelException
+        static Failure of(Throwable e) {
+            if (e instanceof OverloadException) return OVERLOAD;
+            if (e instanceof InsufficientFuelException || e.getCause() instanceof InsufficientFuelException) {
+                return INSUFFICIENT_FUEL;
+            }
+            return INVALID_OPERATION;
+        }
+    }
+
+    private static final FleetOperation[] OPERATIONS = FleetOperation.values();
+    private static final Failure[] FAILURES = Failure.values();
+    private static final VehicleType[] TYPES = VehicleType.values();
+    // Column for vehicles of no known type, and for IDs that were not found
+    private static final int OTHER = TYPES.length;
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    // [operation][type column]; bulk operations have a single column
+    private final LatencyHistogram[][] latency = new LatencyHistogram[OPERATIONS.length][];
+    // [operation][type column][failure]; bulk operations count their vehicles' failures too
+    private final LongAdder[][][] failures = new LongAdder[OPERATIONS.length][TYPES.length + 1][FAILURES.length];
+    private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, DoubleSupplier> gauges = new ConcurrentSkipListMap<>();
+
+    public FleetMetrics() {
+        for (FleetOperation op : OPERATIONS) {
+            LatencyHistogram[] columns = new LatencyHistogram[op.isPerVehicle() ? TYPES.length + 1 : 1];
+            for (int c = 0; c < columns.length; c++) columns[c] = new LatencyHistogram();
+            latency[op.ordinal()] = columns;
+            for (LongAdder[] column : failures[op.ordinal()]) {
+                for (int f = 0; f < column.length; f++) column[f] = new LongAdder();
+            }
+        }
+    }
+
+    // Bulk operations
+    public void record(FleetOperation op, long nanos) {
+        latency[op.ordinal()][0].record(nanos);
+    }
+
+    // Single-vehicle operations; v is null when the ID was not found
+    public void record(FleetOperation op, Vehicle v, long nanos) {
+        LatencyHistogram[] columns = latency[op.ordinal()];
+        columns[columns.length == 1 ? 0 : column(v)].record(nanos);
+    }
+
+    public void failed(FleetOperation op, Vehicle v, Throwable cause) {
+        failed(op, v, Failure.of(cause));
+    }
+
+    public void failed(FleetOperation op, Vehicle v, Failure failure) {
+        failures[op.ordinal()][column(v)][failure.ordinal()].increment();
+    }
+
+    // Created on first use; callers should keep the adder rather than look it up per event
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    // name may carry Prometheus labels, e.g. fleet_vehicles{type="car"}
+    public void gauge(String name, DoubleSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public LatencyHistogram.Snapshot latency(FleetOperation op) {
+        LatencyHistogram.Snapshot merged = LatencyHistogram.Snapshot.empty();
+        for (LatencyHistogram h : latency[op.ordinal()]) merged = merged.merge(h.snapshot());
+        return merged;
+    }
+
+    public LatencyHistogram.Snapshot latency(FleetOperation op, VehicleType type) {
+        LatencyHistogram[] columns = latency[op.ordinal()];
+        return columns.length == 1 ? LatencyHistogram.Snapshot.empty() : columns[type.ordinal()].snapshot();
+    }
+
+    public long failures(FleetOperation op, Failure failure) {
+        long total = 0;
+        for (LongAdder[] column : failures[op.ordinal()]) total += column[failure.ordinal()].sum();
+        return total;
+    }
+
+    private static int column(Vehicle v) {
+        VehicleType t = v == null ? null : VehicleType.of(v);
+        return t == null ? OTHER : t.ordinal();
+    }
+
+    private static String typeLabel(int column) {
+        return column == OTHER ? "other" : TYPES[column].getDisplayName().toLowerCase(Locale.ROOT);
+    }
+
+    // Only series that have seen data are exported
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# TYPE fleet_operation_latency_seconds summary\n");
+        for (FleetOperation op : OPERATIONS) {
+            LatencyHistogram[] columns = latency[op.ordinal()];
+            for (int c = 0; c < columns.length; c++) {
+                LatencyHistogram.Snapshot s = columns[c].snapshot();
+                if (s.getCount() == 0) continue;
+                String labels = labels(op, columns.length == 1 ? null : typeLabel(c));
+                for (double q : QUANTILES) {
+                    sb.append("fleet_operation_latency_seconds{").append(labels).append(",quantile=\"").append(q).append("\"} ")
+                            .append(seconds(s.percentileNanos(q * 100))).append('\n');
+                }
+                sb.append("fleet_operation_latency_seconds_sum{").append(labels).append("} ").append(seconds(s.getSumNanos())).append('\n');
+                sb.append("fleet_operation_latency_seconds_count{").append(labels).append("} ").append(s.getCount()).append('\n');
+            }
+        }
+        sb.append("# TYPE fleet_operation_latency_max_seconds gauge\n");
+        for (FleetOperation op : OPERATIONS) {
+            LatencyHistogram[] columns = latency[op.ordinal()];
+            for (int c = 0; c < columns.length; c++) {
+                LatencyHistogram.Snapshot s = columns[c].snapshot();
+                if (s.getCount() == 0) continue;
+                sb.append("fleet_operation_latency_max_seconds{").append(labels(op, columns.length == 1 ? null : typeLabel(c)))
+                        .append("} ").append(seconds(s.getMaxNanos())).append('\n');
+            }
+        }
+        sb.append("# TYPE fleet_operation_failures_total counter\n");
+        for (FleetOperation op : OPERATIONS) {
+            LongAdder[][] columns = failures[op.ordinal()];
+            for (int c = 0; c < columns.length; c++) {
+                for (Failure f : FAILURES) {
+                    long n = columns[c][f.ordinal()].sum();
+                    if (n == 0) continue;
+                    sb.append("fleet_operation_failures_total{").append(labels(op, typeLabel(c)))
+                            .append(",reason=\"").append(f.label()).append("\"} ").append(n).append('\n');
+                }
+            }
+        }
+        String lastType = null;
+        for (Map.Entry<String, LongAdder> e : counters.entrySet()) {
+            lastType = typeLine(sb, e.getKey(), "counter", lastType);
+            sb.append(e.getKey()).append(' ').append(e.getValue().sum()).append('\n');
+        }
+        lastType = null;
+        for (Map.Entry<String, DoubleSupplier> e : gauges.entrySet()) {
+            lastType = typeLine(sb, e.getKey(), "gauge", lastType);
+            sb.append(e.getKey()).append(' ').append(e.getValue().getAsDouble()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"operations\": [");
+        boolean first = true;
+        for (FleetOperation op : OPERATIONS) {
+            LatencyHistogram[] columns = latency[op.ordinal()];
+            LatencyHistogram.Snapshot all = LatencyHistogram.Snapshot.empty();
+            for (int c = 0; c < columns.length; c++) {
+                LatencyHistogram.Snapshot s = columns[c].snapshot();
+                all = all.merge(s);
+                if (columns.length > 1 && s.getCount() > 0) {
+                    first = jsonOperation(sb, first, op, typeLabel(c), s, failureCounts(op, c));
+                }
+            }
+            if (all.getCount() > 0) {
+                long[] total = new long[FAILURES.length];
+                for (Failure f : FAILURES) total[f.ordinal()] = failures(op, f);
+                first = jsonOperation(sb, first, op, "all", all, total);
+            }
+        }
+        sb.append("\n  ],\n  \"counters\": {");
+        first = true;
+        for (Map.Entry<String, LongAdder> e : counters.entrySet()) {
+            sb.append(first ? "\n    " : ",\n    ").append(quote(e.getKey())).append(": ").append(e.getValue().sum());
+            first = false;
+        }
+        sb.append("\n  },\n  \"gauges\": {");
+        first = true;
+        for (Map.Entry<String, DoubleSupplier> e : gauges.entrySet()) {
+            sb.append(first ? "\n    " : ",\n    ").append(quote(e.getKey())).append(": ").append(jsonNumber(e.getValue().getAsDouble()));
+            first = false;
+        }
+        sb.append("\n  }\n}\n");
+        return sb.toString();
+    }
+
+    // JSON for a .json file name, Prometheus text otherwise. Written to a temp file and moved
+    // into place, so a scraper never reads half an export.
+    public void writeTo(Path file) throws IOException {
+        String content = file.getFileName().toString().endsWith(".json") ? toJson() : toText();
+        Path dir = file.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(tmp, content, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static boolean jsonOperation(StringBuilder sb, boolean first, FleetOperation op, String type,
+                                         LatencyHistogram.Snapshot s, long[] failures) {
+        sb.append(first ? "\n    {" : ",\n    {");
+        sb.append("\"operation\": ").append(quote(op.getMethodName()));
+        sb.append(", \"type\": ").append(quote(type));
+        sb.append(", \"count\": ").append(s.getCount());
+        sb.append(", \"meanUs\": ").append(jsonNumber(s.getMeanNanos() / 1e3));
+        sb.append(", \"p50Us\": ").append(jsonNumber(s.percentileNanos(50) / 1e3));
+        sb.append(", \"p90Us\": ").append(jsonNumber(s.percentileNanos(90) / 1e3));
+        sb.append(", \"p99Us\": ").append(jsonNumber(s.percentileNanos(99) / 1e3));
+        sb.append(", \"p999Us\": ").append(jsonNumber(s.percentileNanos(99.9) / 1e3));
+        sb.append(", \"maxUs\": ").append(jsonNumber(s.getMaxNanos() / 1e3));
+        sb.append(", \"failures\": {");
+        for (Failure f : FAILURES) {
+            if (f.ordinal() > 0) sb.append(", ");
+            sb.append(quote(f.label())).append(": ").append(failures[f.ordinal()]);
+        }
+        sb.append("}}");
+        return false;
+    }
+
+    private long[] failureCounts(FleetOperation op, int column) {
+        long[] counts = new long[FAILURES.length];
+        for (Failure f : FAILURES) counts[f.ordinal()] = failures[op.ordinal()][column][f.ordinal()].sum();
+        return counts;
+    }
+
+    private static String labels(FleetOperation op, String type) {
+        String labels = "operation=\"" + op.getMethodName() + "\"";
+        return type == null ? labels : labels + ",type=\"" + type + "\"";
+    }
+
+    // One TYPE line per metric family; names arrive sorted, so a family's series are adjacent
+    private static String typeLine(StringBuilder sb, String name, String kind, String lastType) {
+        int brace = name.indexOf('{');
+        String family = brace < 0 ? name : name.substring(0, brace);
+        if (!family.equals(lastType)) {
+            sb.append("# TYPE ").append(family).append(' ').append(kind).append('\n');
+        }
+        return family;
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    // JSON has no NaN or Infinity
+    private static String jsonNumber(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+
+    private static String quote(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
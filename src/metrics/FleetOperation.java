@@ -0,0 +1,48 @@
+package metrics;
+
+// FleetManager operations that are timed. Single-vehicle operations are also broken down
+// by the vehicle's type; bulk operations are timed as a whole.
+public enum FleetOperation {
+    ADD_VEHICLE("addVehicle", true),
+    REMOVE_VEHICLE("removeVehicle", true),
+    MOVE_VEHICLE("moveVehicle", true),
+    REFUEL("refuel", true),
+    LOAD_CARGO("loadCargo", true),
+    UNLOAD_CARGO("unloadCargo", true),
+    BOARD_PASSENGERS("boardPassengers", true),
+    DISEMBARK_PASSENGERS("disembarkPassengers", true),
+    MAINTAIN_ONE("maintainone", true),
+    START_ALL_JOURNEYS("startAllJourneys", false),
+    RUN_JOURNEYS("runJourneys", false),
+    TOTAL_FUEL_CONSUMPTION("getTotalFuelConsumption", false),
+    PROJECT_FUEL("projectFuel", false),
+    MAINTAIN_ALL("maintainAll", false),
+    GENERATE_REPORT("generateReport", false),
+    SEARCH_BY_TYPE("searchByType", false),
+    SORT_BY_EFFICIENCY("sortFleetByEfficiency", false),
+    PLAN_ROUTE("planRoute", false),
+    DISPATCH("dispatch", false),
+    APPLY_BATCH("apply", false),
+    SAVE_CSV("saveToFile", false),
+    LOAD_CSV("loadFromFile", false),
+    LOAD_CSV_PARALLEL("loadFromFileParallel", false),
+    SAVE_SNAPSHOT("saveSnapshot", false),
+    LOAD_SNAPSHOT("loadSnapshot", false),
+    COMPACT_JOURNAL("compactJournal", false);
+
+    private final String methodName;
+    private final boolean perVehicle;
+
+    FleetOperation(String methodName, boolean perVehicle) {
+        this.methodName = methodName;
+        this.perVehicle = perVehicle;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public boolean isPerVehicle() {
+        return perVehicle;
+    }
+}
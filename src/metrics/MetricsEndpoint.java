@@ -0,0 +1,54 @@
+package metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+// Serves a FleetMetrics export over HTTP for scrapers: /metrics in Prometheus text format and
+// /metrics.json as JSON. Binds to the loopback interface unless given another address.
+public class MetricsEndpoint implements Closeable {
+    private final HttpServer server;
+
+    public MetricsEndpoint(FleetMetrics metrics, int port) throws IOException {
+        this(metrics, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    public MetricsEndpoint(FleetMetrics metrics, InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, 0);
+        server.createContext("/metrics", exchange -> respond(exchange, "text/plain; version=0.0.4; charset=utf-8", metrics::toText));
+        server.createContext("/metrics.json", exchange -> respond(exchange, "application/json", metrics::toJson));
+        server.start();
+    }
+
+    // The bound port, for endpoints created on port 0
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, Supplier<String> body) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] bytes = body.get().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
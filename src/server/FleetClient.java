@@ -0,0 +1,75 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+// A blocking connection to a FleetServer: one request out, its whole answer back. Not for use
+// by several threads at once.
+public class FleetClient implements Closeable {
+    private final Socket socket;
+    private final BufferedReader in;
+    private final BufferedWriter out;
+
+    public FleetClient(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    public FleetClient(InetSocketAddress address) throws IOException {
+        socket = new Socket();
+        socket.connect(address);
+        socket.setTcpNoDelay(true);
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    // Sends one request line and returns the answer, several lines for REPORT
+    public String send(String request) throws IOException {
+        if (request.indexOf('\n') >= 0 || request.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("A request is a single line.");
+        }
+        out.write(request);
+        out.write('\n');
+        out.flush();
+        String first = in.readLine();
+        if (first == null) throw new EOFException("The server closed the connection.");
+        int more = bodyLines(first);
+        if (more == 0) return first;
+        StringBuilder answer = new StringBuilder(first);
+        for (int i = 0; i < more; i++) {
+            String line = in.readLine();
+            if (line == null) throw new EOFException("The server closed the connection mid-answer.");
+            answer.append('\n').append(line);
+        }
+        return answer.toString();
+    }
+
+    // "OK <n>" announces n more lines
+    private static int bodyLines(String first) {
+        if (!first.startsWith(FleetProtocol.OK + " ")) return 0;
+        try {
+            return Integer.parseInt(first.substring(FleetProtocol.OK.length() + 1).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.write("QUIT\n");
+            out.flush();
+        } catch (IOException e) {
+            // already gone
+        }
+        socket.close();
+    }
+}
@@ -0,0 +1,185 @@
+package server;
+
+import fleet.FleetManager;
+import fleet.MutationBatch;
+import vehicles.*;
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+// The server's line protocol. A request is one line of words separated by spaces, command first
+// and in any case. The answer is one line: "OK", or "ERR <kind> <message>" with kind one of
+// BAD_REQUEST, INVALID (InvalidOperationException, unknown IDs included), OVERLOAD
+// (OverloadException) or INTERNAL. REPORT answers "OK <n>" followed by the report's n lines.
+// BATCH hands its operations to FleetManager.apply in one go and answers "OK" followed by one
+// MutationBatch result name per operation, so a failed operation is an answer, not an ERR.
+//
+//   ADD <type> <id> <maxSpeed> [<maxAltitude> | <hasSail>] <model...>
+//       the extra word is for Airplane and CargoShip only; the model is the rest of the line
+//   REMOVE <id>
+//   MOVE <id> <km>                REFUEL <id> <liters>
+//   LOAD <id> <weight>            UNLOAD <id> <weight>
+//   BOARD <id> <count>            DISEMBARK <id> <count>
+//   MAINTAIN <id>
+//   BATCH <op> <id> [<amount>] [<op> <id> [<amount>] ...]
+//       op is MOVE, REFUEL, LOAD, UNLOAD, BOARD, DISEMBARK or MAINTAIN; every op but MAINTAIN
+//       takes an amount
+//   REPORT
+//   QUIT                          closes the connection
+final class FleetProtocol {
+    static final String OK = "OK";
+
+    private final FleetManager manager;
+
+    FleetProtocol(FleetManager manager) {
+        this.manager = manager;
+    }
+
+    static boolean isQuit(String line) {
+        return line.trim().equalsIgnoreCase("QUIT");
+    }
+
+    // The full answer to one request line, without the final line break
+    String handle(String line) {
+        String[] words = line.trim().split("\\s+");
+        String command = words[0].toUpperCase(Locale.ROOT);
+        try {
+            switch (command) {
+                case "ADD" -> add(words);
+                case "REMOVE" -> manager.removeVehicle(arg(words, 1, 2));
+                case "MOVE" -> manager.moveVehicle(arg(words, 1, 3), amount(words));
+                case "REFUEL" -> manager.refuel(arg(words, 1, 3), amount(words));
+                case "LOAD" -> manager.loadCargo(arg(words, 1, 3), amount(words));
+                case "UNLOAD" -> manager.unloadCargo(arg(words, 1, 3), amount(words));
+                case "BOARD" -> manager.boardPassengers(arg(words, 1, 3), count(words));
+                case "DISEMBARK" -> manager.disembarkPassengers(arg(words, 1, 3), count(words));
+                case "MAINTAIN" -> {
+                    String id = arg(words, 1, 2);
+                    if (!manager.maintainone(id)) return error("INVALID", "Vehicle ID not found: " + id);
+                }
+                case "BATCH" -> {
+                    return batch(words);
+                }
+                case "REPORT" -> {
+                    arg(words, 0, 1);
+                    String report = manager.generateReport().stripTrailing();
+                    long lines = report.lines().count();
+                    return lines == 0 ? OK + " 0" : OK + " " + lines + "\n" + report;
+                }
+                default -> {
+                    return error("BAD_REQUEST", "Unknown command: " + words[0]);
+                }
+            }
+            return OK;
+        } catch (BadRequest e) {
+            return error("BAD_REQUEST", e.getMessage());
+        } catch (OverloadException e) {
+            return error("OVERLOAD", e.getMessage());
+        } catch (InvalidOperationException e) {
+            return error("INVALID", e.getMessage());
+        } catch (RuntimeException e) {
+            return error("INTERNAL", String.valueOf(e));
+        }
+    }
+
+    private void add(String[] words) throws InvalidOperationException, BadRequest {
+        if (words.length < 5) throw new BadRequest("Usage: ADD <type> <id> <maxSpeed> [<maxAltitude> | <hasSail>] <model...>");
+        VehicleType type = VehicleType.fromName(words[1]);
+        if (type == null) throw new BadRequest("Unknown vehicle type: " + words[1]);
+        String id = words[2];
+        double maxSpeed = number(words[3]);
+        int modelFrom = type == VehicleType.AIRPLANE || type == VehicleType.CARGO_SHIP ? 5 : 4;
+        if (words.length <= modelFrom) throw new BadRequest("Missing model.");
+        String model = String.join(" ", Arrays.copyOfRange(words, modelFrom, words.length));
+        Vehicle v = switch (type) {
+            case CAR -> new Car(id, model, maxSpeed, 4);
+            case TRUCK -> new Truck(id, model, maxSpeed, 6);
+            case BUS -> new Bus(id, model, maxSpeed, 6);
+            case AIRPLANE -> new Airplane(id, model, maxSpeed, number(words[4]));
+            case CARGO_SHIP -> {
+                if (!words[4].equalsIgnoreCase("true") && !words[4].equalsIgnoreCase("false")) {
+                    throw new BadRequest("hasSail must be true or false: " + words[4]);
+                }
+                yield new CargoShip(id, model, maxSpeed, Boolean.parseBoolean(words[4]));
+            }
+        };
+        manager.addVehicle(v);
+    }
+
+    private String batch(String[] words) throws BadRequest {
+        if (words.length < 3) throw new BadRequest("Usage: BATCH <op> <id> [<amount>] [<op> <id> [<amount>] ...]");
+        MutationBatch batch = new MutationBatch(words.length / 3 + 1);
+        int i = 1;
+        while (i < words.length) {
+            String name = words[i].toUpperCase(Locale.ROOT);
+            byte op = switch (name) {
+                case "MOVE" -> MutationBatch.MOVE;
+                case "REFUEL" -> MutationBatch.REFUEL;
+                case "LOAD" -> MutationBatch.LOAD_CARGO;
+                case "UNLOAD" -> MutationBatch.UNLOAD_CARGO;
+                case "BOARD" -> MutationBatch.BOARD_PASSENGERS;
+                case "DISEMBARK" -> MutationBatch.DISEMBARK_PASSENGERS;
+                case "MAINTAIN" -> MutationBatch.MAINTAIN;
+                default -> throw new BadRequest("Unknown batch operation: " + words[i]);
+            };
+            int width = op == MutationBatch.MAINTAIN ? 2 : 3;
+            if (i + width > words.length) throw new BadRequest(name + " in a batch is missing its " + (width == 2 ? "ID" : "ID or amount"));
+            batch.add(words[i + 1], op, width == 2 ? 0 : number(words[i + 2]));
+            i += width;
+        }
+        StringBuilder answer = new StringBuilder(OK);
+        for (byte result : manager.apply(batch)) {
+            answer.append(' ').append(MutationBatch.resultName(result));
+        }
+        return answer.toString();
+    }
+
+    // words[index], once the request is known to have exactly length words
+    private static String arg(String[] words, int index, int length) throws BadRequest {
+        if (words.length != length) {
+            throw new BadRequest(words[0].toUpperCase(Locale.ROOT) + " takes " + (length - 1) + " argument(s), got " + (words.length - 1));
+        }
+        return words[index];
+    }
+
+    private static double amount(String[] words) throws BadRequest {
+        return number(words[2]);
+    }
+
+    private static int count(String[] words) throws BadRequest {
+        try {
+            return Integer.parseInt(words[2]);
+        } catch (NumberFormatException e) {
+            throw new BadRequest("Not a whole number: " + words[2]);
+        }
+    }
+
+    // NaN and Infinity parse, but no amount can be either
+    private static double number(String word) throws BadRequest {
+        double value;
+        try {
+            value = Double.parseDouble(word);
+        } catch (NumberFormatException e) {
+            throw new BadRequest("Not a number: " + word);
+        }
+        if (!Double.isFinite(value)) {
+            throw new BadRequest("Not a finite number: " + word);
+        }
+        return value;
+    }
+
+    private static String error(String kind, String message) {
+        // the answer must stay on one line
+        return "ERR " + kind + " " + (message == null ? "" : message.replace('\n', ' ').replace('\r', ' '));
+    }
+
+    private static final class BadRequest extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        BadRequest(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package server;
+
+import fleet.FleetManager;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Serves a FleetManager to any number of clients at once over FleetProtocol. Every connection
+// gets its own virtual thread, which blocks on the socket as plain sequential code while
+// costing no platform thread; concurrency between clients is the manager's per-vehicle
+// locking. Binds to the loopback interface unless given another address. Virtual threads need
+// JDK 21 or later, to compile and to run, and as Main and bench.ServerLoadDriver use this class
+// so does the whole project; without the server it would build on JDK 17.
+public class FleetServer implements Closeable {
+    private final FleetManager manager;
+    private final ServerSocket listener;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+
+    public FleetServer(FleetManager manager, int port) throws IOException {
+        this(manager, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    public FleetServer(FleetManager manager, InetSocketAddress address) throws IOException {
+        if (!manager.isConcurrent()) {
+            throw new IllegalArgumentException("A FleetServer needs a concurrent FleetManager.");
+        }
+        this.manager = manager;
+        listener = new ServerSocket();
+        listener.bind(address, 1024);
+        acceptor = Thread.ofVirtual().name("fleet-server-accept").start(this::accept);
+    }
+
+    // The bound port, for servers created on port 0
+    public int getPort() {
+        return listener.getLocalPort();
+    }
+
+    private void accept() {
+        while (!listener.isClosed()) {
+            Socket socket;
+            try {
+                socket = listener.accept();
+            } catch (IOException e) {
+                // closed by close(), or the listener failed for good
+                return;
+            }
+            open.add(socket);
+            connections.execute(() -> serve(socket));
+        }
+    }
+
+    private void serve(Socket socket) {
+        FleetProtocol protocol = new FleetProtocol(manager);
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            String line;
+            while ((line = in.readLine()) != null && !FleetProtocol.isQuit(line)) {
+                out.write(protocol.handle(line));
+                out.write('\n');
+                // a pipelining client gets every answer already due in one write
+                if (!in.ready()) out.flush();
+            }
+            out.flush();
+        } catch (IOException e) {
+            // the client went away; nothing is owed to it
+        } finally {
+            open.remove(socket);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        listener.close();
+        for (Socket socket : open) {
+            socket.close();
+        }
+        connections.close();
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
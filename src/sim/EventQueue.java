@@ -0,0 +1,91 @@
+package sim;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+// Min-heap of timed events held in parallel primitive arrays, so scheduling allocates nothing
+// once the arrays have grown. An event is just an int the simulation encodes itself. Events
+// due at the same time come out in the order they were scheduled, which keeps runs repeatable.
+final class EventQueue {
+    private double[] times = new double[64];
+    private long[] seqs = new long[64];
+    private int[] events = new int[64];
+    private int size;
+    private long nextSeq;
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void schedule(double time, int event) {
+        if (size == times.length) {
+            int capacity = 2 * size;
+            times = Arrays.copyOf(times, capacity);
+            seqs = Arrays.copyOf(seqs, capacity);
+            events = Arrays.copyOf(events, capacity);
+        }
+        long seq = nextSeq++;
+        // sift the hole up instead of swapping at every level
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(time, seq, times[parent], seqs[parent])) break;
+            move(parent, i);
+            i = parent;
+        }
+        put(i, time, seq, event);
+    }
+
+    // Time of the earliest event
+    double peekTime() {
+        if (size == 0) throw new NoSuchElementException();
+        return times[0];
+    }
+
+    // Removes the earliest event and returns it
+    int poll() {
+        if (size == 0) throw new NoSuchElementException();
+        int first = events[0];
+        int last = --size;
+        if (last > 0) {
+            double time = times[last];
+            long seq = seqs[last];
+            int event = events[last];
+            int i = 0;
+            int child;
+            while ((child = 2 * i + 1) < last) {
+                if (child + 1 < last && before(times[child + 1], seqs[child + 1], times[child], seqs[child])) child++;
+                if (!before(times[child], seqs[child], time, seq)) break;
+                move(child, i);
+                i = child;
+            }
+            put(i, time, seq, event);
+        }
+        return first;
+    }
+
+    void clear() {
+        size = 0;
+        nextSeq = 0;
+    }
+
+    private static boolean before(double t1, long s1, double t2, long s2) {
+        return t1 < t2 || (t1 == t2 && s1 < s2);
+    }
+
+    private void move(int from, int to) {
+        times[to] = times[from];
+        seqs[to] = seqs[from];
+        events[to] = events[from];
+    }
+
+    private void put(int i, double time, long seq, int event) {
+        times[i] = time;
+        seqs[i] = seq;
+        events[i] = event;
+    }
+}
@@ -0,0 +1,271 @@
+package sim;
+
+import vehicles.Vehicle;
+import vehicles.WaterVehicle;
+
+import interfaces.FuelConsumable;
+import interfaces.Maintainable;
+import interfaces.VehicleObserver;
+
+import exceptions.InvalidOperationException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Discrete-event simulation of a fleet in operation. Each vehicle runs journeys back to back:
+// it departs, arrives estimateJourneyTime(distance) hours later, turns around and departs again.
+// Before a departure a vehicle that needsMaintenance() queues for one of a limited number of
+// maintenance bays, first come first served, and one whose tank cannot cover the journey makes
+// a refuel stop first. Events are drawn in time order from a primitive heap, so a run costs
+// O(log n) per event for n vehicles and allocates nothing once under way.
+//
+// The vehicles themselves are moved, refuelled and maintained, so their state at the end is the
+// state at the horizon. Run it on vehicles no FleetManager holds, such as a fleet generated or
+// loaded for the study. A registered vehicle works too, but its manager hears of every step
+// through the vehicle's events and refreshes its stats, indexes and journal entry each time.
+public class FleetSimulation {
+    private static final int DEPART = 0;
+    private static final int ARRIVE = 1;
+    private static final int SERVICED = 2;
+    private static final int KIND_BITS = 2;
+    private static final int KIND_MASK = (1 << KIND_BITS) - 1;
+    private static final int MAX_VEHICLES = Integer.MAX_VALUE >>> KIND_BITS;
+
+    private double minJourney = 300.0;
+    private double maxJourney = 300.0;
+    private double turnaroundHours = 1.0;
+    private double refuelHours = 0.5;
+    private double refuelLiters = 200.0;
+    private int bays = 1;
+    private double serviceHours = 8.0;
+    private long seed = 42;
+
+    // Every journey's distance is drawn uniformly from [min, max]
+    public FleetSimulation journeyDistance(double min, double max) {
+        if (!(min > 0) || max < min) {
+            throw new IllegalArgumentException("Journey distances must be positive, min no larger than max.");
+        }
+        this.minJourney = min;
+        this.maxJourney = max;
+        return this;
+    }
+
+    // Time on the ground between arriving and departing again
+    public FleetSimulation turnaround(double hours) {
+        if (hours < 0) {
+            throw new IllegalArgumentException("Turnaround cannot be negative.");
+        }
+        this.turnaroundHours = hours;
+        return this;
+    }
+
+    // A refuel stop takes hours and tops up liters, or whatever more the next journey needs
+    public FleetSimulation refuelStop(double hours, double liters) {
+        if (hours < 0) {
+            throw new IllegalArgumentException("Refuel time cannot be negative.");
+        }
+        if (!(liters > 0)) {
+            throw new IllegalArgumentException("Refuel amount must be positive.");
+        }
+        this.refuelHours = hours;
+        this.refuelLiters = liters;
+        return this;
+    }
+
+    public FleetSimulation maintenanceBays(int count, double serviceHours) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("There must be at least one maintenance bay.");
+        }
+        if (serviceHours < 0) {
+            throw new IllegalArgumentException("Service time cannot be negative.");
+        }
+        this.bays = count;
+        this.serviceHours = serviceHours;
+        return this;
+    }
+
+    // Seeds the journey distances and the vehicles' staggered first departures
+    public FleetSimulation seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    // Runs the vehicles from time 0 to hours; first departures are spread over one turnaround
+    public SimulationResult run(List<Vehicle> vehicles, double hours) {
+        if (!(hours >= 0)) {
+            throw new IllegalArgumentException("Simulated time cannot be negative.");
+        }
+        if (vehicles.size() > MAX_VEHICLES) {
+            throw new IllegalArgumentException("At most " + MAX_VEHICLES + " vehicles can be simulated.");
+        }
+        return new Run(vehicles.toArray(new Vehicle[0]), hours).run();
+    }
+
+    // One run's state, so a FleetSimulation can be reused and shared
+    private final class Run {
+        private final Vehicle[] vehicles;
+        private final double horizon;
+        private final boolean[] burnsFuel;
+        private final boolean[] maintainable;
+        // Distance of the journey a vehicle is about to start; survives a refuel stop
+        private final double[] nextJourney;
+        private final double[] queuedAt;
+        private final EventQueue events = new EventQueue();
+        private final SplittableRandom random = new SplittableRandom(seed);
+
+        // Vehicles waiting for a bay, as a ring buffer of indices
+        private int[] waiting = new int[16];
+        private int waitingHead;
+        private int waitingCount;
+        private int busyBays;
+
+        private long eventCount;
+        private long journeys;
+        private double distance;
+        private double fuelBurned;
+        private long refuelStops;
+        private double fuelAdded;
+        private long services;
+        private double totalWait;
+        private double maxWait;
+        private int maxQueue;
+        private double bayHours;
+        private int stranded;
+
+        Run(Vehicle[] vehicles, double horizon) {
+            this.vehicles = vehicles;
+            this.horizon = horizon;
+            int n = vehicles.length;
+            burnsFuel = new boolean[n];
+            maintainable = new boolean[n];
+            nextJourney = new double[n];
+            queuedAt = new double[n];
+            for (int i = 0; i < n; i++) {
+                Vehicle v = vehicles[i];
+                burnsFuel[i] = v instanceof FuelConsumable && !(v instanceof WaterVehicle w && w.hasSail());
+                maintainable[i] = v instanceof Maintainable;
+            }
+            Arrays.fill(nextJourney, Double.NaN);
+        }
+
+        SimulationResult run() {
+            // a vehicle without an observer prints every step; it gets a quiet one for the run
+            boolean[] silenced = new boolean[vehicles.length];
+            for (int i = 0; i < vehicles.length; i++) {
+                if (vehicles[i].getObserver() == null) {
+                    vehicles[i].setObserver(VehicleObserver.QUIET);
+                    silenced[i] = true;
+                }
+            }
+            try {
+                return simulate();
+            } finally {
+                for (int i = 0; i < vehicles.length; i++) {
+                    if (silenced[i]) vehicles[i].setObserver(null);
+                }
+            }
+        }
+
+        private SimulationResult simulate() {
+            for (int i = 0; i < vehicles.length; i++) {
+                events.schedule(random.nextDouble() * turnaroundHours, i << KIND_BITS | DEPART);
+            }
+            while (!events.isEmpty() && events.peekTime() <= horizon) {
+                double now = events.peekTime();
+                int event = events.poll();
+                eventCount++;
+                int i = event >>> KIND_BITS;
+                switch (event & KIND_MASK) {
+                    case DEPART -> depart(i, now);
+                    case ARRIVE -> {
+                        journeys++;
+                        events.schedule(now + turnaroundHours, i << KIND_BITS | DEPART);
+                    }
+                    default -> serviced(i, now);
+                }
+            }
+            double bayUtilisation = horizon == 0 ? 0.0 : bayHours / (bays * horizon);
+            return new SimulationResult(horizon, eventCount, journeys, distance, fuelBurned, refuelStops,
+                    fuelAdded, services, totalWait, maxWait, maxQueue, bayUtilisation, stranded);
+        }
+
+        private void depart(int i, double now) {
+            Vehicle v = vehicles[i];
+            if (maintainable[i] && ((Maintainable) v).needsMaintenance()) {
+                requestBay(i, now);
+                return;
+            }
+            double d = nextJourney[i];
+            if (Double.isNaN(d)) {
+                d = minJourney == maxJourney ? minJourney : minJourney + random.nextDouble() * (maxJourney - minJourney);
+                nextJourney[i] = d;
+            }
+            double before = 0.0;
+            try {
+                if (burnsFuel[i]) {
+                    FuelConsumable f = (FuelConsumable) v;
+                    before = f.getFuelLevel();
+                    double needed = d / v.calculateFuelEfficiency();
+                    if (before < needed) {
+                        double liters = Math.max(refuelLiters, needed - before);
+                        f.refuel(liters);
+                        refuelStops++;
+                        fuelAdded += liters;
+                        events.schedule(now + refuelHours, i << KIND_BITS | DEPART);
+                        return;
+                    }
+                }
+                v.move(d);
+            } catch (InvalidOperationException e) {
+                // with no further events the vehicle simply drops out of the run
+                stranded++;
+                return;
+            }
+            if (burnsFuel[i]) fuelBurned += before - ((FuelConsumable) v).getFuelLevel();
+            distance += d;
+            nextJourney[i] = Double.NaN;
+            events.schedule(now + v.estimateJourneyTime(d), i << KIND_BITS | ARRIVE);
+        }
+
+        private void requestBay(int i, double now) {
+            if (busyBays < bays) {
+                startService(i, now, now);
+                return;
+            }
+            if (waitingCount == waiting.length) {
+                int[] grown = new int[2 * waiting.length];
+                for (int k = 0; k < waitingCount; k++) {
+                    grown[k] = waiting[(waitingHead + k) % waiting.length];
+                }
+                waiting = grown;
+                waitingHead = 0;
+            }
+            waiting[(waitingHead + waitingCount++) % waiting.length] = i;
+            queuedAt[i] = now;
+            maxQueue = Math.max(maxQueue, waitingCount);
+        }
+
+        private void startService(int i, double now, double queuedSince) {
+            busyBays++;
+            double wait = now - queuedSince;
+            totalWait += wait;
+            maxWait = Math.max(maxWait, wait);
+            bayHours += Math.min(now + serviceHours, horizon) - now;
+            events.schedule(now + serviceHours, i << KIND_BITS | SERVICED);
+        }
+
+        private void serviced(int i, double now) {
+            ((Maintainable) vehicles[i]).performMaintenance();
+            services++;
+            busyBays--;
+            if (waitingCount > 0) {
+                int next = waiting[waitingHead];
+                waitingHead = (waitingHead + 1) % waiting.length;
+                waitingCount--;
+                startService(next, now, queuedAt[next]);
+            }
+            events.schedule(now, i << KIND_BITS | DEPART);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package sim;
+
+// What one FleetSimulation run saw up to its horizon. Journeys and services still under way at
+// the horizon are left out of the counts; bay time is counted only up to the horizon.
+public final class SimulationResult {
+    private final double hours;
+    private final long events;
+    private final long journeys;
+    private final double distance;
+    private final double fuelBurned;
+    private final long refuelStops;
+    private final double fuelAdded;
+    private final long services;
+    private final double totalWaitHours;
+    private final double maxWaitHours;
+    private final int maxQueueLength;
+    private final double bayUtilisation;
+    private final int stranded;
+
+    SimulationResult(double hours, long events, long journeys, double distance, double fuelBurned,
+                     long refuelStops, double fuelAdded, long services, double totalWaitHours,
+                     double maxWaitHours, int maxQueueLength, double bayUtilisation, int stranded) {
+        this.hours = hours;
+        this.events = events;
+        this.journeys = journeys;
+        this.distance = distance;
+        this.fuelBurned = fuelBurned;
+        this.refuelStops = refuelStops;
+        this.fuelAdded = fuelAdded;
+        this.services = services;
+        this.totalWaitHours = totalWaitHours;
+        this.maxWaitHours = maxWaitHours;
+        this.maxQueueLength = maxQueueLength;
+        this.bayUtilisation = bayUtilisation;
+        this.stranded = stranded;
+    }
+
+    public double getHours() {
+        return hours;
+    }
+
+    public long getEventCount() {
+        return events;
+    }
+
+    // Journeys that arrived
+    public long getJourneyCount() {
+        return journeys;
+    }
+
+    // Distance of every journey started, including those still under way
+    public double getDistance() {
+        return distance;
+    }
+
+    public double getFuelBurned() {
+        return fuelBurned;
+    }
+
+    public long getRefuelStops() {
+        return refuelStops;
+    }
+
+    public double getFuelAdded() {
+        return fuelAdded;
+    }
+
+    // Maintenance services completed
+    public long getServiceCount() {
+        return services;
+    }
+
+    // Hours vehicles spent queued for a free bay, over services that started
+    public double getTotalWaitHours() {
+        return totalWaitHours;
+    }
+
+    public double getMaxWaitHours() {
+        return maxWaitHours;
+    }
+
+    public int getMaxQueueLength() {
+        return maxQueueLength;
+    }
+
+    // Share of the bays' hours spent servicing
+    public double getBayUtilisation() {
+        return bayUtilisation;
+    }
+
+    // Vehicles taken out of the run because a move failed
+    public int getStrandedCount() {
+        return stranded;
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationResult{hours=" + hours
+                + ", events=" + events
+                + ", journeys=" + journeys
+                + ", distance=" + distance
+                + ", fuelBurned=" + fuelBurned
+                + ", refuelStops=" + refuelStops
+                + ", services=" + services
+                + ", totalWaitHours=" + totalWaitHours
+                + ", maxQueue=" + maxQueueLength
+                + ", bayUtilisation=" + bayUtilisation
+                + ", stranded=" + stranded + "}";
+    }
+}
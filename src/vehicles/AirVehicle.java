@@ -21,12 +21,12 @@ public abstract class AirVehicle extends Vehicle {
     @Override
     public void displayInfo() {
         super.displayInfo();
-        System.out.println("Max Altitude: " + this.maxAltitude + " meters");
+        System.out.println("Max Altitude: " + getMaxAltitude() + " meters");
     }
 
     @Override
     public double estimateJourneyTime(double distance) {
-        double baseTime = distance / super.getMaxSpeed();
+        double baseTime = distance / getMaxSpeed();
         return baseTime * 0.95; // reduce 5% for more direct routes
     }
 
@@ -7,6 +7,7 @@ import interfaces.FuelConsumable;
 import interfaces.CargoCarrier;
 import interfaces.PassengerCarrier;
 import interfaces.Maintainable;
+import events.FleetEventType;
 
 public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier, CargoCarrier, Maintainable {
 
@@ -33,12 +34,12 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
             throw new InvalidOperationException("Distance cannot be negative.");
         }
         try {
-            consumeFuel(distance);
+            burnFuel(distance);
         } catch (InsufficientFuelException e) {
-            throw new InvalidOperationException("Not enough fuel to transport passengers and cargo.");
+            throw new InvalidOperationException("Not enough fuel to transport passengers and cargo.", e);
         }
         updateMileage(distance);
-        System.out.println("Transporting passengers and cargo for " + distance + " km...");
+        emit(FleetEventType.MOVED, distance, Double.NaN);
     }
 
     @Override
@@ -51,41 +52,48 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
         if (amount <= 0) {
             throw new InvalidOperationException("Refuel amount must be positive.");
         }
-        fuelLevel += amount;
-        System.out.println("Refueled " + amount + " liters. Current fuel: " + fuelLevel + " liters");
+        writeFuel(readFuel() + amount);
+        emit(FleetEventType.REFUELED, amount, readFuel());
     }
 
     @Override
     public double getFuelLevel() {
-        return fuelLevel;
+        return readFuel();
     }
 
     @Override
     public double consumeFuel(double distance) throws InsufficientFuelException {
+        double required = burnFuel(distance);
+        emit(FleetEventType.FUEL_CONSUMED, required, readFuel());
+        return required;
+    }
+
+    // As in Car
+    private double burnFuel(double distance) throws InsufficientFuelException {
         double required = distance / calculateFuelEfficiency();
-        if (fuelLevel < required) {
+        if (readFuel() < required) {
             throw new InsufficientFuelException("Insufficient fuel. Needed: " + required + " liters");
         }
-        fuelLevel -= required;
+        writeFuel(readFuel() - required);
         return required;
     }
 
     @Override
     public void boardPassengers(int count) throws OverloadException {
-        if (currentPassengers + count > passengerCapacity) {
+        if (readPassengers() + count > passengerCapacity) {
             throw new OverloadException("Cannot board passengers. Exceeds capacity.");
         }
-        currentPassengers += count;
-        System.out.println(count + " passengers boarded. Current passengers: " + currentPassengers);
+        writePassengers(readPassengers() + count);
+        emit(FleetEventType.PASSENGERS_BOARDED, count, readPassengers());
     }
 
     @Override
     public void disembarkPassengers(int count) throws InvalidOperationException {
-        if (count > currentPassengers) {
+        if (count > readPassengers()) {
             throw new InvalidOperationException("Cannot disembark more passengers than current.");
         }
-        currentPassengers -= count;
-        System.out.println(count + " passengers disembarked. Current passengers: " + currentPassengers);
+        writePassengers(readPassengers() - count);
+        emit(FleetEventType.PASSENGERS_DISEMBARKED, count, readPassengers());
     }
 
     @Override
@@ -95,25 +103,25 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
 
     @Override
     public int getCurrentPassengers() {
-        return currentPassengers;
+        return readPassengers();
     }
 
     @Override
     public void loadCargo(double weight) throws OverloadException {
-        if (currentCargo + weight > cargoCapacity) {
+        if (readCargo() + weight > cargoCapacity) {
             throw new OverloadException("Cannot load cargo. Exceeds capacity.");
         }
-        currentCargo += weight;
-        System.out.println(weight + " kg loaded. Current cargo: " + currentCargo + " kg");
+        writeCargo(readCargo() + weight);
+        emit(FleetEventType.CARGO_LOADED, weight, readCargo());
     }
 
     @Override
     public void unloadCargo(double weight) throws InvalidOperationException {
-        if (weight > currentCargo) {
+        if (weight > readCargo()) {
             throw new InvalidOperationException("Cannot unload more than current cargo.");
         }
-        currentCargo -= weight;
-        System.out.println(weight + " kg unloaded. Current cargo: " + currentCargo + " kg");
+        writeCargo(readCargo() - weight);
+        emit(FleetEventType.CARGO_UNLOADED, weight, readCargo());
     }
 
     @Override
@@ -123,35 +131,99 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
 
     @Override
     public double getCurrentCargo() {
-        return currentCargo;
+        return readCargo();
     }
 
     @Override
     public void scheduleMaintenance() {
-        maintenanceNeeded = true;
-        System.out.println("Maintenance scheduled for Bus ID: " + getId());
+        writeMaintenanceFlag(true);
+        emit(FleetEventType.MAINTENANCE_SCHEDULED, 0, Double.NaN);
+        maintenanceStateMayHaveChanged();
     }
 
     @Override
     public boolean needsMaintenance() {
-        return maintenanceNeeded || this.maintance() > 10000;
+        return readMaintenanceFlag() || this.maintance() > MAINTENANCE_INTERVAL;
+    }
+
+    // Only the flag scheduleMaintenance() sets, without the mileage rule
+    public boolean isMaintenanceScheduled() {
+        return readMaintenanceFlag();
+    }
+
+    // Restores that flag from persisted state, without the event of scheduleMaintenance()
+    public void restoreMaintenanceScheduled(boolean scheduled) {
+        writeMaintenanceFlag(scheduled);
+        maintenanceStateMayHaveChanged();
+        stateRestored();
     }
 
     @Override
     public void performMaintenance() {
-        maintenanceNeeded = false;
-        this.setmaintance(0);
-        System.out.println("Maintenance performed for Bus ID: " + getId());
+        writeMaintenanceFlag(false);
+        writeMaintance(0);
+        maintenanceStateMayHaveChanged();
+        emit(FleetEventType.MAINTENANCE_PERFORMED, 0, Double.NaN);
+    }
+
+    // Loader entry point, see Car.restoreState
+    public void restoreState(double fuelLevel, int currentPassengers, double currentCargo) throws InvalidOperationException {
+        if (fuelLevel < 0) {
+            throw new InvalidOperationException("Fuel level cannot be negative.");
+        }
+        if (currentPassengers < 0 || currentPassengers > passengerCapacity) {
+            throw new InvalidOperationException("Passenger count out of range: " + currentPassengers);
+        }
+        if (currentCargo < 0 || currentCargo > cargoCapacity) {
+            throw new InvalidOperationException("Cargo weight out of range: " + currentCargo);
+        }
+        writeFuel(fuelLevel);
+        writePassengers(currentPassengers);
+        writeCargo(currentCargo);
+        stateRestored();
+    }
+
+    // Raw state accessors, as in Car
+    protected double readFuel() {
+        return fuelLevel;
+    }
+
+    protected void writeFuel(double fuelLevel) {
+        this.fuelLevel = fuelLevel;
+    }
+
+    protected int readPassengers() {
+        return currentPassengers;
+    }
+
+    protected void writePassengers(int currentPassengers) {
+        this.currentPassengers = currentPassengers;
+    }
+
+    protected double readCargo() {
+        return currentCargo;
+    }
+
+    protected void writeCargo(double currentCargo) {
+        this.currentCargo = currentCargo;
+    }
+
+    protected boolean readMaintenanceFlag() {
+        return maintenanceNeeded;
+    }
+
+    protected void writeMaintenanceFlag(boolean maintenanceNeeded) {
+        this.maintenanceNeeded = maintenanceNeeded;
     }
 
     @Override
     public void displayInfo() {
         super.displayInfo();
         System.out.println("Passenger Capacity: " + passengerCapacity);
-        System.out.println("Current Passengers: " + currentPassengers);
+        System.out.println("Current Passengers: " + readPassengers());
         System.out.println("Cargo Capacity: " + cargoCapacity + " kg");
-        System.out.println("Current Cargo: " + currentCargo + " kg");
-        System.out.println("Fuel Level: " + fuelLevel + " liters");
+        System.out.println("Current Cargo: " + readCargo() + " kg");
+        System.out.println("Fuel Level: " + readFuel() + " liters");
         System.out.println("Needs Maintenance: " + needsMaintenance());
     }
 }
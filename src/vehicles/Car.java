@@ -6,6 +6,7 @@ import exceptions.InsufficientFuelException;
 import interfaces.FuelConsumable;
 import interfaces.PassengerCarrier;
 import interfaces.Maintainable;
+import events.FleetEventType;
 
 public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier, Maintainable {
 
@@ -28,12 +29,12 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
             throw new InvalidOperationException("Distance cannot be negative.");
         }
         try {
-            consumeFuel(distance);
+            burnFuel(distance);
         } catch (InsufficientFuelException e) {
-            throw new InvalidOperationException("Not enough fuel to drive the distance.");
+            throw new InvalidOperationException("Not enough fuel to drive the distance.", e);
         }
         updateMileage(distance);
-        System.out.println("Driving on road for " + distance + " km...");
+        emit(FleetEventType.MOVED, distance, Double.NaN);
     }
 
     @Override
@@ -46,41 +47,48 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
         if (amount <= 0) {
             throw new InvalidOperationException("Refuel amount must be positive.");
         }
-        fuelLevel += amount;
-        System.out.println("Refueled " + amount + " liters. Current fuel: " + fuelLevel + " liters");
+        writeFuel(readFuel() + amount);
+        emit(FleetEventType.REFUELED, amount, readFuel());
     }
 
     @Override
     public double getFuelLevel() {
-        return fuelLevel;
+        return readFuel();
     }
 
     @Override
     public double consumeFuel(double distance) throws InsufficientFuelException {
+        double required = burnFuel(distance);
+        emit(FleetEventType.FUEL_CONSUMED, required, readFuel());
+        return required;
+    }
+
+    // consumeFuel without the event, for move(), whose MOVED event covers the burn
+    private double burnFuel(double distance) throws InsufficientFuelException {
         double required = distance / calculateFuelEfficiency();
-        if (fuelLevel < required) {
+        if (readFuel() < required) {
             throw new InsufficientFuelException("Insufficient fuel. Needed: " + required + " liters");
         }
-        fuelLevel -= required;
+        writeFuel(readFuel() - required);
         return required;
     }
 
     @Override
     public void boardPassengers(int count) throws OverloadException {
-        if (count + currentPassengers > passengerCapacity) {
+        if (count + readPassengers() > passengerCapacity) {
             throw new OverloadException("Cannot board passengers. Exceeds capacity.");
         }
-        this.currentPassengers += count;
-        System.out.println(count + " passengers boarded. Current passengers: " + currentPassengers);
+        writePassengers(readPassengers() + count);
+        emit(FleetEventType.PASSENGERS_BOARDED, count, readPassengers());
     }
 
     @Override
     public void disembarkPassengers(int count) throws InvalidOperationException {
-        if (count > currentPassengers) {
+        if (count > readPassengers()) {
             throw new InvalidOperationException("Cannot disembark more passengers than current.");
         }
-        currentPassengers -= count;
-        System.out.println(count + " passengers disembarked. Current passengers: " + currentPassengers);
+        writePassengers(readPassengers() - count);
+        emit(FleetEventType.PASSENGERS_DISEMBARKED, count, readPassengers());
     }
 
     @Override
@@ -90,33 +98,86 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
 
     @Override
     public int getCurrentPassengers() {
-        return currentPassengers;
+        return readPassengers();
     }
 
     @Override
     public void scheduleMaintenance() {
-        maintenanceNeeded = true;
-        System.out.println("Maintenance scheduled for Car ID: " + getId());
+        writeMaintenanceFlag(true);
+        emit(FleetEventType.MAINTENANCE_SCHEDULED, 0, Double.NaN);
+        maintenanceStateMayHaveChanged();
     }
 
     @Override
     public boolean needsMaintenance() {
-        return maintenanceNeeded || this.maintance() > 10000;
+        return readMaintenanceFlag() || this.maintance() > MAINTENANCE_INTERVAL;
+    }
+
+    // Only the flag scheduleMaintenance() sets, without the mileage rule
+    public boolean isMaintenanceScheduled() {
+        return readMaintenanceFlag();
+    }
+
+    // Restores that flag from persisted state, without the event of scheduleMaintenance()
+    public void restoreMaintenanceScheduled(boolean scheduled) {
+        writeMaintenanceFlag(scheduled);
+        maintenanceStateMayHaveChanged();
+        stateRestored();
     }
 
     @Override
     public void performMaintenance() {
-        maintenanceNeeded = false;
-        this.setmaintance(0);
-        System.out.println("Maintenance performed for Car ID: " + getId());
+        writeMaintenanceFlag(false);
+        writeMaintance(0);
+        maintenanceStateMayHaveChanged();
+        emit(FleetEventType.MAINTENANCE_PERFORMED, 0, Double.NaN);
+    }
+
+    // Restores persisted state in one step, without the events of refuel/load/board
+    public void restoreState(double fuelLevel, int currentPassengers) throws InvalidOperationException {
+        if (fuelLevel < 0) {
+            throw new InvalidOperationException("Fuel level cannot be negative.");
+        }
+        if (currentPassengers < 0 || currentPassengers > passengerCapacity) {
+            throw new InvalidOperationException("Passenger count out of range: " + currentPassengers);
+        }
+        writeFuel(fuelLevel);
+        writePassengers(currentPassengers);
+        stateRestored();
+    }
+
+    // Raw state access. Behaviour above goes through these, so an off-heap view can keep
+    // the state elsewhere by overriding them alone.
+    protected double readFuel() {
+        return fuelLevel;
+    }
+
+    protected void writeFuel(double fuelLevel) {
+        this.fuelLevel = fuelLevel;
+    }
+
+    protected int readPassengers() {
+        return currentPassengers;
+    }
+
+    protected void writePassengers(int currentPassengers) {
+        this.currentPassengers = currentPassengers;
+    }
+
+    protected boolean readMaintenanceFlag() {
+        return maintenanceNeeded;
+    }
+
+    protected void writeMaintenanceFlag(boolean maintenanceNeeded) {
+        this.maintenanceNeeded = maintenanceNeeded;
     }
 
     @Override
     public void displayInfo() {
         super.displayInfo();
         System.out.println("Passenger Capacity: " + passengerCapacity);
-        System.out.println("Current Passengers: " + currentPassengers);
-        System.out.println("Fuel Level: " + fuelLevel + " liters");
+        System.out.println("Current Passengers: " + readPassengers());
+        System.out.println("Fuel Level: " + readFuel() + " liters");
         System.out.println("Needs Maintenance: " + needsMaintenance());
     }
 }
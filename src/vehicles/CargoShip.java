@@ -6,6 +6,7 @@ import exceptions.InsufficientFuelException;
 import interfaces.CargoCarrier;
 import interfaces.Maintainable;
 import interfaces.FuelConsumable;
+import events.FleetEventType;
 
 public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainable, FuelConsumable {
 
@@ -29,18 +30,18 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
         if (distance < 0) {
             throw new InvalidOperationException("Distance cannot be negative.");
         }
-        if (!hasSail() && fuelLevel <= 0) {
+        if (!hasSail() && readFuel() <= 0) {
             throw new InvalidOperationException("Cannot move: no fuel available.");
         }
         if (!hasSail()) {
             try {
-                consumeFuel(distance);
+                burnFuel(distance);
             } catch (InsufficientFuelException e) {
-                throw new InvalidOperationException("Not enough fuel to sail the cargo ship.");
+                throw new InvalidOperationException("Not enough fuel to sail the cargo ship.", e);
             }
         }
         updateMileage(distance);
-        System.out.println("Sailing with cargo for " + distance + " km...");
+        emit(FleetEventType.MOVED, distance, Double.NaN);
     }
 
     @Override
@@ -51,20 +52,20 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
 
     @Override
     public void loadCargo(double weight) throws OverloadException {
-        if (currentCargo + weight > cargoCapacity) {
+        if (readCargo() + weight > cargoCapacity) {
             throw new OverloadException("Cannot load cargo. Exceeds capacity.");
         }
-        currentCargo += weight;
-        System.out.println(weight + " kg loaded. Current cargo: " + currentCargo + " kg");
+        writeCargo(readCargo() + weight);
+        emit(FleetEventType.CARGO_LOADED, weight, readCargo());
     }
 
     @Override
     public void unloadCargo(double weight) throws InvalidOperationException {
-        if (weight > currentCargo) {
+        if (weight > readCargo()) {
             throw new InvalidOperationException("Cannot unload more than current cargo.");
         }
-        currentCargo -= weight;
-        System.out.println(weight + " kg unloaded. Current cargo: " + currentCargo + " kg");
+        writeCargo(readCargo() - weight);
+        emit(FleetEventType.CARGO_UNLOADED, weight, readCargo());
     }
 
     @Override
@@ -74,34 +75,89 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
 
     @Override
     public double getCurrentCargo() {
-        return currentCargo;
+        return readCargo();
     }
 
     @Override
     public void scheduleMaintenance() {
-        this.maintenanceNeeded = true;
-        System.out.println("Maintenance scheduled for CargoShip ID: " + getId());
+        writeMaintenanceFlag(true);
+        emit(FleetEventType.MAINTENANCE_SCHEDULED, 0, Double.NaN);
+        maintenanceStateMayHaveChanged();
     }
 
     @Override
     public boolean needsMaintenance() {
-        return maintenanceNeeded || this.maintance() > 10000;
+        return readMaintenanceFlag() || this.maintance() > MAINTENANCE_INTERVAL;
+    }
+
+    // Only the flag scheduleMaintenance() sets, without the mileage rule
+    public boolean isMaintenanceScheduled() {
+        return readMaintenanceFlag();
+    }
+
+    // Restores that flag from persisted state, without the event of scheduleMaintenance()
+    public void restoreMaintenanceScheduled(boolean scheduled) {
+        writeMaintenanceFlag(scheduled);
+        maintenanceStateMayHaveChanged();
+        stateRestored();
     }
 
     @Override
     public void performMaintenance() {
-        this.maintenanceNeeded = false;
-        this.setmaintance(0);
-        System.out.println("Maintenance performed for CargoShip ID: " + getId());
+        writeMaintenanceFlag(false);
+        writeMaintance(0);
+        maintenanceStateMayHaveChanged();
+        emit(FleetEventType.MAINTENANCE_PERFORMED, 0, Double.NaN);
+    }
+
+    // Loader entry point; a sail-driven ship never carries fuel
+    public void restoreState(double fuelLevel, double currentCargo) throws InvalidOperationException {
+        if (hasSail() && fuelLevel > 0) {
+            throw new InvalidOperationException("This ship uses sails, refueling not applicable.");
+        }
+        if (fuelLevel < 0) {
+            throw new InvalidOperationException("Fuel level cannot be negative.");
+        }
+        if (currentCargo < 0 || currentCargo > cargoCapacity) {
+            throw new InvalidOperationException("Cargo weight out of range: " + currentCargo);
+        }
+        writeFuel(fuelLevel);
+        writeCargo(currentCargo);
+        stateRestored();
+    }
+
+    // Raw state accessors, as in Car
+    protected double readFuel() {
+        return fuelLevel;
+    }
+
+    protected void writeFuel(double fuelLevel) {
+        this.fuelLevel = fuelLevel;
+    }
+
+    protected double readCargo() {
+        return currentCargo;
+    }
+
+    protected void writeCargo(double currentCargo) {
+        this.currentCargo = currentCargo;
+    }
+
+    protected boolean readMaintenanceFlag() {
+        return maintenanceNeeded;
+    }
+
+    protected void writeMaintenanceFlag(boolean maintenanceNeeded) {
+        this.maintenanceNeeded = maintenanceNeeded;
     }
 
     @Override
     public void displayInfo() {
         super.displayInfo();
         System.out.println("Cargo Capacity: " + cargoCapacity + " kg");
-        System.out.println("Current Cargo: " + currentCargo + " kg");
+        System.out.println("Current Cargo: " + readCargo() + " kg");
         if (!hasSail()) {
-            System.out.println("Fuel Level: " + fuelLevel + " liters");
+            System.out.println("Fuel Level: " + readFuel() + " liters");
         }
         System.out.println("Needs Maintenance: " + needsMaintenance());
     }
@@ -114,24 +170,31 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
         if (amount <= 0) {
             throw new InvalidOperationException("Refuel amount must be positive.");
         }
-        fuelLevel += amount;
-        System.out.println("Refueled " + amount + " liters. Current fuel: " + fuelLevel + " liters");
+        writeFuel(readFuel() + amount);
+        emit(FleetEventType.REFUELED, amount, readFuel());
     }
 
     @Override
     public double getFuelLevel() {
         if (hasSail()) return 0.0;
-        return fuelLevel;
+        return readFuel();
     }
 
     @Override
     public double consumeFuel(double distance) throws InsufficientFuelException {
         if (hasSail()) return 0.0;
+        double required = burnFuel(distance);
+        emit(FleetEventType.FUEL_CONSUMED, required, readFuel());
+        return required;
+    }
+
+    // consumeFuel without the event, for move(), whose MOVED event covers the burn
+    private double burnFuel(double distance) throws InsufficientFuelException {
         double required = distance / calculateFuelEfficiency();
-        if (fuelLevel < required) {
+        if (readFuel() < required) {
             throw new InsufficientFuelException("Insufficient fuel. Needed: " + required + " liters");
         }
-        fuelLevel -= required;
+        writeFuel(readFuel() - required);
         return required;
     }
 }
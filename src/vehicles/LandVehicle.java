@@ -21,12 +21,12 @@ public abstract class LandVehicle extends Vehicle {
     @Override
     public void displayInfo() {
         super.displayInfo();
-        System.out.println("Number of Wheels: " + this.numberOfWheels);
+        System.out.println("Number of Wheels: " + getNumberOfWheels());
     }
 
     @Override
     public double estimateJourneyTime(double distance) {
-        double baseTime = distance / super.getMaxSpeed();
+        double baseTime = distance / getMaxSpeed();
         return baseTime * 1.1; // add 10% for traffic
     }
 
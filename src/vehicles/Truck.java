@@ -6,6 +6,7 @@ import exceptions.InsufficientFuelException;
 import interfaces.FuelConsumable;
 import interfaces.CargoCarrier;
 import interfaces.Maintainable;
+import events.FleetEventType;
 
 public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier, Maintainable {
 
@@ -28,18 +29,29 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
             throw new InvalidOperationException("Distance cannot be negative.");
         }
         try {
-            consumeFuel(distance);
+            burnFuel(distance);
         } catch (InsufficientFuelException e) {
-            throw new InvalidOperationException("Not enough fuel to haul the cargo.");
+            throw new InvalidOperationException("Not enough fuel to haul the cargo.", e);
         }
         updateMileage(distance);
-        System.out.println("Hauling cargo for " + distance + " km...");
+        emit(FleetEventType.MOVED, distance, Double.NaN);
     }
 
     @Override
     public double calculateFuelEfficiency() {
+        return calculateFuelEfficiency(readCargo());
+    }
+
+    // Cargo that can still be loaded before efficiency drops; unlimited once it has dropped
+    public double getCargoBeforeEfficiencyDrop() {
+        double headroom = cargoCapacity / 2 - readCargo();
+        return headroom >= 0 ? headroom : Double.POSITIVE_INFINITY;
+    }
+
+    // Efficiency with cargo kg aboard, for planning a load before it is made
+    public double calculateFuelEfficiency(double cargo) {
         double efficiency = 8.0;
-        if (currentCargo > cargoCapacity / 2) {
+        if (cargo > cargoCapacity / 2) {
             efficiency *= 0.9; // reduce efficiency by 10% if loaded > 50%
         }
         return efficiency;
@@ -50,41 +62,48 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
         if (amount <= 0) {
             throw new InvalidOperationException("Refuel amount must be positive.");
         }
-        fuelLevel += amount;
-        System.out.println("Refueled " + amount + " liters. Current fuel: " + fuelLevel + " liters");
+        writeFuel(readFuel() + amount);
+        emit(FleetEventType.REFUELED, amount, readFuel());
     }
 
     @Override
     public double getFuelLevel() {
-        return fuelLevel;
+        return readFuel();
     }
 
     @Override
     public double consumeFuel(double distance) throws InsufficientFuelException {
+        double required = burnFuel(distance);
+        emit(FleetEventType.FUEL_CONSUMED, required, readFuel());
+        return required;
+    }
+
+    // As in Car
+    private double burnFuel(double distance) throws InsufficientFuelException {
         double required = distance / calculateFuelEfficiency();
-        if (fuelLevel < required) {
+        if (readFuel() < required) {
             throw new InsufficientFuelException("Insufficient fuel. Needed: " + required + " liters");
         }
-        fuelLevel -= required;
+        writeFuel(readFuel() - required);
         return required;
     }
 
     @Override
     public void loadCargo(double weight) throws OverloadException {
-        if (currentCargo + weight > cargoCapacity) {
+        if (readCargo() + weight > cargoCapacity) {
             throw new OverloadException("Cannot load cargo. Exceeds capacity.");
         }
-        currentCargo += weight;
-        System.out.println(weight + " kg loaded. Current cargo: " + currentCargo + " kg");
+        writeCargo(readCargo() + weight);
+        emit(FleetEventType.CARGO_LOADED, weight, readCargo());
     }
 
     @Override
     public void unloadCargo(double weight) throws InvalidOperationException {
-        if (weight > currentCargo) {
+        if (weight > readCargo()) {
             throw new InvalidOperationException("Cannot unload more than current cargo.");
         }
-        currentCargo -= weight;
-        System.out.println(weight + " kg unloaded. Current cargo: " + currentCargo + " kg");
+        writeCargo(readCargo() - weight);
+        emit(FleetEventType.CARGO_UNLOADED, weight, readCargo());
     }
 
     @Override
@@ -94,33 +113,85 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
 
     @Override
     public double getCurrentCargo() {
-        return currentCargo;
+        return readCargo();
     }
 
     @Override
     public void scheduleMaintenance() {
-        maintenanceNeeded = true;
-        System.out.println("Maintenance scheduled for Truck ID: " + getId());
+        writeMaintenanceFlag(true);
+        emit(FleetEventType.MAINTENANCE_SCHEDULED, 0, Double.NaN);
+        maintenanceStateMayHaveChanged();
     }
 
     @Override
     public boolean needsMaintenance() {
-        return maintenanceNeeded || this.maintance() > 10000;
+        return readMaintenanceFlag() || this.maintance() > MAINTENANCE_INTERVAL;
+    }
+
+    // Only the flag scheduleMaintenance() sets, without the mileage rule
+    public boolean isMaintenanceScheduled() {
+        return readMaintenanceFlag();
+    }
+
+    // Restores that flag from persisted state, without the event of scheduleMaintenance()
+    public void restoreMaintenanceScheduled(boolean scheduled) {
+        writeMaintenanceFlag(scheduled);
+        maintenanceStateMayHaveChanged();
+        stateRestored();
     }
 
     @Override
     public void performMaintenance() {
-        maintenanceNeeded = false;
-        this.setmaintance(0);
-        System.out.println("Maintenance performed for Truck ID: " + getId());
+        writeMaintenanceFlag(false);
+        writeMaintance(0);
+        maintenanceStateMayHaveChanged();
+        emit(FleetEventType.MAINTENANCE_PERFORMED, 0, Double.NaN);
+    }
+
+    // Loader entry point, see Car.restoreState
+    public void restoreState(double fuelLevel, double currentCargo) throws InvalidOperationException {
+        if (fuelLevel < 0) {
+            throw new InvalidOperationException("Fuel level cannot be negative.");
+        }
+        if (currentCargo < 0 || currentCargo > cargoCapacity) {
+            throw new InvalidOperationException("Cargo weight out of range: " + currentCargo);
+        }
+        writeFuel(fuelLevel);
+        writeCargo(currentCargo);
+        stateRestored();
+    }
+
+    // Raw state accessors, as in Car
+    protected double readFuel() {
+        return fuelLevel;
+    }
+
+    protected void writeFuel(double fuelLevel) {
+        this.fuelLevel = fuelLevel;
+    }
+
+    protected double readCargo() {
+        return currentCargo;
+    }
+
+    protected void writeCargo(double currentCargo) {
+        this.currentCargo = currentCargo;
+    }
+
+    protected boolean readMaintenanceFlag() {
+        return maintenanceNeeded;
+    }
+
+    protected void writeMaintenanceFlag(boolean maintenanceNeeded) {
+        this.maintenanceNeeded = maintenanceNeeded;
     }
 
     @Override
     public void displayInfo() {
         super.displayInfo();
         System.out.println("Cargo Capacity: " + cargoCapacity + " kg");
-        System.out.println("Current Cargo: " + currentCargo + " kg");
-        System.out.println("Fuel Level: " + fuelLevel + " liters");
+        System.out.println("Current Cargo: " + readCargo() + " kg");
+        System.out.println("Fuel Level: " + readFuel() + " liters");
         System.out.println("Needs Maintenance: " + needsMaintenance());
     }
 }
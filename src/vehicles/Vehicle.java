@@ -1,14 +1,21 @@
 package vehicles;
 
 import exceptions.InvalidOperationException;
+import interfaces.Maintainable;
+import interfaces.VehicleObserver;
+import events.FleetEventType;
+import events.ConsoleEventListener;
 
 public abstract class Vehicle implements Comparable<Vehicle> {
+    public static final double MAINTENANCE_INTERVAL = 10000;
+
     private String id;
     private String model;
     private double maxSpeed;
     private double currentMileage;
     private double maintance;
-
+    private VehicleObserver observer;
+    private boolean reportedDue;
 
 
     public Vehicle(String id, String model, double maxSpeed) throws InvalidOperationException {
@@ -28,24 +35,69 @@ public abstract class Vehicle implements Comparable<Vehicle> {
 
     public void displayInfo() {
         System.out.println("Vehicle Info:");
-        System.out.println("ID: " + this.id);
-        System.out.println("Model: " + this.model);
-        System.out.println("Max Speed: " + this.maxSpeed + " km/h");
-        System.out.println("Mileage: " + this.currentMileage + " km");
+        System.out.println("ID: " + getId());
+        System.out.println("Model: " + getModel());
+        System.out.println("Max Speed: " + getMaxSpeed() + " km/h");
+        System.out.println("Mileage: " + getCurrentMileage() + " km");
     }
     public void setCurrentMileage(double mileage) {
-        this.currentMileage = mileage;
+        writeMileage(mileage);
+        stateRestored();
     }
     public double maintance() {
-        return this.maintance;
+        return readMaintance();
     }
     public void setmaintance(double z){
-        this.maintance=z;
+        writeMaintance(z);
+        maintenanceStateMayHaveChanged();
+        stateRestored();
+    }
+
+    public VehicleObserver getObserver() {
+        return this.observer;
+    }
+
+    public void setObserver(VehicleObserver observer) {
+        this.observer = observer;
+        this.reportedDue = this instanceof Maintainable m && m.needsMaintenance();
+    }
+
+    // Hands a mutation event to the observer. A vehicle without one, which no FleetManager
+    // holds, prints the event's console line itself as vehicles always have.
+    protected void emit(FleetEventType type, double amount, double level) {
+        VehicleObserver o = this.observer;
+        if (o != null) {
+            o.vehicleEvent(this, type, amount, level);
+            return;
+        }
+        StringBuilder line = new StringBuilder(64);
+        if (ConsoleEventListener.format(line, type, this, amount, level)) {
+            System.out.println(line);
+        }
+    }
+
+    // For the loader setters: the observer hears of the overwrite, the console never did
+    protected void stateRestored() {
+        VehicleObserver o = this.observer;
+        if (o != null) {
+            o.vehicleEvent(this, FleetEventType.STATE_RESTORED, Double.NaN, Double.NaN);
+        }
+    }
+
+    // Tells the observer when needsMaintenance() flips, so it never has to poll
+    protected void maintenanceStateMayHaveChanged() {
+        VehicleObserver o = this.observer;
+        if (o == null) return;
+        boolean due = this instanceof Maintainable m && m.needsMaintenance();
+        if (due != this.reportedDue) {
+            this.reportedDue = due;
+            o.maintenanceStateChanged(this, due);
+        }
     }
 
 
     public double getCurrentMileage() {
-        return this.currentMileage;
+        return readMileage();
     }
     public double getMaxSpeed() {
         return this.maxSpeed;
@@ -60,10 +112,32 @@ public abstract class Vehicle implements Comparable<Vehicle> {
 
 
     protected void updateMileage(double distance) {
-        this.currentMileage += distance;
-        this.maintance += distance;
+        writeMileage(readMileage() + distance);
+        double m = readMaintance() + distance;
+        writeMaintance(m);
+        // mileage only grows, so only a not-yet-due vehicle can cross the threshold here
+        if (this.observer != null && !this.reportedDue && m > MAINTENANCE_INTERVAL) {
+            maintenanceStateMayHaveChanged();
+        }
+
+    }
 
+    // Raw mileage state, overridden together with the subclasses' read/write accessors
+    // by views whose state lives outside the object
+    protected double readMileage() {
+        return this.currentMileage;
+    }
+
+    protected void writeMileage(double mileage) {
+        this.currentMileage = mileage;
+    }
+
+    protected double readMaintance() {
+        return this.maintance;
+    }
 
+    protected void writeMaintance(double maintance) {
+        this.maintance = maintance;
     }
 
     @Override
@@ -0,0 +1,56 @@
+package vehicles;
+
+public enum VehicleType {
+    CAR("Car", Car.class),
+    TRUCK("Truck", Truck.class),
+    BUS("Bus", Bus.class),
+    AIRPLANE("Airplane", Airplane.class),
+    CARGO_SHIP("CargoShip", CargoShip.class);
+
+    private static final VehicleType[] VALUES = values();
+
+    private final String displayName;
+    private final Class<? extends Vehicle> vehicleClass;
+
+    VehicleType(String displayName, Class<? extends Vehicle> vehicleClass) {
+        this.displayName = displayName;
+        this.vehicleClass = vehicleClass;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public Class<? extends Vehicle> getVehicleClass() {
+        return vehicleClass;
+    }
+
+    // Exact class match first, then the closest known supertype; null for unknown vehicle kinds
+    public static VehicleType of(Vehicle v) {
+        Class<?> c = v.getClass();
+        for (VehicleType t : VALUES) {
+            if (t.vehicleClass == c) return t;
+        }
+        for (VehicleType t : VALUES) {
+            if (t.vehicleClass.isInstance(v)) return t;
+        }
+        return null;
+    }
+
+    // Only an exact class match; a subclass of a built-in type is not that type, as far as
+    // indexes and reports go, since it may add interfaces or behaviour its parent lacks
+    public static VehicleType exactly(Vehicle v) {
+        Class<?> c = v.getClass();
+        for (VehicleType t : VALUES) {
+            if (t.vehicleClass == c) return t;
+        }
+        return null;
+    }
+
+    public static VehicleType fromName(String name) {
+        for (VehicleType t : VALUES) {
+            if (t.displayName.equalsIgnoreCase(name)) return t;
+        }
+        return null;
+    }
+}
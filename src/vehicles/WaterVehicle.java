@@ -18,12 +18,12 @@ public abstract class WaterVehicle extends Vehicle {
     @Override
     public void displayInfo() {
         super.displayInfo();
-        System.out.println("Has Sail: " + this.hasSail);
+        System.out.println("Has Sail: " + hasSail());
     }
 
     @Override
     public double estimateJourneyTime(double distance) {
-        double baseTime = distance / super.getMaxSpeed();
+        double baseTime = distance / getMaxSpeed();
         return baseTime * 1.15; // add 15% for currents
     }
 
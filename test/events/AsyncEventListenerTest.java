@@ -0,0 +1,47 @@
+package events;
+
+import interfaces.FleetEventListener;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AsyncEventListenerTest {
+    private static final int PRODUCERS = 4;
+    private static final int EVENTS = 20_000;
+
+    @Test
+    void closeWhileEmittingDeliversEveryEvent() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            AtomicInteger delivered = new AtomicInteger();
+            FleetEventListener counter = (type, vehicle, amount, level) -> delivered.incrementAndGet();
+            AsyncEventListener listener = AsyncEventListener.start(counter, 64);
+            CountDownLatch go = new CountDownLatch(1);
+            Thread[] producers = new Thread[PRODUCERS];
+            for (int p = 0; p < PRODUCERS; p++) {
+                producers[p] = new Thread(() -> {
+                    try {
+                        go.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int n = 0; n < EVENTS; n++) {
+                        listener.onEvent(FleetEventType.REFUELED, null, n, n);
+                    }
+                });
+                producers[p].start();
+            }
+            go.countDown();
+            // close mid-stream, so some producers race it
+            Thread.sleep(round % 3);
+            listener.close();
+            for (Thread t : producers) {
+                t.join();
+            }
+            assertEquals(PRODUCERS * EVENTS, delivered.get(), "round " + round);
+        }
+    }
+}
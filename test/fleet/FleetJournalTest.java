@@ -0,0 +1,56 @@
+package fleet;
+
+import vehicles.Car;
+import vehicles.Vehicle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class FleetJournalTest {
+    private static final FleetJournal.Replay NO_REPLAY = new FleetJournal.Replay() {
+        @Override public void upsert(Vehicle v) { }
+        @Override public void remove(String id) { }
+        @Override public void clear() { }
+    };
+
+    // Swaps the segment for a closed channel, so the committer's next write fails
+    private static void breakSegment(FleetJournal journal, Path dir) throws Exception {
+        Field channel = FleetJournal.class.getDeclaredField("channel");
+        channel.setAccessible(true);
+        FileChannel closed = FileChannel.open(dir.resolve("broken"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        closed.close();
+        ((FileChannel) channel.get(journal)).close();
+        channel.set(journal, closed);
+    }
+
+    @Test
+    void asyncWriteFailureReachesAppendersAndCommitters(@TempDir Path dir) throws Exception {
+        FleetJournal journal = FleetJournal.recover(dir, 0, NO_REPLAY, false);
+        breakSegment(journal, dir);
+        Car car = new Car("C1", "Civic", 120, 4);
+
+        long seq = -1;
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        try {
+            while (System.nanoTime() < deadline) {
+                seq = journal.upsert(car);
+                Thread.sleep(1);
+            }
+            fail("appends kept succeeding after the committer's write failed");
+        } catch (UncheckedIOException expected) {
+            // the committer has failed; every later append is refused
+        }
+        long last = seq;
+        assertThrows(UncheckedIOException.class, () -> journal.upsert(car));
+        assertThrows(UncheckedIOException.class, () -> journal.commit(last));
+    }
+}
@@ -0,0 +1,67 @@
+package fleet;
+
+import vehicles.Car;
+import vehicles.Vehicle;
+
+import exceptions.InvalidOperationException;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FleetManagerTest {
+    interface Convertible {
+    }
+
+    // A subclass of a built-in type that adds an interface the fleet does not index
+    static class Roadster extends Car implements Convertible {
+        Roadster(String id) throws InvalidOperationException {
+            super(id, "MX-5", 200, 4);
+        }
+    }
+
+    @Test
+    void searchByTypeFindsSubclassesByTheirOwnInterfaces() throws Exception {
+        FleetManager fleet = new FleetManager();
+        fleet.addVehicle(new Car("C1", "Civic", 120, 4));
+        fleet.addVehicle(new Roadster("R1"));
+
+        List<Vehicle> convertibles = fleet.searchByType(Convertible.class);
+        assertEquals(1, convertibles.size());
+        assertEquals("R1", convertibles.get(0).getId());
+        assertEquals(1, fleet.searchByType(Roadster.class).size());
+        assertEquals(2, fleet.searchByType(Car.class).size());
+        assertEquals(2, fleet.searchByTypeName("Car").size());
+    }
+
+    @Test
+    void reportCountsOnlyExactBuiltInTypes() throws Exception {
+        FleetManager fleet = new FleetManager();
+        fleet.addVehicle(new Car("C1", "Civic", 120, 4));
+        fleet.addVehicle(new Roadster("R1"));
+
+        String report = fleet.generateReport();
+        assertTrue(report.contains("Total Vehicles: 2\n"));
+        assertTrue(report.contains(" - Car: 1\n"));
+        assertFalse(report.contains(" - Car: 2\n"));
+    }
+
+    @Test
+    void maintenanceListKeepsFleetOrder() throws Exception {
+        FleetManager fleet = new FleetManager();
+        Car first = new Car("C1", "Civic", 120, 4);
+        Car second = new Car("C2", "Civic", 120, 4);
+        fleet.addVehicle(first);
+        fleet.addVehicle(second);
+
+        second.scheduleMaintenance();
+        first.scheduleMaintenance();
+
+        List<Vehicle> due = fleet.getVehiclesNeedingMaintenance();
+        assertEquals(List.of(first, second), due);
+    }
+}
@@ -0,0 +1,37 @@
+package fleet;
+
+import vehicles.Car;
+import vehicles.Vehicle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JourneyEngineTest {
+    private static Car car(String id) throws Exception {
+        Car c = new Car(id, "Civic", 120, 4);
+        c.refuel(30);
+        return c;
+    }
+
+    @Test
+    void throwingAfterMoveFailsOnlyItsVehicle() throws Exception {
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            vehicles.add(car("C" + i));
+        }
+        JourneyEngine engine = new JourneyEngine(ForkJoinPool.commonPool(), 2);
+        JourneyResult result = engine.run(vehicles, 10, null, v -> {
+            if (v.getId().equals("C42")) {
+                throw new IllegalStateException("refresh failed");
+            }
+        });
+        assertEquals(4999, result.getSuccessCount());
+        assertEquals(1, result.getFailureCount());
+        assertEquals("refresh failed", result.getFailures().get("C42"));
+    }
+}
@@ -0,0 +1,52 @@
+package fleet;
+
+import vehicles.Car;
+import vehicles.Truck;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapFleetTest {
+    private static Truck truck(String id) throws Exception {
+        Truck t = new Truck(id, "Volvo", 100, 6);
+        t.setCurrentMileage(1500);
+        t.refuel(100);
+        t.loadCargo(100);
+        return t;
+    }
+
+    private static Car car(String id) throws Exception {
+        Car c = new Car(id, "Civic", 120, 4);
+        c.setCurrentMileage(200);
+        c.refuel(30);
+        return c;
+    }
+
+    @Test
+    void totalsLeaveOutRemovedVehicles() throws Exception {
+        OffHeapFleet fleet = new OffHeapFleet();
+        fleet.add(truck("T1"));
+        fleet.add(car("C1"));
+
+        assertTrue(fleet.remove("T1"));
+
+        assertEquals(1, fleet.size());
+        assertEquals(30.0, fleet.totalFuel());
+        assertEquals(200.0, fleet.totalMileage());
+        assertEquals(0.0, fleet.totalCargo());
+    }
+
+    @Test
+    void reusedSlotCountsOnlyItsNewVehicle() throws Exception {
+        OffHeapFleet fleet = new OffHeapFleet();
+        fleet.add(truck("T1"));
+        fleet.remove("T1");
+        fleet.add(car("C1"));
+
+        assertEquals(30.0, fleet.totalFuel());
+        assertEquals(200.0, fleet.totalMileage());
+        assertEquals(0.0, fleet.totalCargo());
+    }
+}